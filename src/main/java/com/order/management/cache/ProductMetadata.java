@@ -0,0 +1,15 @@
+package com.order.management.cache;
+
+import com.order.management.model.Product;
+
+import java.math.BigDecimal;
+
+/**
+ * The slow-changing part of a product. Stock is deliberately left out.
+ */
+public record ProductMetadata(Long id, String name, BigDecimal price) {
+
+    public static ProductMetadata of(Product product) {
+        return new ProductMetadata(product.getId(), product.getName(), product.getPrice());
+    }
+}
@@ -0,0 +1,131 @@
+package com.order.management.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.order.management.config.ProductCacheProperties;
+import com.order.management.model.Product;
+import com.order.management.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded, TTL-evicting cache of {@link ProductMetadata}. Hit, miss and eviction counts are
+ * published as {@code cache.*} meters tagged {@code cache=productMetadata}.
+ *
+ * <p>Entries are only written from the primary: by {@link #put} for rows the caller holds
+ * locked, and by {@link #getAll} after a load during which no invalidation happened. Every
+ * invalidation bumps a stamp before dropping the entry; a loader reads the stamp before
+ * querying and checks it again after writing, undoing its write if the stamp moved.
+ */
+@Slf4j
+@Component
+public class ProductMetadataCache {
+
+    static final String CACHE_NAME = "productMetadata";
+
+    private final ProductRepository productRepository;
+    private final Cache<Long, ProductMetadata> cache;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public ProductMetadataCache(ProductRepository productRepository,
+                                ProductCacheProperties properties,
+                                ObjectProvider<MeterRegistry> meterRegistry) {
+        this.productRepository = productRepository;
+        if (properties.isEnabled()) {
+            this.cache = Caffeine.newBuilder()
+                    .maximumSize(properties.getMaximumSize())
+                    .expireAfterWrite(properties.getTtl())
+                    .recordStats()
+                    .build();
+            meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME));
+        } else {
+            this.cache = null;
+            log.info("Product metadata cache is disabled");
+        }
+    }
+
+    /**
+     * Returns metadata for the given products, loading all misses with one query.
+     * Ids that do not exist are absent from the result. Misses loaded inside a read-only
+     * transaction are not cached, since those reads may be served by a lagging replica.
+     */
+    public Map<Long, ProductMetadata> getAll(Collection<Long> ids) {
+        if (cache == null) {
+            return load(ids);
+        }
+        Map<Long, ProductMetadata> result = new HashMap<>(cache.getAllPresent(ids));
+        if (result.size() == ids.size()) {
+            return result;
+        }
+        List<Long> misses = new ArrayList<>(ids.size() - result.size());
+        for (Long id : ids) {
+            if (!result.containsKey(id)) {
+                misses.add(id);
+            }
+        }
+        long stamp = invalidations.get();
+        Map<Long, ProductMetadata> loaded = load(misses);
+        result.putAll(loaded);
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() && invalidations.get() == stamp) {
+            cache.putAll(loaded);
+            if (invalidations.get() != stamp) {
+                cache.invalidateAll(loaded.keySet());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Caches a product read under a row lock in a read-write transaction, so no update can
+     * commit between the read and this write. Ignored inside a read-only transaction.
+     */
+    public void put(Product product) {
+        if (cache != null && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            cache.put(product.getId(), ProductMetadata.of(product));
+        }
+    }
+
+    /**
+     * Drops the entry now and again once the surrounding transaction commits, so that a
+     * concurrent reader cannot re-populate it with the pre-commit row.
+     */
+    public void invalidate(Long id) {
+        if (cache == null) {
+            return;
+        }
+        drop(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    drop(id);
+                }
+            });
+        }
+    }
+
+    private void drop(Long id) {
+        invalidations.incrementAndGet();
+        cache.invalidate(id);
+    }
+
+    private Map<Long, ProductMetadata> load(Collection<Long> ids) {
+        Map<Long, ProductMetadata> loaded = new HashMap<>(ids.size() * 2);
+        for (Product product : productRepository.findAllById(new ArrayList<Long>(ids))) {
+            loaded.put(product.getId(), ProductMetadata.of(product));
+        }
+        return loaded;
+    }
+}
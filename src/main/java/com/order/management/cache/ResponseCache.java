@@ -0,0 +1,104 @@
+package com.order.management.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.order.management.config.ResponseCacheProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serialized bodies of hot GET responses, each stamped with the generation of the data it
+ * was built from. Every write bumps the generation of what it changed, so a cached body or a
+ * client's ETag is known to be current without asking the database.
+ *
+ * <p>Generations live in this instance only, so they never appear in ETags. Entries expire
+ * after {@code response-cache.ttl}, which bounds how long a write made through another
+ * instance goes unseen, by cached bodies and by 304 answers alike.
+ */
+@Slf4j
+@Component
+public class ResponseCache {
+
+    static final String CACHE_NAME = "responses";
+
+    public enum Dataset {
+        PRODUCTS,
+        REPORTS
+    }
+
+    public record CachedResponse(long generation, String etag, byte[] body) {
+    }
+
+    private final Map<Dataset, AtomicLong> generations = new EnumMap<>(Dataset.class);
+    private final Map<Dataset, Cache<String, CachedResponse>> responses = new EnumMap<>(Dataset.class);
+
+    public ResponseCache(ResponseCacheProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        for (Dataset dataset : Dataset.values()) {
+            generations.put(dataset, new AtomicLong());
+        }
+        if (properties.isEnabled()) {
+            for (Dataset dataset : Dataset.values()) {
+                Cache<String, CachedResponse> cache = Caffeine.newBuilder()
+                        .maximumWeight(properties.getMaximumSize().toBytes() / Dataset.values().length)
+                        .<String, CachedResponse>weigher((key, response) -> response.body().length)
+                        .expireAfterWrite(properties.getTtl())
+                        .recordStats()
+                        .build();
+                responses.put(dataset, cache);
+                meterRegistry.ifAvailable(registry ->
+                        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME + "." + dataset.name().toLowerCase()));
+            }
+        } else {
+            log.info("Response cache is disabled");
+        }
+    }
+
+    public long generation(Dataset dataset) {
+        return generations.get(dataset).get();
+    }
+
+    /**
+     * The response cached under {@code key}, if it was built from the current generation.
+     */
+    public CachedResponse get(Dataset dataset, String key) {
+        Cache<String, CachedResponse> cache = responses.get(dataset);
+        if (cache == null) {
+            return null;
+        }
+        CachedResponse cached = cache.getIfPresent(key);
+        return cached != null && cached.generation() == generation(dataset) ? cached : null;
+    }
+
+    public void put(Dataset dataset, String key, CachedResponse response) {
+        Cache<String, CachedResponse> cache = responses.get(dataset);
+        if (cache != null) {
+            cache.put(key, response);
+        }
+    }
+
+    /**
+     * Moves {@code dataset} to a new generation now and again once the surrounding transaction
+     * commits, so that a response built from the pre-commit rows is not taken as current.
+     */
+    public void changed(Dataset dataset) {
+        AtomicLong generation = generations.get(dataset);
+        generation.incrementAndGet();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    generation.incrementAndGet();
+                }
+            });
+        }
+    }
+}
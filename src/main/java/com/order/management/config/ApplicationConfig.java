@@ -0,0 +1,25 @@
+package com.order.management.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables scheduled background jobs and binds the application settings.
+ */
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties({
+        ConcurrencyLimitProperties.class,
+        IdempotencyProperties.class,
+        InventoryProperties.class,
+        OrderIntakeProperties.class,
+        OrderPartitionProperties.class,
+        OutboxProperties.class,
+        ProductCacheProperties.class,
+        ReadReplicaProperties.class,
+        ReportStatsProperties.class,
+        ResponseCacheProperties.class
+})
+public class ApplicationConfig {
+}
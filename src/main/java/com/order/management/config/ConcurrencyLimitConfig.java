@@ -0,0 +1,75 @@
+package com.order.management.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.order.management.controller.support.ConcurrencyLimitFilter;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Registers {@link ConcurrencyLimitFilter} in front of {@code /api/*} when
+ * {@code concurrency-limit.enabled=true}, which the "vthreads" profile turns on. With
+ * platform threads Tomcat's worker pool already bounds concurrency; with virtual threads
+ * nothing else does.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "concurrency-limit", name = "enabled", havingValue = "true")
+public class ConcurrencyLimitConfig {
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            ConcurrencyLimitProperties properties,
+            DataSource dataSource,
+            ObjectMapper objectMapper,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            Environment environment) {
+
+        int limit = properties.getPermits() > 0 ? properties.getPermits() : poolSize(dataSource);
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(limit, properties.getAcquireTimeout(), objectMapper);
+        meterRegistry.ifAvailable(registry -> {
+            Gauge.builder("api.concurrency.in.flight", filter, ConcurrencyLimitFilter::inFlight)
+                    .description("API requests holding a concurrency permit")
+                    .register(registry);
+            Gauge.builder("api.concurrency.queued", filter, ConcurrencyLimitFilter::queued)
+                    .description("API requests waiting for a concurrency permit")
+                    .register(registry);
+            FunctionCounter.builder("api.concurrency.rejected", filter, ConcurrencyLimitFilter::rejectedCount)
+                    .description("API requests rejected with 503 because no permit became free in time")
+                    .register(registry);
+        });
+
+        boolean virtual = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        if (virtual && Runtime.version().feature() < 21) {
+            log.warn("spring.threads.virtual.enabled is set but the runtime is Java {}; requests run on platform threads",
+                     Runtime.version().feature());
+        }
+        log.info("Limiting /api/* to {} concurrent requests (acquire timeout {})", limit, properties.getAcquireTimeout());
+
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+
+    private static int poolSize(DataSource dataSource) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not determine the connection pool size", e);
+        }
+        throw new IllegalStateException("concurrency-limit.permits must be set when the DataSource is not Hikari");
+    }
+}
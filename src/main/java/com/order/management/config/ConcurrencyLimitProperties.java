@@ -0,0 +1,22 @@
+package com.order.management.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings under {@code concurrency-limit.*} for the limit on in-flight API requests.
+ */
+@Data
+@ConfigurationProperties(prefix = "concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    private boolean enabled = false;
+
+    /** Requests allowed in flight at once; 0 sizes the limit to the connection pool. */
+    private int permits = 0;
+
+    /** How long a request may queue for a permit before it is rejected with 503. */
+    private Duration acquireTimeout = Duration.ofSeconds(2);
+}
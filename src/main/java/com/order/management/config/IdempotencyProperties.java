@@ -0,0 +1,26 @@
+package com.order.management.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings under {@code idempotency.*} for {@code Idempotency-Key} handling.
+ */
+@Data
+@ConfigurationProperties(prefix = "idempotency")
+public class IdempotencyProperties {
+
+    /** How long a completed request can be replayed under its key. */
+    private Duration ttl = Duration.ofHours(24);
+
+    /** Completed responses kept in memory in front of the {@code idempotency_key} table. */
+    private long cacheSize = 10_000;
+
+    /** How long a duplicate waits for the in-flight original before it gets 503. */
+    private Duration waitTimeout = Duration.ofSeconds(10);
+
+    /** Expired keys deleted per statement by the cleanup job. */
+    private int cleanupBatchSize = 1_000;
+}
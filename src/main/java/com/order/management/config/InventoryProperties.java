@@ -0,0 +1,70 @@
+package com.order.management.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Settings under {@code inventory.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "inventory")
+public class InventoryProperties {
+
+    /**
+     * {@code database} reserves against locked product rows; {@code optimistic} reads them
+     * without locks and decrements only if their version is unchanged; {@code ledger} reserves
+     * against in-memory counters and writes the product table behind.
+     */
+    private Mode mode = Mode.DATABASE;
+
+    private Ledger ledger = new Ledger();
+
+    private Optimistic optimistic = new Optimistic();
+
+    public enum Mode {
+        DATABASE,
+        OPTIMISTIC,
+        LEDGER
+    }
+
+    @Data
+    public static class Ledger {
+
+        /** Sub-counters per product unless overridden in {@link #productStripes}. */
+        private int stripes = 1;
+
+        /** Sub-counters for specific hot products, keyed by product id. */
+        private Map<Long, Integer> productStripes = new HashMap<>();
+
+        /** Delay between write-behind flushes, in milliseconds. */
+        private long flushIntervalMs = 200;
+
+        /** Maximum number of orders folded into one flush transaction. */
+        private int flushBatchSize = 500;
+
+        public int stripesFor(Long productId) {
+            return productStripes.getOrDefault(productId, stripes);
+        }
+    }
+
+    /**
+     * Retries of an order whose products changed between read and write. Applies in every
+     * mode, although only {@code optimistic} reservations are expected to conflict.
+     */
+    @Data
+    public static class Optimistic {
+
+        /** Attempts per order, the first included. */
+        private int maxAttempts = 5;
+
+        /** Backoff before the first retry; doubled for each further retry. */
+        private Duration initialBackoff = Duration.ofMillis(5);
+
+        /** Upper bound on the backoff before a single retry. */
+        private Duration maxBackoff = Duration.ofMillis(100);
+    }
+}
@@ -0,0 +1,46 @@
+package com.order.management.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings under {@code order-intake.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "order-intake")
+public class OrderIntakeProperties {
+
+    /**
+     * {@code sync} places orders inside the request; {@code async} appends them to the
+     * intake log, answers 202 and places them in group-committed batches.
+     */
+    private Mode mode = Mode.SYNC;
+
+    /** Directory holding the intake log segments and checkpoint; must be on local disk. */
+    private String logDir = "data/intake";
+
+    /** Size of each memory-mapped log segment. */
+    private int segmentBytes = 64 * 1024 * 1024;
+
+    /** Accepted orders not yet committed; further requests wait, then get 503. */
+    private int capacity = 10_000;
+
+    /** How long a request waits for queue capacity before it is rejected. */
+    private Duration offerTimeout = Duration.ofMillis(200);
+
+    /** Maximum number of orders committed in one transaction. */
+    private int batchSize = 200;
+
+    /** How long the committer waits for a batch to fill once it has one order. */
+    private Duration linger = Duration.ofMillis(5);
+
+    /** How long terminal statuses stay queryable. */
+    private Duration statusRetention = Duration.ofDays(7);
+
+    public enum Mode {
+        SYNC,
+        ASYNC
+    }
+}
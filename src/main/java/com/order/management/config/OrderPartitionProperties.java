@@ -0,0 +1,37 @@
+package com.order.management.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings under {@code order-partitions.*} for the monthly partitions of {@code orders}
+ * and {@code order_item}.
+ */
+@Data
+@ConfigurationProperties(prefix = "order-partitions")
+public class OrderPartitionProperties {
+
+    /** Create partitions from this instance, and archive them if {@link #retentionMonths} is set. Needs PostgreSQL. */
+    private boolean enabled = true;
+
+    /** When partitions are created and archived, besides at startup; "-" disables the schedule. */
+    private String maintainCron = "0 30 2 * * *";
+
+    /** Months after the current one that always have a partition ready. */
+    private int premakeMonths = 3;
+
+    /**
+     * Months of orders, before the current one, kept in {@code orders}. Older partitions are
+     * detached and moved to {@link #archiveSchema}, leaving customer history and reports. 0, the
+     * default, keeps every partition attached; archiving happens only when this is set.
+     */
+    private int retentionMonths = 0;
+
+    /** Schema that detached partitions are moved to, for dumping or dropping later. */
+    private String archiveSchema = "order_archive";
+
+    /** How long partition DDL waits for its table locks before leaving it to the next run. */
+    private Duration lockTimeout = Duration.ofSeconds(2);
+}
@@ -0,0 +1,68 @@
+package com.order.management.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings under {@code outbox.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "outbox")
+public class OutboxProperties {
+
+    private Relay relay = new Relay();
+
+    private Sse sse = new Sse();
+
+    private File file = new File();
+
+    @Data
+    public static class Relay {
+
+        /** Run the relay on exactly one instance; the others only record events. */
+        private boolean enabled = true;
+
+        /** Delay between polls once the relay has caught up. */
+        private Duration pollInterval = Duration.ofMillis(200);
+
+        /** Maximum number of events read and handed to a sink at once. */
+        private int batchSize = 500;
+
+        /**
+         * How long a missing event id is waited for before it is treated as a rolled-back
+         * write. Must exceed the longest transaction that records events.
+         */
+        private Duration gapTimeout = Duration.ofSeconds(10);
+
+        /** How long published events stay in the table for SSE clients to resume from. */
+        private Duration retention = Duration.ofDays(3);
+    }
+
+    @Data
+    public static class Sse {
+
+        private boolean enabled = true;
+
+        /** Open streams beyond this are refused with 503. */
+        private int maxSubscribers = 100;
+
+        /** Events buffered per stream; a client that falls further behind is disconnected. */
+        private int bufferSize = 1000;
+
+        /** Streams are closed after this long; clients reconnect with Last-Event-ID. */
+        private Duration timeout = Duration.ofMinutes(30);
+
+        private Duration heartbeat = Duration.ofSeconds(15);
+    }
+
+    @Data
+    public static class File {
+
+        private boolean enabled = false;
+
+        /** NDJSON file events are appended to, one per line. */
+        private String path = "data/outbox/events.ndjson";
+    }
+}
@@ -0,0 +1,22 @@
+package com.order.management.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings under {@code product-cache.*} for the in-process product metadata cache.
+ */
+@Data
+@ConfigurationProperties(prefix = "product-cache")
+public class ProductCacheProperties {
+
+    /** When false every lookup goes to the database. */
+    private boolean enabled = true;
+
+    private long maximumSize = 10_000;
+
+    /** Entries are dropped this long after they were written. */
+    private Duration ttl = Duration.ofMinutes(10);
+}
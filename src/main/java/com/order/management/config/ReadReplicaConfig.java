@@ -0,0 +1,82 @@
+package com.order.management.config;
+
+import com.order.management.replica.ReadWriteRoutingDataSource;
+import com.order.management.replica.ReplicaLagMonitor;
+import com.order.management.replica.ReplicaPool;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the auto-configured DataSource with {@link ReadWriteRoutingDataSource} when
+ * {@code read-replicas.enabled=true}. The primary and every replica get their own Hikari pool,
+ * all configured from {@code spring.datasource.hikari}, and their pool metrics are tagged
+ * {@code pool=primary} and {@code pool=replica-N}.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "read-replicas", name = "enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(ReadReplicaProperties properties,
+                                               DataSourceProperties primary,
+                                               Environment environment,
+                                               ObjectProvider<MeterRegistry> meterRegistry) {
+        if (properties.getPools().isEmpty()) {
+            throw new IllegalStateException("read-replicas.enabled is set but no read-replicas.pools are configured");
+        }
+        MeterRegistry registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        List<ReplicaPool> replicas = new ArrayList<>();
+        for (ReadReplicaProperties.Pool pool : properties.getPools()) {
+            String name = "replica-" + (replicas.size() + 1);
+            HikariDataSource dataSource = pool(environment, name, registry);
+            dataSource.setJdbcUrl(pool.getUrl());
+            dataSource.setUsername(pool.getUsername() != null ? pool.getUsername() : primary.determineUsername());
+            dataSource.setPassword(pool.getPassword() != null ? pool.getPassword() : primary.determinePassword());
+            if (pool.getMaximumPoolSize() != null) {
+                dataSource.setMaximumPoolSize(pool.getMaximumPoolSize());
+            }
+            dataSource.setReadOnly(true);
+            replicas.add(new ReplicaPool(name, dataSource));
+        }
+        log.info("Routing read-only transactions to {} replica(s), at most {} behind the primary",
+                 replicas.size(), properties.getMaxLag());
+        return new ReplicaLagMonitor(replicas, properties.getMaxLag(), registry);
+    }
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties properties,
+                                 ReplicaLagMonitor replicaLagMonitor,
+                                 Environment environment,
+                                 ObjectProvider<MeterRegistry> meterRegistry) {
+        MeterRegistry registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        HikariDataSource primary = pool(environment, ReadWriteRoutingDataSource.PRIMARY, registry);
+        primary.setJdbcUrl(properties.determineUrl());
+        primary.setUsername(properties.determineUsername());
+        primary.setPassword(properties.determinePassword());
+        primary.setDriverClassName(properties.determineDriverClassName());
+        return new ReadWriteRoutingDataSource(primary, replicaLagMonitor.getReplicas(), registry).lazy();
+    }
+
+    private static HikariDataSource pool(Environment environment, String name, MeterRegistry registry) {
+        HikariDataSource dataSource = new HikariDataSource();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+        dataSource.setPoolName(name);
+        dataSource.setMetricRegistry(registry);
+        return dataSource;
+    }
+}
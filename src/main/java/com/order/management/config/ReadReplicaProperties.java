@@ -0,0 +1,42 @@
+package com.order.management.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings under {@code read-replicas.*} for sending read-only transactions to replicas.
+ */
+@Data
+@ConfigurationProperties(prefix = "read-replicas")
+public class ReadReplicaProperties {
+
+    /** Route read-only transactions to {@link #pools}; otherwise everything uses spring.datasource. */
+    private boolean enabled = false;
+
+    /** Replicas further behind the primary than this are skipped until they catch up. */
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    /** Delay between replication lag checks. */
+    private Duration checkInterval = Duration.ofSeconds(1);
+
+    private List<Pool> pools = new ArrayList<>();
+
+    @Data
+    public static class Pool {
+
+        private String url;
+
+        /** Defaults to spring.datasource.username. */
+        private String username;
+
+        /** Defaults to spring.datasource.password. */
+        private String password;
+
+        /** Defaults to spring.datasource.hikari.maximum-pool-size. */
+        private Integer maximumPoolSize;
+    }
+}
@@ -0,0 +1,18 @@
+package com.order.management.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings under {@code reports.stats.*} for the maintained customer order counts.
+ */
+@Data
+@ConfigurationProperties(prefix = "reports.stats")
+public class ReportStatsProperties {
+
+    /** When the consistency check runs; "-" disables it. */
+    private String verifyCron = "0 0 3 * * *";
+
+    /** Whether the consistency check corrects the drift it finds or only reports it. */
+    private boolean repair = true;
+}
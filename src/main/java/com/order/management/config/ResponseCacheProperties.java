@@ -0,0 +1,27 @@
+package com.order.management.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Settings under {@code response-cache.*} for the serialized catalogue and report responses.
+ */
+@Data
+@ConfigurationProperties(prefix = "response-cache")
+public class ResponseCacheProperties {
+
+    /** When false every GET is built and serialized again; ETags and 304s still work. */
+    private boolean enabled = true;
+
+    /** Upper bound on the cached response bodies, in total. */
+    private DataSize maximumSize = DataSize.ofMegabytes(32);
+
+    /**
+     * Entries are dropped this long after they were written. Writes made by other instances
+     * are not seen here, so this bounds how long they can go unnoticed.
+     */
+    private Duration ttl = Duration.ofMinutes(1);
+}
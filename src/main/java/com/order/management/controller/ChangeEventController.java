@@ -0,0 +1,43 @@
+package com.order.management.controller;
+
+import com.order.management.exception.ResourceNotFoundException;
+import com.order.management.model.OutboxEvent;
+import com.order.management.outbox.SseOutboxSink;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Set;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/events")
+@RequiredArgsConstructor
+public class ChangeEventController {
+
+    private final ObjectProvider<SseOutboxSink> sseSink;
+
+    /**
+     * Streams order, product and customer change events as they are published. Each event's
+     * SSE id is its outbox id: reconnecting with {@code Last-Event-ID} (or {@code ?after=})
+     * replays everything after it that is still retained. Without either, only new events
+     * are sent. {@code ?aggregate=ORDER,PRODUCT} narrows the stream.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+            @RequestParam(required = false) Long after,
+            @RequestParam(name = "aggregate", required = false) Set<OutboxEvent.AggregateType> aggregates) {
+
+        Long from = lastEventId != null ? lastEventId : after;
+        log.info("GET /api/events/stream - after={} aggregates={}", from, aggregates);
+        SseOutboxSink sink = sseSink.getIfAvailable();
+        if (sink == null) {
+            throw new ResourceNotFoundException("The change event stream is not enabled");
+        }
+        return sink.subscribe(from, aggregates != null ? aggregates : Set.of());
+    }
+}
@@ -1,7 +1,13 @@
 package com.order.management.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.order.management.controller.support.CsvWriter;
+import com.order.management.controller.support.NdjsonWriter;
 import com.order.management.dto.CustomerDTO;
+import com.order.management.logging.PayloadSummary;
+import com.order.management.logging.RequestLogSampler;
 import com.order.management.service.CustomerService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
@@ -9,6 +15,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -20,13 +27,16 @@ import java.util.List;
 public class CustomerController {
 
     private static final Logger log = LoggerFactory.getLogger(CustomerController.class);
+    private static final String[] CSV_HEADER = {"id", "name", "email", "phone"};
+
     private final CustomerService customerService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public ResponseEntity<CustomerDTO> addCustomer(@Valid @RequestBody CustomerDTO dto) {
-        log.info("POST /api/customers - payload: {}", dto);
+        log.debug("POST /api/customers - {}", PayloadSummary.of(dto));
         CustomerDTO created = customerService.addCustomer(dto);
-        log.info("POST /api/customers - created customer: id={}", created.getId());
+        log.info(RequestLogSampler.REQUEST, "POST /api/customers - created customer: id={}", created.getId());
         return ResponseEntity.ok(created);
     }
 
@@ -34,25 +44,53 @@ public class CustomerController {
     public ResponseEntity<CustomerDTO> updateCustomer(
             @PathVariable Long id,
             @Valid @RequestBody CustomerDTO dto) {
-        log.info("PUT /api/customers/{} - payload: {}", id, dto);
+        log.debug("PUT /api/customers/{} - {}", id, PayloadSummary.of(dto));
         CustomerDTO updated = customerService.updateCustomer(id, dto);
-        log.info("PUT /api/customers/{} - success", id);
+        log.info(RequestLogSampler.REQUEST, "PUT /api/customers/{} - success", id);
         return ResponseEntity.ok(updated);
     }
 
     @GetMapping
-    public ResponseEntity<List<CustomerDTO>> getAll() {
-        log.debug("GET /api/customers");
-        List<CustomerDTO> all = customerService.getAllCustomers();
+    public ResponseEntity<List<CustomerDTO>> getAll(
+            @RequestParam(required = false) Integer page,
+            @RequestParam(defaultValue = "100") int size) {
+        log.debug("GET /api/customers - page={} size={}", page, size);
+        List<CustomerDTO> all = page == null
+                ? customerService.getAllCustomers()
+                : customerService.getCustomers(page, size);
         log.debug("GET /api/customers - returning {} customers", all.size());
         return ResponseEntity.ok(all);
     }
 
+    /**
+     * Streams every customer as NDJSON (default) or CSV with constant memory.
+     */
+    @GetMapping("/stream")
+    public void streamCustomers(
+            @RequestParam(defaultValue = "ndjson") String format,
+            HttpServletResponse response) throws IOException {
+        log.debug("GET /api/customers/stream - format={}", format);
+        long count;
+        if ("csv".equalsIgnoreCase(format)) {
+            response.setContentType(CsvWriter.MEDIA_TYPE);
+            try (CsvWriter<CustomerDTO> writer = new CsvWriter<>(response.getOutputStream(), CSV_HEADER,
+                    c -> new Object[]{c.getId(), c.getName(), c.getEmail(), c.getPhone()})) {
+                count = customerService.streamAllCustomers(writer);
+            }
+        } else {
+            response.setContentType(NdjsonWriter.MEDIA_TYPE);
+            try (NdjsonWriter<CustomerDTO> writer = new NdjsonWriter<>(objectMapper, response.getOutputStream())) {
+                count = customerService.streamAllCustomers(writer);
+            }
+        }
+        log.debug("GET /api/customers/stream - streamed {} customers", count);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<CustomerDTO> getById(@PathVariable Long id) {
         log.debug("GET /api/customers/{}", id);
         CustomerDTO dto = customerService.getCustomerById(id);
-        log.debug("GET /api/customers/{} - found: {}", id, dto);
+        log.debug("GET /api/customers/{} - found", id);
         return ResponseEntity.ok(dto);
     }
 }
@@ -1,15 +1,32 @@
 package com.order.management.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.order.management.controller.support.NdjsonWriter;
+import com.order.management.dto.BatchOrderRequestDTO;
+import com.order.management.dto.BatchOrderResponseDTO;
+import com.order.management.dto.OrderIntakeStatusDTO;
+import com.order.management.dto.OrderPageDTO;
 import com.order.management.dto.OrderRequestDTO;
 import com.order.management.dto.OrderResponseDTO;
+import com.order.management.dto.OrderSummaryDTO;
+import com.order.management.exception.ResourceNotFoundException;
+import com.order.management.idempotency.IdempotencyStore;
+import com.order.management.intake.OrderIntakePipeline;
+import com.order.management.logging.PayloadSummary;
+import com.order.management.logging.RequestLogSampler;
 import com.order.management.service.OrderService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.net.URI;
 import java.util.List;
+import java.util.UUID;
 
 @Slf4j
 @RestController
@@ -18,17 +35,69 @@ import java.util.List;
 public class OrderController {
 
     private final OrderService orderService;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<OrderIntakePipeline> orderIntake;
+    private final IdempotencyStore idempotencyStore;
 
+    /**
+     * Places the order and returns it, or with {@code order-intake.mode=async} accepts it
+     * durably and returns 202 with a tracking id to poll under {@code /api/orders/intake}.
+     * A retry with the same {@code Idempotency-Key} gets the original response back instead
+     * of placing the order again.
+     */
     @PostMapping
-    public ResponseEntity<OrderResponseDTO> placeOrder(
-            @Valid @RequestBody OrderRequestDTO dto) {
+    public ResponseEntity<?> placeOrder(
+            @Valid @RequestBody OrderRequestDTO dto,
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
 
-        log.info("POST /api/orders - payload: {}", dto);
+        log.debug("POST /api/orders - {}", PayloadSummary.of(dto));
+        if (idempotencyKey != null) {
+            return idempotencyStore.execute(idempotencyKey, dto, () -> placeOrAccept(dto));
+        }
+        return placeOrAccept(dto);
+    }
+
+    private ResponseEntity<?> placeOrAccept(OrderRequestDTO dto) {
+        OrderIntakePipeline pipeline = orderIntake.getIfAvailable();
+        if (pipeline != null) {
+            OrderIntakeStatusDTO accepted = pipeline.submit(dto);
+            log.info(RequestLogSampler.REQUEST, "POST /api/orders - accepted trackingId={}",
+                     accepted.getTrackingId());
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/orders/intake/" + accepted.getTrackingId()))
+                    .body(accepted);
+        }
         OrderResponseDTO created = orderService.placeOrder(dto);
-        log.info("POST /api/orders - created order id={}", created.getId());
+        log.info(RequestLogSampler.REQUEST, "POST /api/orders - created order id={}", created.getId());
         return ResponseEntity.ok(created);
     }
 
+    @GetMapping("/intake/{trackingId}")
+    public ResponseEntity<OrderIntakeStatusDTO> getIntakeStatus(@PathVariable UUID trackingId) {
+        log.debug("GET /api/orders/intake/{}", trackingId);
+        OrderIntakePipeline pipeline = orderIntake.getIfAvailable();
+        if (pipeline == null) {
+            throw new ResourceNotFoundException("Asynchronous order intake is not enabled");
+        }
+        return ResponseEntity.ok(pipeline.status(trackingId));
+    }
+
+    /**
+     * Places up to {@value BatchOrderRequestDTO#MAX_ORDERS} orders in one call. Per-order
+     * rejections (unknown customer or product, insufficient stock) are reported in the
+     * results; the response is 200 as long as the batch itself was processed.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<BatchOrderResponseDTO> placeOrders(
+            @Valid @RequestBody BatchOrderRequestDTO dto) {
+
+        log.debug("POST /api/orders/batch - {} orders", dto.getOrders().size());
+        BatchOrderResponseDTO result = orderService.placeOrders(dto.getOrders());
+        log.info(RequestLogSampler.REQUEST, "POST /api/orders/batch - placed={} rejected={}",
+                 result.getPlaced(), result.getRejected());
+        return ResponseEntity.ok(result);
+    }
+
     @GetMapping("/customer/{customerId}")
     public ResponseEntity<List<OrderResponseDTO>> getOrdersByCustomer(
             @PathVariable Long customerId) {
@@ -39,4 +108,44 @@ public class OrderController {
                   customerId, orders.size());
         return ResponseEntity.ok(orders);
     }
+
+    @GetMapping("/customer/{customerId}/page")
+    public ResponseEntity<OrderPageDTO> getOrderPageByCustomer(
+            @PathVariable Long customerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+
+        log.debug("GET /api/orders/customer/{}/page - limit={}", customerId, limit);
+        OrderPageDTO page = orderService.getOrdersByCustomerId(customerId, cursor, limit);
+        log.debug("GET /api/orders/customer/{}/page - returning {} orders",
+                  customerId, page.getOrders().size());
+        return ResponseEntity.ok(page);
+    }
+
+    /**
+     * Lists the customer's orders with item counts and totals but without items.
+     */
+    @GetMapping("/customer/{customerId}/summary")
+    public ResponseEntity<List<OrderSummaryDTO>> getOrderSummariesByCustomer(@PathVariable Long customerId) {
+        log.debug("GET /api/orders/customer/{}/summary", customerId);
+        List<OrderSummaryDTO> summaries = orderService.getOrderSummariesByCustomerId(customerId);
+        log.debug("GET /api/orders/customer/{}/summary - returning {} orders", customerId, summaries.size());
+        return ResponseEntity.ok(summaries);
+    }
+
+    /**
+     * Streams the full history as newline-delimited JSON, one order per line, oldest first.
+     */
+    @GetMapping(value = "/customer/{customerId}/stream", produces = NdjsonWriter.MEDIA_TYPE)
+    public void streamOrdersByCustomer(
+            @PathVariable Long customerId,
+            HttpServletResponse response) throws IOException {
+
+        log.debug("GET /api/orders/customer/{}/stream", customerId);
+        response.setContentType(NdjsonWriter.MEDIA_TYPE);
+        try (NdjsonWriter<OrderResponseDTO> writer = new NdjsonWriter<>(objectMapper, response.getOutputStream())) {
+            long count = orderService.streamOrdersByCustomerId(customerId, writer);
+            log.debug("GET /api/orders/customer/{}/stream - streamed {} orders", customerId, count);
+        }
+    }
 }
@@ -1,13 +1,24 @@
 package com.order.management.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.order.management.cache.ResponseCache;
+import com.order.management.controller.support.CachedJsonResponses;
+import com.order.management.controller.support.CsvWriter;
+import com.order.management.controller.support.NdjsonWriter;
 import com.order.management.dto.ProductDTO;
+import com.order.management.dto.StockAdjustmentDTO;
+import com.order.management.logging.PayloadSummary;
+import com.order.management.logging.RequestLogSampler;
 import com.order.management.service.ProductService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
 import java.util.List;
 
 @Slf4j
@@ -16,13 +27,17 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ProductController {
 
+    private static final String[] CSV_HEADER = {"id", "name", "price", "stock"};
+
     private final ProductService productService;
+    private final ObjectMapper objectMapper;
+    private final CachedJsonResponses cachedJsonResponses;
 
     @PostMapping
     public ResponseEntity<ProductDTO> addProduct(@Valid @RequestBody ProductDTO dto) {
-        log.info("POST /api/products - payload: {}", dto);
+        log.debug("POST /api/products - {}", PayloadSummary.of(dto));
         ProductDTO created = productService.addProduct(dto);
-        log.info("POST /api/products - created product id={}", created.getId());
+        log.info(RequestLogSampler.REQUEST, "POST /api/products - created product id={}", created.getId());
         return ResponseEntity.ok(created);
     }
 
@@ -30,33 +45,88 @@ public class ProductController {
     public ResponseEntity<ProductDTO> updateProduct(
             @PathVariable Long id,
             @Valid @RequestBody ProductDTO dto) {
-        log.info("PUT /api/products/{} - payload: {}", id, dto);
+        log.debug("PUT /api/products/{} - {}", id, PayloadSummary.of(dto));
         ProductDTO updated = productService.updateProduct(id, dto);
-        log.info("PUT /api/products/{} - success", id);
+        log.info(RequestLogSampler.REQUEST, "PUT /api/products/{} - success", id);
         return ResponseEntity.ok(updated);
     }
 
+    /**
+     * Adds to or removes from the stock without overwriting it, so it is safe to call while
+     * orders for the product are being placed.
+     */
+    @PatchMapping("/{id}/stock")
+    public ResponseEntity<ProductDTO> adjustStock(
+            @PathVariable Long id,
+            @Valid @RequestBody StockAdjustmentDTO dto) {
+        log.debug("PATCH /api/products/{}/stock - delta={}", id, dto.getDelta());
+        ProductDTO adjusted = productService.adjustStock(id, dto.getDelta());
+        log.info(RequestLogSampler.REQUEST, "PATCH /api/products/{}/stock - success", id);
+        return ResponseEntity.ok(adjusted);
+    }
+
+    /**
+     * The ETag changes with every product or stock write, so polling clients get 304 until then.
+     */
     @GetMapping
-    public ResponseEntity<List<ProductDTO>> getAllProducts() {
-        log.debug("GET /api/products");
-        List<ProductDTO> list = productService.getAllProducts();
-        log.debug("GET /api/products - returning {} products", list.size());
-        return ResponseEntity.ok(list);
+    public ResponseEntity<byte[]> getAllProducts(
+            @RequestParam(required = false) Integer page,
+            @RequestParam(defaultValue = "100") int size,
+            WebRequest request) {
+        log.debug("GET /api/products - page={} size={}", page, size);
+        String key = page == null ? "products" : "products?page=" + page + "&size=" + size;
+        return cachedJsonResponses.byGeneration(request, ResponseCache.Dataset.PRODUCTS, key, () -> {
+            List<ProductDTO> list = page == null
+                    ? productService.getAllProducts()
+                    : productService.getProducts(page, size);
+            log.debug("GET /api/products - returning {} products", list.size());
+            return list;
+        });
+    }
+
+    /**
+     * Streams the whole catalogue as NDJSON (default) or CSV with constant memory.
+     */
+    @GetMapping("/stream")
+    public void streamProducts(
+            @RequestParam(defaultValue = "ndjson") String format,
+            HttpServletResponse response) throws IOException {
+        log.debug("GET /api/products/stream - format={}", format);
+        long count;
+        if ("csv".equalsIgnoreCase(format)) {
+            response.setContentType(CsvWriter.MEDIA_TYPE);
+            try (CsvWriter<ProductDTO> writer = new CsvWriter<>(response.getOutputStream(), CSV_HEADER,
+                    p -> new Object[]{p.getId(), p.getName(), p.getPrice(), p.getStock()})) {
+                count = productService.streamAllProducts(writer);
+            }
+        } else {
+            response.setContentType(NdjsonWriter.MEDIA_TYPE);
+            try (NdjsonWriter<ProductDTO> writer = new NdjsonWriter<>(objectMapper, response.getOutputStream())) {
+                count = productService.streamAllProducts(writer);
+            }
+        }
+        log.debug("GET /api/products/stream - streamed {} products", count);
     }
 
+    /**
+     * The ETag is the product's version plus the stock shown, which can run ahead of the
+     * stored column with the write-behind inventory.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<ProductDTO> getProductById(@PathVariable Long id) {
+    public ResponseEntity<byte[]> getProductById(@PathVariable Long id) {
         log.debug("GET /api/products/{}", id);
-        ProductDTO dto = productService.getProductById(id);
-        log.debug("GET /api/products/{} - found: {}", id, dto);
-        return ResponseEntity.ok(dto);
+        return cachedJsonResponses.byValue(ResponseCache.Dataset.PRODUCTS, "product/" + id, () -> {
+            ProductDTO dto = productService.getProductById(id);
+            log.debug("GET /api/products/{} - found: {}", id, dto);
+            return dto;
+        }, dto -> "\"" + dto.getVersion() + "." + dto.getStock() + "\"");
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteProduct(@PathVariable Long id) {
-        log.info("DELETE /api/products/{}", id);
+        log.debug("DELETE /api/products/{}", id);
         productService.deleteProduct(id);
-        log.info("DELETE /api/products/{} - success", id);
+        log.info(RequestLogSampler.REQUEST, "DELETE /api/products/{} - success", id);
         return ResponseEntity.noContent().build();
     }
 }
@@ -1,11 +1,18 @@
 package com.order.management.controller;
 
+import com.order.management.cache.ResponseCache;
+import com.order.management.controller.support.CachedJsonResponses;
 import com.order.management.dto.CustomerOrderCountDTO;
+import com.order.management.logging.RequestLogSampler;
 import com.order.management.service.OrderService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -16,20 +23,40 @@ import java.util.List;
 public class ReportController {
 
     private final OrderService orderService;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final CachedJsonResponses cachedJsonResponses;
 
+    /**
+     * Reports are rebuilt only after orders are placed or customers change; until then polls
+     * are answered from the cached body, or with 304 for a current ETag.
+     */
     @GetMapping("/orders-per-customer")
-    public ResponseEntity<List<CustomerOrderCountDTO>> getOrderCountPerCustomer() {
-        log.info("GET /api/reports/orders-per-customer");
-        List<CustomerOrderCountDTO> report = orderService.getOrderCountPerCustomer();
-        log.info("Returning {} rows in orders-per-customer report", report.size());
-        return ResponseEntity.ok(report);
+    public ResponseEntity<byte[]> getOrderCountPerCustomer(WebRequest request) {
+        log.debug("GET /api/reports/orders-per-customer");
+        return cachedJsonResponses.byGeneration(request, ResponseCache.Dataset.REPORTS, "orders-per-customer", () -> {
+            List<CustomerOrderCountDTO> report = orderService.getOrderCountPerCustomer();
+            log.info(RequestLogSampler.REQUEST, "Returning {} rows in orders-per-customer report", report.size());
+            recordRows("orders-per-customer", report.size());
+            return report;
+        });
     }
 
     @GetMapping("/top-five-customers")
-    public ResponseEntity<List<CustomerOrderCountDTO>> getTopFiveCustomers() {
-        log.info("GET /api/reports/top-5-customers");
-        List<CustomerOrderCountDTO> topOrders = orderService.getTopCustomers(5);
-        log.info("Returning top {} customers by order count", topOrders.size());
-        return ResponseEntity.ok(topOrders);
+    public ResponseEntity<byte[]> getTopFiveCustomers(WebRequest request) {
+        log.debug("GET /api/reports/top-5-customers");
+        return cachedJsonResponses.byGeneration(request, ResponseCache.Dataset.REPORTS, "top-five-customers", () -> {
+            List<CustomerOrderCountDTO> topOrders = orderService.getTopCustomers(5);
+            log.info(RequestLogSampler.REQUEST, "Returning top {} customers by order count", topOrders.size());
+            recordRows("top-five-customers", topOrders.size());
+            return topOrders;
+        });
+    }
+
+    private void recordRows(String report, int rows) {
+        meterRegistry.ifAvailable(registry -> DistributionSummary.builder("reports.rows")
+                .description("Rows returned per report request")
+                .tag("report", report)
+                .register(registry)
+                .record(rows));
     }
 }
@@ -0,0 +1,91 @@
+package com.order.management.controller.support;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.order.management.cache.ResponseCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Builds GET responses from {@link ResponseCache}, serializing the body only when no current
+ * copy is cached. A matching {@code If-None-Match} is answered with 304 by Spring MVC once the
+ * ETag is on the response.
+ */
+@Component
+@RequiredArgsConstructor
+public class CachedJsonResponses {
+
+    private final ResponseCache responseCache;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * For lists and reports: the ETag is a digest of the body. A matching {@code If-None-Match}
+     * gets 304 without loading only while a copy built from the current generation is cached,
+     * so a write through another instance is noticed once that copy expires.
+     */
+    public ResponseEntity<byte[]> byGeneration(WebRequest request, ResponseCache.Dataset dataset, String key,
+                                               Supplier<?> load) {
+        ResponseCache.CachedResponse cached = cached(dataset, key, load, (value, body) -> digest(body));
+        if (request.checkNotModified(cached.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(cached.etag()).cacheControl(CacheControl.noCache()).build();
+        }
+        return ok(cached);
+    }
+
+    /**
+     * For responses whose ETag is derived from the loaded value, such as an entity version.
+     * The value is loaded whenever {@code dataset} has moved on since the cached copy was built.
+     */
+    public <T> ResponseEntity<byte[]> byValue(ResponseCache.Dataset dataset, String key,
+                                              Supplier<T> load, Function<T, String> etagOf) {
+        return ok(cached(dataset, key, load, (value, body) -> etagOf.apply(value)));
+    }
+
+    private <T> ResponseCache.CachedResponse cached(ResponseCache.Dataset dataset, String key,
+                                                    Supplier<T> load, EtagOf<? super T> etagOf) {
+        ResponseCache.CachedResponse cached = responseCache.get(dataset, key);
+        if (cached == null) {
+            // read before loading, so a write that commits meanwhile makes this copy stale
+            long generation = responseCache.generation(dataset);
+            T value = load.get();
+            byte[] body = serialize(key, value);
+            cached = new ResponseCache.CachedResponse(generation, etagOf.etag(value, body), body);
+            responseCache.put(dataset, key, cached);
+        }
+        return cached;
+    }
+
+    private static ResponseEntity<byte[]> ok(ResponseCache.CachedResponse cached) {
+        return ResponseEntity.ok()
+                .eTag(cached.etag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(cached.body());
+    }
+
+    private static String digest(byte[] body) {
+        return "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+    }
+
+    private byte[] serialize(String key, Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize the response for " + key, e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface EtagOf<T> {
+        String etag(T value, byte[] body);
+    }
+}
@@ -0,0 +1,98 @@
+package com.order.management.controller.support;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.order.management.exception.ErrorResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps the number of API requests in flight. With open-session-in-view every request holds
+ * at most one pooled connection from its first query until it completes, so a limit equal to
+ * the pool size keeps waiters here, in a fair bounded queue, rather than piling up inside
+ * Hikari until its connection timeout turns them into 500s. Requests that cannot get a
+ * permit within the acquire timeout are answered with 503 {@code SERVICE_BUSY}.
+ * <p>
+ * Waiting uses {@link Semaphore}, which parks without pinning when requests run on virtual
+ * threads.
+ */
+@Slf4j
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+    private final int limit;
+    private final long acquireTimeoutNanos;
+    private final ObjectMapper objectMapper;
+    private final LongAdder rejected = new LongAdder();
+
+    public ConcurrencyLimitFilter(int limit, Duration acquireTimeout, ObjectMapper objectMapper) {
+        this.permits = new Semaphore(limit, true);
+        this.limit = limit;
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            reject(request, response);
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public int inFlight() {
+        return limit - permits.availablePermits();
+    }
+
+    public int queued() {
+        return permits.getQueueLength();
+    }
+
+    public long rejectedCount() {
+        return rejected.sum();
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        rejected.increment();
+        log.warn("Rejected {} {} - {} requests in flight, {} queued",
+                 request.getMethod(), request.getRequestURI(), inFlight(), queued());
+        ErrorResponse body = ErrorResponse.builder()
+            .errorCode("SERVICE_BUSY")
+            .message("The service is at capacity. Please retry shortly.")
+            .timestamp(Instant.now())
+            .build();
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader("Retry-After", "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+}
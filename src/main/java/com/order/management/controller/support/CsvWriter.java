@@ -0,0 +1,70 @@
+package com.order.management.controller.support;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Writes RFC 4180 CSV rows to a response stream through a fixed-size buffer.
+ */
+public class CsvWriter<T> implements Consumer<T>, AutoCloseable {
+
+    public static final String MEDIA_TYPE = "text/csv";
+
+    private final BufferedWriter out;
+    private final Function<T, Object[]> columns;
+
+    public CsvWriter(OutputStream out, String[] header, Function<T, Object[]> columns) throws IOException {
+        this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 8192);
+        this.columns = columns;
+        writeRow(header);
+    }
+
+    @Override
+    public void accept(T value) {
+        try {
+            writeRow(columns.apply(value));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.flush();
+    }
+
+    private void writeRow(Object[] cells) throws IOException {
+        for (int i = 0; i < cells.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            writeCell(cells[i]);
+        }
+        out.write("\r\n");
+    }
+
+    private void writeCell(Object cell) throws IOException {
+        if (cell == null) {
+            return;
+        }
+        String text = cell.toString();
+        boolean quote = false;
+        for (int i = 0; i < text.length() && !quote; i++) {
+            char c = text.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.write(text);
+            return;
+        }
+        out.write('"');
+        out.write(text.replace("\"", "\"\""));
+        out.write('"');
+    }
+}
@@ -0,0 +1,49 @@
+package com.order.management.controller.support;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Writes one JSON document per line to a response stream, flushing every
+ * {@value #FLUSH_EVERY} records so clients see data while the query is still running.
+ */
+public class NdjsonWriter<T> implements Consumer<T>, AutoCloseable {
+
+    public static final String MEDIA_TYPE = "application/x-ndjson";
+
+    private static final int FLUSH_EVERY = 100;
+
+    private final JsonGenerator generator;
+    private final ObjectWriter writer;
+    private int pending;
+
+    public NdjsonWriter(ObjectMapper objectMapper, OutputStream out) throws IOException {
+        this.generator = objectMapper.getFactory().createGenerator(out);
+        this.writer = objectMapper.writer();
+    }
+
+    @Override
+    public void accept(T value) {
+        try {
+            writer.writeValue(generator, value);
+            generator.writeRaw('\n');
+            if (++pending == FLUSH_EVERY) {
+                generator.flush();
+                pending = 0;
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+}
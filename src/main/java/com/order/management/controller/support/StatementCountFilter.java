@@ -0,0 +1,51 @@
+package com.order.management.controller.support;
+
+import com.order.management.metrics.StatementCounter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records how many SQL statements each request executed, as the distribution summary
+ * {@code http.server.requests.db.statements} tagged like {@code http.server.requests}. A
+ * growing count for one URI is the signature of an N+1 query.
+ * <p>
+ * Only statements run on the request thread are counted; work handed to the intake
+ * committer or the stock ledger's flusher is not.
+ */
+public class StatementCountFilter extends OncePerRequestFilter {
+
+    public static final String METRIC = "http.server.requests.db.statements";
+
+    private final MeterRegistry registry;
+
+    public StatementCountFilter(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        StatementCounter.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            int statements = StatementCounter.end();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            DistributionSummary.builder(METRIC)
+                    .description("SQL statements executed per request")
+                    .baseUnit("statements")
+                    .tag("method", request.getMethod())
+                    .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                    .register(registry)
+                    .record(statements);
+        }
+    }
+}
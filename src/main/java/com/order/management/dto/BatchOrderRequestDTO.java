@@ -0,0 +1,22 @@
+package com.order.management.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchOrderRequestDTO {
+
+    public static final int MAX_ORDERS = 1000;
+
+    @NotEmpty(message = "At least one order must be included in the batch")
+    @Size(max = MAX_ORDERS, message = "A batch may contain at most " + MAX_ORDERS + " orders")
+    @Valid
+    private List<OrderRequestDTO> orders;
+}
@@ -0,0 +1,19 @@
+package com.order.management.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchOrderResponseDTO {
+
+    private int placed;
+
+    private int rejected;
+
+    /** One entry per requested order, in request order. */
+    private List<BatchOrderResultDTO> results;
+}
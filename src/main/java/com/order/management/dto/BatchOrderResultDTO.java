@@ -0,0 +1,29 @@
+package com.order.management.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+/**
+ * Outcome of one order in a batch: the placed order, or the error code and message that
+ * {@code POST /api/orders} would have returned for it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchOrderResultDTO {
+
+    public enum Status { PLACED, REJECTED }
+
+    /** Position of the order in the request. */
+    private int index;
+
+    private Status status;
+
+    private OrderResponseDTO order;
+
+    private String errorCode;
+
+    private String message;
+}
@@ -0,0 +1,42 @@
+package com.order.management.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.order.management.model.OutboxEvent;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * A published change event. {@code id} increases with every event and is the position a
+ * consumer resumes from; {@code payload} is the event-specific JSON object.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChangeEventDTO {
+
+    private Long id;
+
+    private OutboxEvent.AggregateType aggregateType;
+
+    private Long aggregateId;
+
+    private String type;
+
+    private Instant occurredAt;
+
+    @JsonRawValue
+    private String payload;
+
+    public static ChangeEventDTO of(OutboxEvent event) {
+        return ChangeEventDTO.builder()
+                .id(event.getId())
+                .aggregateType(event.getAggregateType())
+                .aggregateId(event.getAggregateId())
+                .type(event.getEventType())
+                .occurredAt(event.getCreatedAt())
+                .payload(event.getPayload())
+                .build();
+    }
+}
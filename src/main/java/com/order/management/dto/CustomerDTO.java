@@ -1,5 +1,6 @@
 package com.order.management.dto;
 
+import com.order.management.model.Customer;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import lombok.*;
@@ -21,4 +22,8 @@ public class CustomerDTO {
 
     @NotBlank
     private String phone;
+
+    public static CustomerDTO of(Customer customer) {
+        return new CustomerDTO(customer.getId(), customer.getName(), customer.getEmail(), customer.getPhone());
+    }
 }
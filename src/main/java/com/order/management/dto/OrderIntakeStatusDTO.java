@@ -0,0 +1,35 @@
+package com.order.management.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Where an asynchronously accepted order stands: QUEUED until its batch commits, then
+ * PLACED, REJECTED (with the error code a synchronous request would have got) or FAILED.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OrderIntakeStatusDTO {
+
+    public static final String QUEUED = "QUEUED";
+
+    private UUID trackingId;
+
+    private String status;
+
+    private Long orderId;
+
+    private String errorCode;
+
+    private String message;
+
+    private Instant acceptedAt;
+
+    private Instant completedAt;
+}
@@ -0,0 +1,17 @@
+package com.order.management.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderPageDTO {
+
+    private List<OrderResponseDTO> orders;
+
+    /** Opaque cursor for the next page, or null when this is the last page. */
+    private String nextCursor;
+}
@@ -0,0 +1,22 @@
+package com.order.management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * An order without its items, read from the totals stored on {@code orders}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSummaryDTO {
+    private Long id;
+    private Long customerId;
+    private Instant orderDate;
+    private Integer itemCount;
+    private BigDecimal totalAmount;
+}
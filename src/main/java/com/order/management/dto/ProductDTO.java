@@ -1,5 +1,6 @@
 package com.order.management.dto;
 
+import com.order.management.model.Product;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
@@ -26,4 +27,22 @@ public class ProductDTO {
     @NotNull(message = "Stock is mandatory")
     @Min(value = 0, message = "Stock must be greater than or equal to 0")
     private Integer stock;
+
+    /**
+     * The product row's version. On update, if given, the update is refused with 409 unless
+     * the row is still at this version; ignored on create.
+     */
+    private Long version;
+
+    public ProductDTO(Long id, String name, BigDecimal price, Integer stock) {
+        this(id, name, price, stock, null);
+    }
+
+    /**
+     * Copies the product with {@code stock} as its stock figure, which may be ahead of the
+     * stored column.
+     */
+    public static ProductDTO of(Product product, int stock) {
+        return new ProductDTO(product.getId(), product.getName(), product.getPrice(), stock, product.getVersion());
+    }
 }
@@ -0,0 +1,15 @@
+package com.order.management.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockAdjustmentDTO {
+
+    /** Units to add to the stock, or to remove when negative. */
+    @NotNull(message = "delta is required")
+    private Integer delta;
+}
@@ -0,0 +1,10 @@
+package com.order.management.exception;
+
+/**
+ * An {@code Idempotency-Key} was reused with a different request body.
+ */
+public class IdempotencyKeyMismatchException extends RuntimeException {
+    public IdempotencyKeyMismatchException(String message) {
+        super(message);
+    }
+}
@@ -4,4 +4,10 @@ public class InsufficientStockException extends RuntimeException {
     public InsufficientStockException(String message) {
         super(message);
     }
+
+    public static InsufficientStockException forProduct(Long productId, int requested, long available) {
+        return new InsufficientStockException(String.format(
+                "Insufficient stock for productId=%d: requested=%d, available=%d",
+                productId, requested, available));
+    }
 }
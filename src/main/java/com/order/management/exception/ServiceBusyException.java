@@ -0,0 +1,10 @@
+package com.order.management.exception;
+
+/**
+ * The service is at capacity and the caller should retry later.
+ */
+public class ServiceBusyException extends RuntimeException {
+    public ServiceBusyException(String message) {
+        super(message);
+    }
+}
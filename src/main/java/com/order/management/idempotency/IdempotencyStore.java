@@ -0,0 +1,265 @@
+package com.order.management.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.order.management.config.IdempotencyProperties;
+import com.order.management.exception.BadRequestException;
+import com.order.management.exception.IdempotencyKeyMismatchException;
+import com.order.management.exception.ServiceBusyException;
+import com.order.management.model.IdempotencyKey;
+import com.order.management.repository.IdempotencyKeyRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs a request at most once per {@code Idempotency-Key} and replays its response for
+ * retries.
+ *
+ * <p>A retry is answered from a bounded in-memory cache, then from {@code idempotency_key},
+ * without running the action. A first request claims its key with an INSERT inside the
+ * action's own transaction, so the key is committed exactly when the order is. A duplicate
+ * arriving while the original is running waits for it: in this instance on the original's
+ * future, and on another instance on the primary key lock, after which its transaction
+ * rolls back and it replays the committed response.
+ *
+ * <p>Only responses are stored. A request that fails leaves no key behind and may be retried.
+ */
+@Slf4j
+@Component
+public class IdempotencyStore {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    static final int MAX_KEY_LENGTH = 128;
+
+    private final IdempotencyProperties properties;
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, StoredResponse> completed;
+    private final Map<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Counter> outcomes = new ConcurrentHashMap<>();
+    private final MeterRegistry registry;
+
+    public IdempotencyStore(IdempotencyProperties properties,
+                            IdempotencyKeyRepository idempotencyKeyRepository,
+                            PlatformTransactionManager transactionManager,
+                            ObjectMapper objectMapper,
+                            ObjectProvider<MeterRegistry> meterRegistry) {
+        this.properties = properties;
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(properties.getCacheSize())
+                .expireAfter(Expiry.creating((String key, StoredResponse response) -> response.remaining()))
+                .recordStats()
+                .build();
+        this.registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            CaffeineCacheMetrics.monitor(registry, completed, "idempotency");
+        }
+    }
+
+    /**
+     * Runs {@code action} for the first request with this key and returns its response;
+     * returns the stored response, marked with {@value #REPLAYED_HEADER}, for later ones.
+     *
+     * @throws IdempotencyKeyMismatchException if the key was used for a different request
+     * @throws ServiceBusyException if the original is still running after the wait timeout
+     */
+    public ResponseEntity<?> execute(String key, Object request, Supplier<ResponseEntity<?>> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException(HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String requestHash = hash(request);
+
+        StoredResponse cached = completed.getIfPresent(key);
+        if (cached != null) {
+            count("cached");
+            return replay(key, requestHash, cached);
+        }
+
+        CompletableFuture<StoredResponse> claim = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> original = inFlight.putIfAbsent(key, claim);
+        if (original != null) {
+            count("coalesced");
+            return replay(key, requestHash, await(original));
+        }
+        try {
+            Execution execution = run(key, requestHash, action);
+            completed.put(key, execution.stored());
+            claim.complete(execution.stored());
+            return execution.response();
+        } catch (RuntimeException e) {
+            claim.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, claim);
+        }
+    }
+
+    /**
+     * Deletes expired keys in batches of {@code cleanup-batch-size}.
+     */
+    @Scheduled(fixedDelay = 10, initialDelay = 10, timeUnit = TimeUnit.MINUTES)
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        int batchSize = properties.getCleanupBatchSize();
+        int purged = 0;
+        int deleted;
+        do {
+            deleted = idempotencyKeyRepository.deleteExpired(now, batchSize);
+            purged += deleted;
+        } while (deleted == batchSize);
+        if (purged > 0) {
+            log.info("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    private Execution run(String key, String requestHash, Supplier<ResponseEntity<?>> action) {
+        boolean reclaimed = false;
+        while (true) {
+            try {
+                return transactionTemplate.execute(status -> {
+                    Instant now = Instant.now();
+                    Instant expiresAt = now.plus(properties.getTtl());
+                    idempotencyKeyRepository.insertPending(key, requestHash, now, expiresAt);
+                    ResponseEntity<?> response = action.get();
+                    StoredResponse stored = store(requestHash, response, expiresAt);
+                    idempotencyKeyRepository.complete(key, stored.status(),
+                            stored.location() != null ? stored.location().toString() : null,
+                            new String(stored.body(), StandardCharsets.UTF_8));
+                    count("executed");
+                    return new Execution(response, stored);
+                });
+            } catch (DuplicateKeyException e) {
+                // committed by an earlier request, possibly on another instance
+                Optional<IdempotencyKey> existing = idempotencyKeyRepository.findById(key);
+                Instant now = Instant.now();
+                if (existing.isPresent() && existing.get().getExpiresAt().isAfter(now)) {
+                    StoredResponse stored = StoredResponse.of(existing.get());
+                    count("stored");
+                    return new Execution(replay(key, requestHash, stored), stored);
+                }
+                if (reclaimed) {
+                    throw e;
+                }
+                idempotencyKeyRepository.deleteIfExpired(key, now);
+                reclaimed = true;
+            }
+        }
+    }
+
+    private StoredResponse await(CompletableFuture<StoredResponse> original) {
+        try {
+            return original.get(properties.getWaitTimeout().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new ServiceBusyException("A request with this " + HEADER + " is still in progress");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceBusyException("Interrupted while waiting for the original request");
+        } catch (ExecutionException e) {
+            // the original failed, and an identical request fails the same way
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private ResponseEntity<byte[]> replay(String key, String requestHash, StoredResponse stored) {
+        if (!stored.requestHash().equals(requestHash)) {
+            count("mismatch");
+            throw new IdempotencyKeyMismatchException(
+                    HEADER + " " + key + " was already used with a different request");
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set(REPLAYED_HEADER, "true");
+        if (stored.location() != null) {
+            headers.setLocation(stored.location());
+        }
+        return ResponseEntity.status(stored.status()).headers(headers).body(stored.body());
+    }
+
+    private StoredResponse store(String requestHash, ResponseEntity<?> response, Instant expiresAt) {
+        try {
+            return new StoredResponse(requestHash, response.getStatusCode().value(),
+                                      response.getHeaders().getLocation(),
+                                      objectMapper.writeValueAsBytes(response.getBody()), expiresAt);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String hash(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(request)));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void count(String outcome) {
+        if (registry != null) {
+            outcomes.computeIfAbsent(outcome, name -> Counter.builder("idempotency.requests")
+                    .description("Requests sent with an Idempotency-Key, by how they were answered")
+                    .tag("outcome", name)
+                    .register(registry))
+                    .increment();
+        }
+    }
+
+    private record Execution(ResponseEntity<?> response, StoredResponse stored) {
+    }
+
+    record StoredResponse(String requestHash, int status, URI location, byte[] body, Instant expiresAt) {
+
+        static StoredResponse of(IdempotencyKey key) {
+            return new StoredResponse(key.getRequestHash(), key.getResponseStatus(),
+                                      key.getLocation() != null ? URI.create(key.getLocation()) : null,
+                                      key.getResponseBody().getBytes(StandardCharsets.UTF_8), key.getExpiresAt());
+        }
+
+        Duration remaining() {
+            Duration remaining = Duration.between(Instant.now(), expiresAt);
+            return remaining.isNegative() ? Duration.ZERO : remaining;
+        }
+    }
+}
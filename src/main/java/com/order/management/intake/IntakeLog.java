@@ -0,0 +1,373 @@
+package com.order.management.intake;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of accepted orders, stored in fixed-size memory-mapped segment files.
+ *
+ * <p>Record layout: payload length (int), CRC32C (int) of the remaining bytes, sequence
+ * number (long), tracking id (two longs), accepted-at epoch millis (long), payload. Segments
+ * are zero-filled, so a zero length marks the end of the data.
+ *
+ * <p>{@link #append} returns once the record is forced to disk. Concurrent appenders share
+ * forces: whoever takes the sync lock forces everything appended so far, and the others
+ * find their record already durable (group commit).
+ *
+ * <p>Every appended record stays outstanding until {@link #complete} is called for it.
+ * {@link #checkpoint} persists the highest sequence below which nothing is outstanding and
+ * deletes the segments that are wholly behind it. On {@link #open}, records after the
+ * checkpoint are returned by {@link #recovered()} for replay; a torn record at the tail is
+ * discarded, since its append was never acknowledged.
+ */
+@Slf4j
+public class IntakeLog implements Closeable {
+
+    static final int HEADER_BYTES = 4 + 4 + 8 + 16 + 8;
+
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+
+    private final Path dir;
+    private final int segmentBytes;
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final ConcurrentSkipListSet<Long> outstanding = new ConcurrentSkipListSet<>();
+
+    // guarded by appendLock
+    private final NavigableMap<Long, Segment> segments = new TreeMap<>();
+    private Segment active;
+    private long nextSeq;
+
+    private volatile long durableSeq;
+    private long checkpointSeq;
+    private List<Entry> recovered;
+
+    private IntakeLog(Path dir, int segmentBytes) {
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+    }
+
+    /**
+     * Opens the log in {@code dir}, creating it if needed, and recovers the records that
+     * were appended after the last checkpoint.
+     */
+    public static IntakeLog open(Path dir, int segmentBytes) throws IOException {
+        if (segmentBytes < HEADER_BYTES * 2) {
+            throw new IllegalArgumentException("Segment size is too small: " + segmentBytes);
+        }
+        Files.createDirectories(dir);
+        IntakeLog intakeLog = new IntakeLog(dir, segmentBytes);
+        intakeLog.recover();
+        return intakeLog;
+    }
+
+    /**
+     * Records found after the checkpoint when the log was opened, in sequence order. They
+     * are outstanding until completed.
+     */
+    public List<Entry> recovered() {
+        return recovered;
+    }
+
+    /**
+     * Appends a record and waits until it is durable.
+     *
+     * @throws IllegalArgumentException if the record cannot fit in a segment
+     */
+    public Entry append(UUID trackingId, Instant acceptedAt, byte[] payload) {
+        int recordBytes = HEADER_BYTES + payload.length;
+        if (recordBytes + 4 > segmentBytes) {
+            throw new IllegalArgumentException("Record of " + recordBytes + " bytes exceeds the segment size");
+        }
+        Entry entry;
+        appendLock.lock();
+        try {
+            if (active.buffer.capacity() - active.position < recordBytes + 4) {
+                roll();
+            }
+            entry = new Entry(nextSeq++, trackingId, acceptedAt, payload);
+            write(active.buffer, active.position, entry);
+            active.position += recordBytes;
+            outstanding.add(entry.seq());
+        } finally {
+            appendLock.unlock();
+        }
+        sync(entry.seq());
+        return entry;
+    }
+
+    /**
+     * Marks records as processed so a checkpoint can move past them.
+     */
+    public void complete(Collection<Long> seqs) {
+        outstanding.removeAll(seqs);
+    }
+
+    public int outstandingCount() {
+        return outstanding.size();
+    }
+
+    /**
+     * Persists the checkpoint and deletes segments that hold only completed records.
+     *
+     * @return the checkpointed sequence number
+     */
+    public long checkpoint() throws IOException {
+        long done;
+        List<Segment> obsolete = new ArrayList<>();
+        appendLock.lock();
+        try {
+            // new records only enter 'outstanding' under this lock, so nothing can slip below
+            done = outstanding.isEmpty() ? nextSeq - 1 : outstanding.first() - 1;
+            if (done <= checkpointSeq || segments.isEmpty()) {
+                return checkpointSeq;
+            }
+            writeCheckpoint(done);
+            checkpointSeq = done;
+            for (Map.Entry<Long, Segment> next : segments.tailMap(segments.firstKey(), false).entrySet()) {
+                if (next.getKey() - 1 > done) {
+                    break;
+                }
+                obsolete.add(segments.get(segments.lowerKey(next.getKey())));
+            }
+            obsolete.forEach(segment -> segments.remove(segment.firstSeq));
+        } finally {
+            appendLock.unlock();
+        }
+        for (Segment segment : obsolete) {
+            segment.channel.close();
+            Files.deleteIfExists(segment.path);
+        }
+        return done;
+    }
+
+    @Override
+    public void close() throws IOException {
+        appendLock.lock();
+        try {
+            for (Segment segment : segments.values()) {
+                segment.buffer.force();
+                segment.channel.close();
+            }
+            segments.clear();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private void sync(long seq) {
+        if (durableSeq >= seq) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            if (durableSeq >= seq) {
+                return;
+            }
+            Segment segment;
+            int to;
+            long upTo;
+            appendLock.lock();
+            try {
+                segment = active;
+                to = segment.position;
+                upTo = nextSeq - 1;
+            } finally {
+                appendLock.unlock();
+            }
+            // earlier segments were forced in full when they were rolled over
+            int from = segment.forcedPosition;
+            if (to > from) {
+                segment.buffer.force(from, to - from);
+                segment.forcedPosition = to;
+            }
+            durableSeq = upTo;
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private void roll() {
+        active.buffer.force();
+        active.forcedPosition = active.position;
+        try {
+            active = createSegment(nextSeq);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create intake log segment", e);
+        }
+        segments.put(active.firstSeq, active);
+    }
+
+    private void recover() throws IOException {
+        checkpointSeq = readCheckpoint();
+        List<Path> files;
+        try (Stream<Path> list = Files.list(dir)) {
+            files = list.filter(p -> p.getFileName().toString().endsWith(SEGMENT_SUFFIX)).sorted().toList();
+        }
+
+        List<Entry> entries = new ArrayList<>();
+        long expected = -1;
+        for (Path file : files) {
+            long firstSeq = Long.parseLong(file.getFileName().toString().replace(SEGMENT_SUFFIX, ""));
+            if (expected >= 0 && firstSeq != expected) {
+                log.warn("Intake log segment {} starts at {} but {} was expected", file, firstSeq, expected);
+            }
+            expected = firstSeq;
+            Segment segment = mapSegment(file, firstSeq);
+            segments.put(firstSeq, segment);
+            ByteBuffer buffer = segment.buffer;
+            int position = 0;
+            while (true) {
+                Entry entry = read(buffer, position, expected);
+                if (entry == null) {
+                    break;
+                }
+                if (entry.seq() > checkpointSeq) {
+                    entries.add(entry);
+                }
+                position += HEADER_BYTES + entry.payload().length;
+                expected++;
+            }
+            segment.position = position;
+            segment.forcedPosition = position;
+        }
+
+        nextSeq = Math.max(expected, checkpointSeq + 1);
+        if (segments.isEmpty()) {
+            active = createSegment(nextSeq);
+            segments.put(active.firstSeq, active);
+        } else {
+            active = segments.lastEntry().getValue();
+            // clear whatever a torn append left behind so it cannot be read as data later
+            ByteBuffer buffer = active.buffer;
+            for (int i = active.position; i < buffer.capacity(); i++) {
+                buffer.put(i, (byte) 0);
+            }
+            active.buffer.force();
+        }
+        durableSeq = nextSeq - 1;
+        entries.forEach(entry -> outstanding.add(entry.seq()));
+        recovered = List.copyOf(entries);
+        log.info("Intake log opened in {}: checkpoint={}, next={}, {} records to replay",
+                 dir, checkpointSeq, nextSeq, recovered.size());
+    }
+
+    private Segment createSegment(long firstSeq) throws IOException {
+        Path path = dir.resolve(String.format("%020d%s", firstSeq, SEGMENT_SUFFIX));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(1), segmentBytes - 1L);
+        }
+        return mapSegment(path, firstSeq);
+    }
+
+    private static Segment mapSegment(Path path, long firstSeq) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        return new Segment(firstSeq, path, channel, buffer);
+    }
+
+    private static void write(ByteBuffer buffer, int position, Entry entry) {
+        byte[] payload = entry.payload();
+        ByteBuffer body = buffer.slice(position + 8, HEADER_BYTES - 8 + payload.length);
+        body.putLong(entry.seq())
+                .putLong(entry.trackingId().getMostSignificantBits())
+                .putLong(entry.trackingId().getLeastSignificantBits())
+                .putLong(entry.acceptedAt().toEpochMilli())
+                .put(payload);
+        CRC32C crc = new CRC32C();
+        crc.update(body.flip());
+        buffer.putInt(position + 4, (int) crc.getValue());
+        // the length goes last: until it is non-zero the record does not exist
+        buffer.putInt(position, payload.length);
+    }
+
+    private static Entry read(ByteBuffer buffer, int position, long expectedSeq) {
+        if (position + HEADER_BYTES > buffer.capacity()) {
+            return null;
+        }
+        int length = buffer.getInt(position);
+        if (length <= 0 || position + HEADER_BYTES + length > buffer.capacity()) {
+            return null;
+        }
+        ByteBuffer body = buffer.slice(position + 8, HEADER_BYTES - 8 + length);
+        CRC32C crc = new CRC32C();
+        crc.update(body.duplicate());
+        if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+            return null;
+        }
+        long seq = body.getLong();
+        if (seq != expectedSeq) {
+            return null;
+        }
+        UUID trackingId = new UUID(body.getLong(), body.getLong());
+        Instant acceptedAt = Instant.ofEpochMilli(body.getLong());
+        byte[] payload = new byte[length];
+        body.get(payload);
+        return new Entry(seq, trackingId, acceptedAt, payload);
+    }
+
+    private long readCheckpoint() throws IOException {
+        Path file = dir.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        return ByteBuffer.wrap(Files.readAllBytes(file)).getLong();
+    }
+
+    private void writeCheckpoint(long seq) throws IOException {
+        Path tmp = dir.resolve(CHECKPOINT_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.allocate(8).putLong(0, seq));
+            channel.force(true);
+        }
+        Files.move(tmp, dir.resolve(CHECKPOINT_FILE), StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * One accepted order as stored in the log.
+     */
+    public record Entry(long seq, UUID trackingId, Instant acceptedAt, byte[] payload) {
+    }
+
+    private static final class Segment {
+        final long firstSeq;
+        final Path path;
+        final FileChannel channel;
+        final MappedByteBuffer buffer;
+        int position;
+        int forcedPosition;
+
+        Segment(long firstSeq, Path path, FileChannel channel, MappedByteBuffer buffer) {
+            this.firstSeq = firstSeq;
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+    }
+}
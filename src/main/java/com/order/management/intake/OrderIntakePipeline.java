@@ -0,0 +1,419 @@
+package com.order.management.intake;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.order.management.config.OrderIntakeProperties;
+import com.order.management.dto.BatchOrderResponseDTO;
+import com.order.management.dto.BatchOrderResultDTO;
+import com.order.management.dto.OrderIntakeStatusDTO;
+import com.order.management.dto.OrderRequestDTO;
+import com.order.management.exception.BadRequestException;
+import com.order.management.exception.ResourceNotFoundException;
+import com.order.management.exception.ServiceBusyException;
+import com.order.management.model.OrderIntake;
+import com.order.management.repository.OrderIntakeRepository;
+import com.order.management.service.OrderService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchronous order intake, enabled with {@code order-intake.mode=async}.
+ *
+ * <p>Stage one runs on the request thread: take a slot of queue capacity (or fail with
+ * {@code SERVICE_BUSY} once {@code offer-timeout} passes), append the order to the
+ * {@link IntakeLog}, which returns once it is on disk, and hand it to the committer. Stage
+ * two is a single committer thread that drains the queue in micro-batches and places each
+ * batch with {@link OrderService#placeOrders} in one transaction, writing every order's
+ * outcome to {@code order_intake} in the same transaction. Stage three, on the scheduler,
+ * checkpoints the log and purges old outcomes.
+ *
+ * <p>On startup, log records after the checkpoint whose outcome is not yet in
+ * {@code order_intake} are queued again, so an accepted order is placed exactly once even
+ * if the process died between commit and checkpoint.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "order-intake", name = "mode", havingValue = "async")
+public class OrderIntakePipeline implements SmartLifecycle {
+
+    private static final int REPLAY_CHUNK = 1000;
+    private static final long MAX_BACKOFF_MILLIS = 5_000;
+
+    private final OrderIntakeProperties properties;
+    private final OrderService orderService;
+    private final OrderIntakeRepository orderIntakeRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    private final BlockingQueue<IntakeLog.Entry> queue = new LinkedBlockingQueue<>();
+    private final Map<UUID, Instant> queued = new ConcurrentHashMap<>();
+
+    private IntakeLog intakeLog;
+    private Semaphore capacity;
+    private Thread committer;
+    private Gauge queuedGauge;
+    private Counter committedOrders;
+    private Counter committedBatches;
+    private volatile boolean running;
+
+    public OrderIntakePipeline(OrderIntakeProperties properties,
+                               OrderService orderService,
+                               OrderIntakeRepository orderIntakeRepository,
+                               PlatformTransactionManager transactionManager,
+                               ObjectMapper objectMapper,
+                               ObjectProvider<MeterRegistry> meterRegistry) {
+        this.properties = properties;
+        this.orderService = orderService;
+        this.orderIntakeRepository = orderIntakeRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Durably accepts an order for asynchronous placement.
+     *
+     * @throws ServiceBusyException if the queue stays full for longer than the offer timeout
+     */
+    public OrderIntakeStatusDTO submit(OrderRequestDTO dto) {
+        if (!running) {
+            throw new ServiceBusyException("Order intake is not running");
+        }
+        byte[] payload;
+        try {
+            payload = objectMapper.writeValueAsBytes(dto);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        try {
+            if (!capacity.tryAcquire(properties.getOfferTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new ServiceBusyException("Order intake queue is full. Please retry shortly.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceBusyException("Interrupted while waiting for order intake capacity");
+        }
+
+        IntakeLog.Entry entry;
+        try {
+            entry = intakeLog.append(UUID.randomUUID(), Instant.now(), payload);
+        } catch (IllegalArgumentException e) {
+            capacity.release();
+            throw new BadRequestException(e.getMessage());
+        } catch (RuntimeException e) {
+            capacity.release();
+            throw e;
+        }
+        queued.put(entry.trackingId(), entry.acceptedAt());
+        queue.add(entry);
+        log.debug("Accepted order trackingId={} seq={}", entry.trackingId(), entry.seq());
+        return OrderIntakeStatusDTO.builder()
+                .trackingId(entry.trackingId())
+                .status(OrderIntakeStatusDTO.QUEUED)
+                .acceptedAt(entry.acceptedAt())
+                .build();
+    }
+
+    public OrderIntakeStatusDTO status(UUID trackingId) {
+        Instant acceptedAt = queued.get(trackingId);
+        if (acceptedAt != null) {
+            return OrderIntakeStatusDTO.builder()
+                    .trackingId(trackingId)
+                    .status(OrderIntakeStatusDTO.QUEUED)
+                    .acceptedAt(acceptedAt)
+                    .build();
+        }
+        return orderIntakeRepository.findById(trackingId)
+                .map(OrderIntakePipeline::toStatusDTO)
+                .orElseThrow(() -> new ResourceNotFoundException("No order intake with tracking id " + trackingId));
+    }
+
+    public int queuedCount() {
+        return queued.size();
+    }
+
+    @Override
+    public void start() {
+        try {
+            intakeLog = IntakeLog.open(Path.of(properties.getLogDir()), properties.getSegmentBytes());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open the order intake log", e);
+        }
+        int replayed = replay(intakeLog.recovered());
+        // a replay larger than the configured capacity starts with negative permits
+        capacity = new Semaphore(properties.getCapacity() - replayed, true);
+
+        meterRegistry.ifAvailable(registry -> {
+            queuedGauge = Gauge.builder("order.intake.queued", this, OrderIntakePipeline::queuedCount)
+                    .description("Orders accepted but not yet committed")
+                    .register(registry);
+            committedOrders = Counter.builder("order.intake.committed.orders").register(registry);
+            committedBatches = Counter.builder("order.intake.committed.batches").register(registry);
+        });
+
+        running = true;
+        committer = new Thread(this::drain, "order-intake-committer");
+        committer.start();
+        log.info("Async order intake started: log={}, capacity={}, batchSize={}",
+                 properties.getLogDir(), properties.getCapacity(), properties.getBatchSize());
+    }
+
+    /**
+     * Stops accepting, lets the committer finish its current batch and checkpoints. Orders
+     * still queued stay in the log and are replayed on the next start.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            committer.join(TimeUnit.SECONDS.toMillis(30));
+            intakeLog.checkpoint();
+            intakeLog.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            log.warn("Could not checkpoint the order intake log on shutdown", e);
+        }
+        // the gauge reads this instance; a pipeline started later registers its own
+        if (queuedGauge != null) {
+            meterRegistry.ifAvailable(registry -> registry.remove(queuedGauge));
+            queuedGauge = null;
+        }
+        log.info("Async order intake stopped with {} orders left for replay", queued.size());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts before and stops after the web server, so no request can arrive while the log
+     * is being replayed or closed.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    @Scheduled(fixedDelay = 1000)
+    public void checkpoint() throws IOException {
+        if (running) {
+            intakeLog.checkpoint();
+        }
+    }
+
+    @Scheduled(fixedDelay = 1, initialDelay = 1, timeUnit = TimeUnit.HOURS)
+    public void purgeOldStatuses() {
+        Instant cutoff = Instant.now().minus(properties.getStatusRetention());
+        int purged = transactionTemplate.execute(status -> orderIntakeRepository.deleteCompletedBefore(cutoff));
+        if (purged > 0) {
+            log.info("Purged {} order intake statuses completed before {}", purged, cutoff);
+        }
+    }
+
+    private int replay(List<IntakeLog.Entry> recovered) {
+        List<Long> alreadyDone = new ArrayList<>();
+        int replayed = 0;
+        for (int from = 0; from < recovered.size(); from += REPLAY_CHUNK) {
+            List<IntakeLog.Entry> chunk = recovered.subList(from, Math.min(recovered.size(), from + REPLAY_CHUNK));
+            Set<UUID> done = new HashSet<>(orderIntakeRepository.findExistingIds(
+                    chunk.stream().map(IntakeLog.Entry::trackingId).toList()));
+            for (IntakeLog.Entry entry : chunk) {
+                if (done.contains(entry.trackingId())) {
+                    alreadyDone.add(entry.seq());
+                } else {
+                    queued.put(entry.trackingId(), entry.acceptedAt());
+                    queue.add(entry);
+                    replayed++;
+                }
+            }
+        }
+        intakeLog.complete(alreadyDone);
+        if (!recovered.isEmpty()) {
+            log.info("Order intake replay: {} orders queued again, {} already committed",
+                     replayed, alreadyDone.size());
+        }
+        return replayed;
+    }
+
+    private void drain() {
+        List<IntakeLog.Entry> batch = new ArrayList<>(properties.getBatchSize());
+        while (running) {
+            try {
+                IntakeLog.Entry first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + properties.getLinger().toNanos();
+                while (batch.size() < properties.getBatchSize()) {
+                    IntakeLog.Entry next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                process(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // process() only gives up when stopping; anything else is a bug worth surviving
+                log.error("Order intake committer failed on a batch of {}", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Commits the batch, retrying with backoff while the database is unavailable. A batch
+     * that fails for any other reason is split so one bad order cannot block the rest; an
+     * order that fails on its own is recorded as FAILED.
+     */
+    private void process(List<IntakeLog.Entry> batch) throws InterruptedException {
+        long backoff = 50;
+        while (true) {
+            try {
+                commit(batch);
+                return;
+            } catch (TransientDataAccessException | CannotCreateTransactionException e) {
+                if (!running) {
+                    log.warn("Order intake stopping with {} uncommitted orders left for replay", batch.size());
+                    return;
+                }
+                log.warn("Order intake batch of {} could not be committed, retrying in {} ms: {}",
+                         batch.size(), backoff, e.getMessage());
+                Thread.sleep(backoff);
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+            } catch (RuntimeException e) {
+                if (batch.size() > 1) {
+                    log.warn("Order intake batch of {} failed, committing its orders one by one", batch.size(), e);
+                    for (IntakeLog.Entry entry : batch) {
+                        process(List.of(entry));
+                    }
+                } else {
+                    log.error("Order intake trackingId={} failed", batch.get(0).trackingId(), e);
+                    fail(batch.get(0), e);
+                }
+                return;
+            }
+        }
+    }
+
+    private void commit(List<IntakeLog.Entry> batch) {
+        List<OrderRequestDTO> dtos = new ArrayList<>(batch.size());
+        for (IntakeLog.Entry entry : batch) {
+            dtos.add(decode(entry));
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            BatchOrderResponseDTO response = orderService.placeOrders(dtos);
+            Instant now = Instant.now();
+            List<OrderIntake> outcomes = new ArrayList<>(batch.size());
+            for (BatchOrderResultDTO result : response.getResults()) {
+                IntakeLog.Entry entry = batch.get(result.getIndex());
+                boolean placed = result.getStatus() == BatchOrderResultDTO.Status.PLACED;
+                outcomes.add(OrderIntake.builder()
+                        .trackingId(entry.trackingId())
+                        .status(placed ? OrderIntake.Status.PLACED : OrderIntake.Status.REJECTED)
+                        .orderId(placed ? result.getOrder().getId() : null)
+                        .errorCode(result.getErrorCode())
+                        .message(result.getMessage())
+                        .acceptedAt(entry.acceptedAt())
+                        .completedAt(now)
+                        .build());
+            }
+            orderIntakeRepository.insertAll(outcomes);
+        });
+        completed(batch);
+    }
+
+    private void fail(IntakeLog.Entry entry, RuntimeException cause) throws InterruptedException {
+        OrderIntake outcome = OrderIntake.builder()
+                .trackingId(entry.trackingId())
+                .status(OrderIntake.Status.FAILED)
+                .errorCode("INTERNAL_ERROR")
+                .message(cause.getMessage())
+                .acceptedAt(entry.acceptedAt())
+                .completedAt(Instant.now())
+                .build();
+        long backoff = 50;
+        while (true) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> orderIntakeRepository.insertAll(List.of(outcome)));
+                completed(List.of(entry));
+                return;
+            } catch (RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Could not record failure of trackingId={}, retrying in {} ms", entry.trackingId(), backoff);
+                Thread.sleep(backoff);
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+            }
+        }
+    }
+
+    private void completed(List<IntakeLog.Entry> entries) {
+        List<Long> seqs = new ArrayList<>(entries.size());
+        for (IntakeLog.Entry entry : entries) {
+            queued.remove(entry.trackingId());
+            seqs.add(entry.seq());
+        }
+        intakeLog.complete(seqs);
+        capacity.release(entries.size());
+        if (committedOrders != null) {
+            committedOrders.increment(entries.size());
+            committedBatches.increment();
+        }
+    }
+
+    private static OrderIntakeStatusDTO toStatusDTO(OrderIntake intake) {
+        return OrderIntakeStatusDTO.builder()
+                .trackingId(intake.getTrackingId())
+                .status(intake.getStatus().name())
+                .orderId(intake.getOrderId())
+                .errorCode(intake.getErrorCode())
+                .message(intake.getMessage())
+                .acceptedAt(intake.getAcceptedAt())
+                .completedAt(intake.getCompletedAt())
+                .build();
+    }
+
+    private OrderRequestDTO decode(IntakeLog.Entry entry) {
+        try {
+            return objectMapper.readValue(entry.payload(), OrderRequestDTO.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unreadable intake record seq=" + entry.seq(), e);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.order.management.inventory;
+
+import com.order.management.config.InventoryProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory stock ledger used when {@code inventory.mode=ledger}.
+ *
+ * <p>The counters are the authority for reservations. Orders placed in this mode are stored
+ * with {@code inventory_applied = false}; the flusher folds the quantities of pending orders
+ * into one decrement per product and marks those orders applied in the same transaction.
+ * Because the pending deltas live in {@code order_item} rather than in memory, recovery after
+ * a crash is simply a full flush followed by re-seeding the counters from {@code product}.
+ *
+ * <p>Flushes may overlap: the scheduler, a stock overwrite and recovery all run them. Each one
+ * claims its orders with a conditional update before touching {@code product}, so an order is
+ * applied by exactly one of them.
+ *
+ * <p>The ledger assumes it is the only writer of stock, so run a single instance in this mode.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "inventory", name = "mode", havingValue = "ledger")
+public class InventoryLedger implements SmartInitializingSingleton {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate separateTransaction;
+    private final InventoryProperties properties;
+
+    private final ConcurrentHashMap<Long, StripedStockCounter> counters = new ConcurrentHashMap<>();
+
+    public InventoryLedger(NamedParameterJdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                           InventoryProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.separateTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.separateTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.properties = properties;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        recover();
+    }
+
+    /**
+     * Applies every pending order to the product table, then rebuilds the counters from it.
+     */
+    public void recover() {
+        int recovered = flushAll();
+        counters.clear();
+        jdbcTemplate.getJdbcTemplate().query("SELECT id, stock FROM product", rs -> {
+            long id = rs.getLong(1);
+            counters.put(id, newCounter(id, rs.getLong(2)));
+        });
+        log.info("Inventory ledger seeded with {} products after applying {} pending orders",
+                 counters.size(), recovered);
+    }
+
+    /**
+     * Returns the counter for a product, seeding it from {@code storedStock} if the product
+     * has not been seen since startup.
+     */
+    public StripedStockCounter counter(Long productId, long storedStock) {
+        return counters.computeIfAbsent(productId, id -> newCounter(id, storedStock));
+    }
+
+    public OptionalLong available(Long productId) {
+        StripedStockCounter counter = counters.get(productId);
+        return counter != null ? OptionalLong.of(counter.sum()) : OptionalLong.empty();
+    }
+
+    public void remove(Long productId) {
+        counters.remove(productId);
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.ledger.flush-interval-ms:200}")
+    public void scheduledFlush() {
+        int flushed = flushAll();
+        if (flushed > 0) {
+            log.debug("Inventory ledger flushed {} orders", flushed);
+        }
+    }
+
+    /**
+     * Flushes until no pending orders remain. Joins the caller's transaction if there is one.
+     *
+     * @return the number of orders applied
+     */
+    public int flushAll() {
+        return flushAll(transactionTemplate);
+    }
+
+    /**
+     * Prepares an absolute write of a product's stock in the caller's transaction. Committed
+     * orders are first applied in transactions of their own, so the caller holds no locks the
+     * scheduled flusher might be waiting on; then the product row is locked, so that no flush
+     * can change the stock column before the caller commits.
+     *
+     * @return the stock column as locked, or empty if there is no such product
+     */
+    public OptionalLong lockStock(Long productId) {
+        flushAll(separateTransaction);
+        List<Long> stock = jdbcTemplate.getJdbcTemplate().queryForList(
+                "SELECT stock FROM product WHERE id = ? FOR UPDATE", Long.class, productId);
+        return stock.isEmpty() ? OptionalLong.empty() : OptionalLong.of(stock.get(0));
+    }
+
+    private int flushAll(TransactionTemplate transaction) {
+        int total = 0;
+        Batch batch;
+        do {
+            batch = transaction.execute(status -> flushBatch());
+            total += batch.applied();
+        } while (batch.selected() == properties.getLedger().getFlushBatchSize());
+        return total;
+    }
+
+    private Batch flushBatch() {
+        List<Long> candidates = jdbcTemplate.getJdbcTemplate().queryForList(
+                "SELECT id FROM orders WHERE inventory_applied = FALSE ORDER BY id LIMIT ?",
+                Long.class, properties.getLedger().getFlushBatchSize());
+        if (candidates.isEmpty()) {
+            return new Batch(0, 0);
+        }
+        // A concurrent flush may have selected the same orders. The update waits for its
+        // commit and then matches nothing, so only the orders claimed here are applied here.
+        List<Object[]> claims = new ArrayList<>(candidates.size());
+        candidates.forEach(id -> claims.add(new Object[]{id}));
+        int[] claimed = jdbcTemplate.getJdbcTemplate().batchUpdate(
+                "UPDATE orders SET inventory_applied = TRUE WHERE id = ? AND inventory_applied = FALSE", claims);
+        List<Long> orderIds = new ArrayList<>(candidates.size());
+        for (int i = 0; i < claimed.length; i++) {
+            if (claimed[i] > 0) {
+                orderIds.add(candidates.get(i));
+            }
+        }
+        if (orderIds.isEmpty()) {
+            return new Batch(candidates.size(), 0);
+        }
+        List<Object[]> deltas = jdbcTemplate.query("""
+                SELECT product_id, SUM(quantity)
+                  FROM order_item
+                 WHERE order_id IN (:ids)
+                 GROUP BY product_id
+                 ORDER BY product_id
+                """, new MapSqlParameterSource("ids", orderIds), (rs, rowNum) -> new Object[]{rs.getLong(2), rs.getLong(1)});
+        jdbcTemplate.getJdbcTemplate().batchUpdate("UPDATE product SET stock = stock - ?, version = version + 1 WHERE id = ?", deltas);
+        return new Batch(candidates.size(), orderIds.size());
+    }
+
+    private StripedStockCounter newCounter(Long productId, long stock) {
+        return new StripedStockCounter(stock, properties.getLedger().stripesFor(productId));
+    }
+
+    private record Batch(int selected, int applied) {
+    }
+}
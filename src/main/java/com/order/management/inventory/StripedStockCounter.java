@@ -0,0 +1,103 @@
+package com.order.management.inventory;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free stock counter for one product. The quantity can be split across several
+ * stripes, each padded onto its own cache line, so that concurrent reservations on a
+ * hot product mostly CAS different memory locations.
+ */
+public class StripedStockCounter {
+
+    /** 16 longs = 128 bytes between stripes, enough to avoid false sharing on x86 and ARM. */
+    private static final int PAD = 16;
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final AtomicLongArray cells;
+    private final int stripes;
+
+    public StripedStockCounter(long initialStock, int stripes) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("stripes must be at least 1");
+        }
+        this.stripes = stripes;
+        this.cells = new AtomicLongArray(stripes * PAD);
+        long share = initialStock / stripes;
+        long remainder = initialStock % stripes;
+        for (int i = 0; i < stripes; i++) {
+            cells.set(i * PAD, share + (i < remainder ? 1 : 0));
+        }
+    }
+
+    /**
+     * Takes {@code quantity} units, all or nothing. The caller's home stripe is tried first;
+     * if it cannot cover the request the remaining stripes are drained into it.
+     *
+     * @return {@code true} if the units were taken
+     */
+    public boolean tryTake(int quantity) {
+        int home = homeStripe();
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            if (takeFrom(home, quantity)) {
+                return true;
+            }
+            if (stripes == 1 || sum() < quantity) {
+                return false;
+            }
+            long gathered = 0;
+            for (int i = 0; i < stripes && gathered < quantity; i++) {
+                gathered += takeUpTo((home + i) % stripes, quantity - gathered);
+            }
+            if (gathered == quantity) {
+                return true;
+            }
+            cells.addAndGet(home * PAD, gathered);
+        }
+        return false;
+    }
+
+    public void release(int quantity) {
+        cells.addAndGet(homeStripe() * PAD, quantity);
+    }
+
+    /**
+     * Total units across all stripes. Not a snapshot: concurrent takes may be half-observed.
+     */
+    public long sum() {
+        long total = 0;
+        for (int i = 0; i < stripes; i++) {
+            total += cells.get(i * PAD);
+        }
+        return total;
+    }
+
+    private boolean takeFrom(int stripe, int quantity) {
+        int index = stripe * PAD;
+        long current;
+        do {
+            current = cells.get(index);
+            if (current < quantity) {
+                return false;
+            }
+        } while (!cells.compareAndSet(index, current, current - quantity));
+        return true;
+    }
+
+    private long takeUpTo(int stripe, long wanted) {
+        int index = stripe * PAD;
+        long current;
+        long taken;
+        do {
+            current = cells.get(index);
+            taken = Math.min(current, wanted);
+            if (taken <= 0) {
+                return 0;
+            }
+        } while (!cells.compareAndSet(index, current, current - taken));
+        return taken;
+    }
+
+    private int homeStripe() {
+        return stripes == 1 ? 0 : (int) (Thread.currentThread().getId() % stripes);
+    }
+}
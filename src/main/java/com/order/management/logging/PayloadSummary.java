@@ -0,0 +1,62 @@
+package com.order.management.logging;
+
+import com.order.management.dto.CustomerDTO;
+import com.order.management.dto.OrderItemRequestDTO;
+import com.order.management.dto.OrderRequestDTO;
+import com.order.management.dto.ProductDTO;
+
+/**
+ * Short descriptions of request payloads for log parameters. Each factory returns a
+ * wrapper whose {@code toString()} runs only if the event is actually written, and reports
+ * a few fields instead of the whole DTO; customer contact details are left out.
+ */
+public final class PayloadSummary {
+
+    private PayloadSummary() {
+    }
+
+    public static Object of(OrderRequestDTO dto) {
+        return new Order(dto);
+    }
+
+    public static Object of(ProductDTO dto) {
+        return new Product(dto);
+    }
+
+    public static Object of(CustomerDTO dto) {
+        return new Customer(dto);
+    }
+
+    private record Order(OrderRequestDTO dto) {
+
+        @Override
+        public String toString() {
+            int lines = dto.getItems() != null ? dto.getItems().size() : 0;
+            long units = 0;
+            if (dto.getItems() != null) {
+                for (OrderItemRequestDTO item : dto.getItems()) {
+                    units += item.getQuantity() != null ? item.getQuantity() : 0;
+                }
+            }
+            return "customerId=" + dto.getCustomerId() + " items=" + lines + " units=" + units;
+        }
+    }
+
+    private record Product(ProductDTO dto) {
+
+        @Override
+        public String toString() {
+            return "price=" + dto.getPrice() + " stock=" + dto.getStock();
+        }
+    }
+
+    private record Customer(CustomerDTO dto) {
+
+        @Override
+        public String toString() {
+            String email = dto.getEmail();
+            int at = email != null ? email.lastIndexOf('@') : -1;
+            return "emailDomain=" + (at >= 0 ? email.substring(at + 1) : "?");
+        }
+    }
+}
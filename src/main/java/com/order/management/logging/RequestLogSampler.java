@@ -0,0 +1,43 @@
+package com.order.management.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Keeps roughly one in {@code every} log events marked {@link #REQUEST} and drops the rest
+ * before their message is formatted. WARN and ERROR events are never sampled.
+ * <p>
+ * Configured in {@code logback-spring.xml} from {@code request-log.sample-every}; 1 keeps
+ * every event.
+ */
+public class RequestLogSampler extends TurboFilter {
+
+    /** Marks the routine per-request log lines that may be sampled. */
+    public static final Marker REQUEST = MarkerFactory.getMarker("REQUEST");
+
+    private int every = 1;
+
+    public void setEvery(int every) {
+        this.every = Math.max(every, 1);
+    }
+
+    public int getEvery() {
+        return every;
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format,
+                              Object[] params, Throwable t) {
+        if (every == 1 || marker == null || level == null || level.isGreaterOrEqual(Level.WARN)
+                || !marker.contains(REQUEST)) {
+            return FilterReply.NEUTRAL;
+        }
+        return ThreadLocalRandom.current().nextInt(every) == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+}
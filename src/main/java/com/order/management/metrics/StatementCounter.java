@@ -0,0 +1,33 @@
+package com.order.management.metrics;
+
+/**
+ * Counts JDBC statement executions, i.e. database round trips, on the current thread between
+ * {@link #begin()} and {@link #end()}. Executions outside such a scope are not counted.
+ */
+public final class StatementCounter {
+
+    private static final ThreadLocal<int[]> CURRENT = new ThreadLocal<>();
+
+    private StatementCounter() {
+    }
+
+    public static void begin() {
+        CURRENT.set(new int[1]);
+    }
+
+    /**
+     * Ends the scope and returns the number of executions counted in it.
+     */
+    public static int end() {
+        int[] count = CURRENT.get();
+        CURRENT.remove();
+        return count != null ? count[0] : 0;
+    }
+
+    static void increment() {
+        int[] count = CURRENT.get();
+        if (count != null) {
+            count[0]++;
+        }
+    }
+}
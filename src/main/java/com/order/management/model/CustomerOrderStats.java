@@ -0,0 +1,36 @@
+package com.order.management.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+
+/**
+ * Running order count per customer, incremented in the same transaction as each order.
+ */
+@Entity
+@Table(name = "customer_order_stats")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CustomerOrderStats {
+
+    @Id
+    @Column(name = "customer_id")
+    private Long customerId;
+
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+
+    /**
+     * The part of {@code orderCount} whose orders sit in archived partitions and so no longer
+     * show up in {@code orders}.
+     */
+    @ColumnDefault("0")
+    @Column(name = "archived_count", nullable = false)
+    private long archivedCount;
+
+    public CustomerOrderStats(Long customerId, long orderCount) {
+        this(customerId, orderCount, 0);
+    }
+}
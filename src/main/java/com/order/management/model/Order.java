@@ -2,8 +2,8 @@ package com.order.management.model;
 
 import jakarta.persistence.*;
 import lombok.*;
-import org.hibernate.annotations.CreationTimestamp;
 
+import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
@@ -17,17 +17,41 @@ import java.util.List;
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "customer_id", nullable = false)
     private Customer customer;
 
+    /**
+     * Partition key of {@code orders} and {@code order_item}. Stamped by {@link #stampOrderDate}
+     * unless set, and copied to every item so each line lands in its order's partition.
+     */
     @Column(name = "order_date", nullable = false, updatable = false)
-    @CreationTimestamp
     private Instant orderDate;
 
+    /**
+     * False while the order's quantities are still held only by the in-memory inventory ledger.
+     */
+    @Column(name = "inventory_applied", nullable = false)
+    @Builder.Default
+    private boolean inventoryApplied = true;
+
+    /**
+     * Sum of quantity times unit price over the items, kept up to date by {@link #addItem} so
+     * reads never recompute it.
+     */
+    @Column(name = "total_amount", nullable = false, precision = 14, scale = 2)
+    @Builder.Default
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+
+    /** Number of item lines. */
+    @Column(name = "item_count", nullable = false)
+    @Builder.Default
+    private int itemCount = 0;
+
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default
     private List<OrderItem> items = new ArrayList<>();
@@ -35,5 +59,17 @@ public class Order {
     public void addItem(OrderItem item) {
         items.add(item);
         item.setOrder(this);
+        itemCount++;
+        totalAmount = totalAmount.add(item.getUnitPrice().multiply(BigDecimal.valueOf(item.getQuantity())));
+    }
+
+    @PrePersist
+    void stampOrderDate() {
+        if (orderDate == null) {
+            orderDate = Instant.now();
+        }
+        for (OrderItem item : items) {
+            item.setOrderDate(orderDate);
+        }
     }
 }
@@ -0,0 +1,49 @@
+package com.order.management.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Final outcome of an order accepted through the asynchronous intake. Orders still waiting
+ * in the intake log have no row.
+ */
+@Entity
+@Table(name = "order_intake")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderIntake {
+
+    @Id
+    @Column(name = "tracking_id")
+    private UUID trackingId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "error_code", length = 32)
+    private String errorCode;
+
+    @Column(length = 255)
+    private String message;
+
+    @Column(name = "accepted_at", nullable = false)
+    private Instant acceptedAt;
+
+    @Column(name = "completed_at", nullable = false)
+    private Instant completedAt;
+
+    public enum Status {
+        PLACED,
+        REJECTED,
+        FAILED
+    }
+}
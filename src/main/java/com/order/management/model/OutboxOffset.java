@@ -0,0 +1,28 @@
+package com.order.management.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Position of one outbox sink: every event up to {@code lastEventId} has been published to it.
+ */
+@Entity
+@Table(name = "outbox_offset")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxOffset {
+
+    @Id
+    @Column(length = 64)
+    private String sink;
+
+    @Column(name = "last_event_id", nullable = false)
+    private long lastEventId;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
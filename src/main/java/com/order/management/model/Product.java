@@ -6,6 +6,7 @@ import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
 @Table(name = "product")
@@ -32,4 +33,10 @@ public class Product {
     @Min(value = 0, message = "Stock must be greater than or equal to 0")
     @Column(nullable = false)
     private Integer stock;
+
+    /** Bumped by every write, including the raw stock UPDATEs; also the ETag of the product. */
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
 }
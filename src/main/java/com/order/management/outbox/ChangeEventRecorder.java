@@ -0,0 +1,127 @@
+package com.order.management.outbox;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.order.management.model.Customer;
+import com.order.management.model.Order;
+import com.order.management.model.OrderItem;
+import com.order.management.model.OutboxEvent;
+import com.order.management.model.Product;
+import com.order.management.repository.OutboxEventRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records change events in the outbox as part of the caller's transaction, so an event
+ * exists exactly when the change it describes was committed.
+ *
+ * <p>Pending entity changes are flushed before the events are inserted. The row locks taken
+ * by that flush are therefore held when the event ids are drawn, which makes ids increase in
+ * commit order for any one aggregate.
+ */
+@Component
+@RequiredArgsConstructor
+public class ChangeEventRecorder {
+
+    public static final String ORDER_PLACED = "ORDER_PLACED";
+    public static final String PRODUCT_CREATED = "PRODUCT_CREATED";
+    public static final String PRODUCT_UPDATED = "PRODUCT_UPDATED";
+    public static final String PRODUCT_DELETED = "PRODUCT_DELETED";
+    public static final String CUSTOMER_CREATED = "CUSTOMER_CREATED";
+    public static final String CUSTOMER_UPDATED = "CUSTOMER_UPDATED";
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final EntityManager entityManager;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void ordersPlaced(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        entityManager.flush();
+        Instant now = Instant.now();
+        List<OutboxEvent> events = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            events.add(event(OutboxEvent.AggregateType.ORDER, order.getId(), ORDER_PLACED, now, json -> {
+                json.writeNumberField("customerId", order.getCustomer().getId());
+                json.writeStringField("orderDate", order.getOrderDate().toString());
+                json.writeArrayFieldStart("items");
+                for (OrderItem item : order.getItems()) {
+                    json.writeStartObject();
+                    json.writeNumberField("productId", item.getProduct().getId());
+                    json.writeNumberField("quantity", item.getQuantity());
+                    json.writeNumberField("unitPrice", item.getUnitPrice());
+                    json.writeEndObject();
+                }
+                json.writeEndArray();
+                json.writeNumberField("totalAmount", order.getTotalAmount());
+            }));
+        }
+        outboxEventRepository.appendAll(events);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void productChanged(String eventType, Product product) {
+        append(event(OutboxEvent.AggregateType.PRODUCT, product.getId(), eventType, Instant.now(), json -> {
+            json.writeStringField("name", product.getName());
+            json.writeNumberField("price", product.getPrice());
+            json.writeNumberField("stock", product.getStock());
+        }));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void productDeleted(Long productId) {
+        append(event(OutboxEvent.AggregateType.PRODUCT, productId, PRODUCT_DELETED, Instant.now(), json -> {
+        }));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void customerChanged(String eventType, Customer customer) {
+        append(event(OutboxEvent.AggregateType.CUSTOMER, customer.getId(), eventType, Instant.now(), json -> {
+            json.writeStringField("name", customer.getName());
+            json.writeStringField("email", customer.getEmail());
+            json.writeStringField("phone", customer.getPhone());
+        }));
+    }
+
+    private void append(OutboxEvent event) {
+        entityManager.flush();
+        outboxEventRepository.appendAll(List.of(event));
+    }
+
+    private static OutboxEvent event(OutboxEvent.AggregateType aggregateType, Long aggregateId, String eventType,
+                                     Instant createdAt, PayloadWriter payload) {
+        StringWriter out = new StringWriter(128);
+        try (JsonGenerator json = JSON.createGenerator(out)) {
+            json.writeStartObject();
+            payload.write(json);
+            json.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return OutboxEvent.builder()
+                .aggregateType(aggregateType)
+                .aggregateId(aggregateId)
+                .eventType(eventType)
+                .payload(out.toString())
+                .createdAt(createdAt)
+                .build();
+    }
+
+    @FunctionalInterface
+    private interface PayloadWriter {
+        void write(JsonGenerator json) throws IOException;
+    }
+}
@@ -0,0 +1,257 @@
+package com.order.management.outbox;
+
+import com.order.management.config.OutboxProperties;
+import com.order.management.model.OutboxEvent;
+import com.order.management.model.OutboxOffset;
+import com.order.management.repository.OutboxEventRepository;
+import com.order.management.repository.OutboxOffsetRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Publishes outbox events to every {@link OutboxSink}, in id order and in batches of up to
+ * {@code outbox.relay.batch-size}. Each sink has its own offset; resumable sinks store it in
+ * {@code outbox_offset} after every batch, so delivery is at-least-once across restarts.
+ *
+ * <p>Event ids are drawn from a sequence when the event is inserted, not when it commits,
+ * so a poll can see id 12 while 11 is still uncommitted. The relay never publishes past
+ * such a gap until the missing id appears or {@code gap-timeout} passes, after which the
+ * id is taken to belong to a rolled-back transaction. Because a transaction holds its
+ * aggregate's row lock while drawing the id, ids for one aggregate follow commit order,
+ * and publishing in id order keeps every aggregate's events in order.
+ *
+ * <p>Run the relay on one instance only; set {@code outbox.relay.enabled=false} elsewhere.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "outbox.relay", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay implements SmartInitializingSingleton {
+
+    private static final int PURGE_CHUNK = 10_000;
+
+    private final OutboxProperties.Relay properties;
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxOffsetRepository outboxOffsetRepository;
+    private final List<OutboxSink> sinks;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    /** Not a monitor: relaying does JDBC and sink I/O, which must not pin a virtual thread's carrier. */
+    private final ReentrantLock relayLock = new ReentrantLock();
+
+    // guarded by relayLock
+    private final List<SinkState> states = new ArrayList<>();
+    private Counter gapsSkipped;
+
+    /** Every id up to here is either visible or known never to commit. */
+    private long horizon;
+    private long gapStart = -1;
+    private long gapSeenAt;
+
+    public OutboxRelay(OutboxProperties properties,
+                       OutboxEventRepository outboxEventRepository,
+                       OutboxOffsetRepository outboxOffsetRepository,
+                       List<OutboxSink> sinks,
+                       ObjectProvider<MeterRegistry> meterRegistry) {
+        this.properties = properties.getRelay();
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxOffsetRepository = outboxOffsetRepository;
+        this.sinks = sinks;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        relayLock.lock();
+        try {
+            long head = outboxEventRepository.findMaxId();
+            horizon = sinks.isEmpty() ? head : Long.MAX_VALUE;
+            for (OutboxSink sink : sinks) {
+                long offset = sink.resumable()
+                        ? outboxOffsetRepository.findById(sink.name()).map(OutboxOffset::getLastEventId).orElse(0L)
+                        : head;
+                sink.resumeFrom(offset);
+                SinkState state = new SinkState(sink, offset);
+                states.add(state);
+                horizon = Math.min(horizon, offset);
+                meterRegistry.ifAvailable(state::register);
+            }
+            meterRegistry.ifAvailable(registry ->
+                    gapsSkipped = Counter.builder("outbox.relay.gaps.skipped")
+                            .description("Event ids given up on as rolled back")
+                            .register(registry));
+            log.info("Outbox relay starting at event {} for sinks {}", horizon,
+                     states.stream().map(state -> state.sink.name() + "@" + state.offset).toList());
+        } finally {
+            relayLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.poll-interval:200ms}")
+    public void scheduledRelay() {
+        int published = relay();
+        if (published > 0) {
+            log.debug("Outbox relay published {} events", published);
+        }
+    }
+
+    /**
+     * Publishes until every sink has caught up with the settled events.
+     *
+     * @return the number of events handed to sinks, counted once per sink
+     */
+    public int relay() {
+        relayLock.lock();
+        try {
+            int total = 0;
+            boolean more;
+            do {
+                more = false;
+                for (SinkState state : states) {
+                    int published = relayTo(state);
+                    total += published;
+                    more |= published == properties.getBatchSize();
+                }
+            } while (more);
+            return total;
+        } finally {
+            relayLock.unlock();
+        }
+    }
+
+    /**
+     * Deletes events every sink has published once they are older than the retention.
+     */
+    @Scheduled(fixedDelay = 1, initialDelay = 1, timeUnit = TimeUnit.HOURS)
+    public void purgePublished() {
+        long upTo;
+        relayLock.lock();
+        try {
+            upTo = states.stream().mapToLong(state -> state.offset).min().orElse(horizon);
+        } finally {
+            relayLock.unlock();
+        }
+        Instant cutoff = Instant.now().minus(properties.getRetention());
+        int purged = 0;
+        int deleted;
+        do {
+            deleted = outboxEventRepository.deletePublished(upTo, cutoff, PURGE_CHUNK);
+            purged += deleted;
+        } while (deleted == PURGE_CHUNK);
+        if (purged > 0) {
+            log.info("Purged {} published outbox events created before {}", purged, cutoff);
+        }
+    }
+
+    private int relayTo(SinkState state) {
+        List<OutboxEvent> events = outboxEventRepository.findAfter(state.offset, Limit.of(properties.getBatchSize()));
+        int settled = settled(events);
+        if (settled == 0) {
+            return 0;
+        }
+        List<OutboxEvent> batch = events.subList(0, settled);
+        long started = System.nanoTime();
+        try {
+            state.sink.publish(batch);
+        } catch (Exception e) {
+            log.warn("Outbox sink {} failed on events {}..{}, retrying from {}: {}", state.sink.name(),
+                     batch.get(0).getId(), batch.get(settled - 1).getId(), state.offset, e.getMessage());
+            if (state.failures != null) {
+                state.failures.increment();
+            }
+            return 0;
+        }
+        long last = batch.get(settled - 1).getId();
+        if (state.sink.resumable()) {
+            outboxOffsetRepository.save(new OutboxOffset(state.sink.name(), last, Instant.now()));
+        }
+        state.offset = last;
+
+        if (state.published != null) {
+            state.publishTime.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            state.published.increment(settled);
+            Instant now = Instant.now();
+            for (OutboxEvent event : batch) {
+                state.lag.record(Duration.between(event.getCreatedAt(), now));
+            }
+        }
+        return settled;
+    }
+
+    /**
+     * Advances the horizon over the fetched events and returns how many of them, from the
+     * start, may be published.
+     */
+    private int settled(List<OutboxEvent> events) {
+        int settled = 0;
+        for (OutboxEvent event : events) {
+            long id = event.getId();
+            if (id > horizon + 1) {
+                long now = System.nanoTime();
+                if (gapStart != horizon + 1) {
+                    gapStart = horizon + 1;
+                    gapSeenAt = now;
+                }
+                if (now - gapSeenAt < properties.getGapTimeout().toNanos()) {
+                    break;
+                }
+                log.warn("Outbox event ids {}..{} did not appear within {}; treating them as rolled back",
+                         horizon + 1, id - 1, properties.getGapTimeout());
+                if (gapsSkipped != null) {
+                    gapsSkipped.increment(id - 1 - horizon);
+                }
+            }
+            horizon = Math.max(horizon, id);
+            settled++;
+        }
+        return settled;
+    }
+
+    private static final class SinkState {
+
+        private final OutboxSink sink;
+        private volatile long offset;
+        private Counter published;
+        private Counter failures;
+        private Timer publishTime;
+        private Timer lag;
+
+        private SinkState(OutboxSink sink, long offset) {
+            this.sink = sink;
+            this.offset = offset;
+        }
+
+        private void register(MeterRegistry registry) {
+            String name = sink.name();
+            Gauge.builder("outbox.sink.offset", this, state -> state.offset)
+                    .description("Id of the last event published to the sink")
+                    .tag("sink", name)
+                    .register(registry);
+            published = Counter.builder("outbox.events.published").tag("sink", name).register(registry);
+            failures = Counter.builder("outbox.publish.failures").tag("sink", name).register(registry);
+            publishTime = Timer.builder("outbox.publish")
+                    .description("Time to publish one batch")
+                    .tag("sink", name)
+                    .register(registry);
+            lag = Timer.builder("outbox.publish.lag")
+                    .description("Time from recording an event to publishing it")
+                    .tag("sink", name)
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.order.management.outbox;
+
+import com.order.management.model.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Destination the {@link OutboxRelay} publishes change events to. Every sink bean in the
+ * context is picked up and gets its own offset, so a slow or failing sink does not hold the
+ * others back.
+ */
+public interface OutboxSink {
+
+    /**
+     * Stable name the sink's offset is stored under.
+     */
+    String name();
+
+    /**
+     * Publishes events in id order. Throwing leaves the offset where it was, so the same
+     * events are offered again on the next poll; sinks must tolerate seeing an event twice.
+     */
+    void publish(List<OutboxEvent> events) throws Exception;
+
+    /**
+     * Whether the sink resumes from its stored offset after a restart. A live fan-out
+     * returns false and starts at the newest event instead.
+     */
+    default boolean resumable() {
+        return true;
+    }
+
+    /**
+     * Called once before the first {@link #publish} with the id of the last event the sink
+     * is considered to have seen.
+     */
+    default void resumeFrom(long offset) {
+    }
+}
@@ -0,0 +1,250 @@
+package com.order.management.outbox;
+
+import com.order.management.config.OutboxProperties;
+import com.order.management.dto.ChangeEventDTO;
+import com.order.management.exception.ServiceBusyException;
+import com.order.management.model.OutboxEvent;
+import com.order.management.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fans published events out to Server-Sent Events streams.
+ *
+ * <p>A client that reconnects with {@code Last-Event-ID} first catches up from the outbox
+ * table, then continues with live events. Each stream has a bounded buffer and is written
+ * from its own sender task, so a slow client never holds up the relay; one that falls more
+ * than {@code buffer-size} events behind is disconnected and resumes from the table.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "outbox.sse", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SseOutboxSink implements OutboxSink, DisposableBean {
+
+    private static final int CATCH_UP_PAGE = 500;
+
+    private final OutboxProperties.Sse properties;
+    private final OutboxEventRepository outboxEventRepository;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders = Executors.newCachedThreadPool(new SenderThreadFactory());
+
+    private final ReentrantLock publishLock = new ReentrantLock();
+
+    /** Id of the last event handed to live subscribers; guarded by publishLock. */
+    private long published;
+
+    public SseOutboxSink(OutboxProperties properties,
+                         OutboxEventRepository outboxEventRepository,
+                         ObjectProvider<MeterRegistry> meterRegistry) {
+        this.properties = properties.getSse();
+        this.outboxEventRepository = outboxEventRepository;
+        meterRegistry.ifAvailable(registry ->
+                Gauge.builder("outbox.sse.subscribers", subscribers, Set::size)
+                        .description("Open change event streams")
+                        .register(registry));
+    }
+
+    @Override
+    public String name() {
+        return "sse";
+    }
+
+    @Override
+    public boolean resumable() {
+        return false;
+    }
+
+    @Override
+    public void resumeFrom(long offset) {
+        publishLock.lock();
+        try {
+            published = offset;
+        } finally {
+            publishLock.unlock();
+        }
+    }
+
+    @Override
+    public void publish(List<OutboxEvent> events) {
+        publishLock.lock();
+        try {
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(events);
+            }
+            published = events.get(events.size() - 1).getId();
+        } finally {
+            publishLock.unlock();
+        }
+    }
+
+    /**
+     * Opens a stream of events after {@code lastEventId}, or of new events only when it is
+     * null, restricted to {@code aggregates} unless that is empty.
+     */
+    public SseEmitter subscribe(Long lastEventId, Set<OutboxEvent.AggregateType> aggregates) {
+        if (subscribers.size() >= properties.getMaxSubscribers()) {
+            throw new ServiceBusyException("Too many open change event streams. Please retry shortly.");
+        }
+        SseEmitter emitter = new SseEmitter(properties.getTimeout().toMillis());
+        Subscriber subscriber;
+        publishLock.lock();
+        try {
+            // events up to `published` come from the table, later ones through the live buffer
+            subscriber = new Subscriber(emitter, aggregates,
+                                        lastEventId != null ? lastEventId : published, published);
+            subscribers.add(subscriber);
+        } finally {
+            publishLock.unlock();
+        }
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        subscriber.schedule();
+        return emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.sse.heartbeat:15s}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.heartbeatDue = true;
+            subscriber.schedule();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        senders.shutdownNow();
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Set<OutboxEvent.AggregateType> aggregates;
+        private final BlockingQueue<OutboxEvent> live;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final long catchUpTo;
+        private long lastSent;
+        private boolean caughtUp;
+        private volatile boolean heartbeatDue;
+        private volatile boolean closed;
+
+        private Subscriber(SseEmitter emitter, Set<OutboxEvent.AggregateType> aggregates,
+                           long lastSent, long catchUpTo) {
+            this.emitter = emitter;
+            this.aggregates = aggregates;
+            this.live = new ArrayBlockingQueue<>(properties.getBufferSize());
+            this.lastSent = lastSent;
+            this.catchUpTo = catchUpTo;
+        }
+
+        private void offer(List<OutboxEvent> events) {
+            for (OutboxEvent event : events) {
+                if (matches(event) && !live.offer(event)) {
+                    log.info("Closing change event stream that fell {} events behind", live.size());
+                    close();
+                    emitter.complete();
+                    return;
+                }
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (!closed && scheduled.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                if (!caughtUp) {
+                    catchUp();
+                }
+                OutboxEvent event;
+                while (!closed && (event = live.poll()) != null) {
+                    if (event.getId() > lastSent) {
+                        send(event);
+                    }
+                }
+                if (heartbeatDue && !closed) {
+                    heartbeatDue = false;
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Change event stream closed: {}", e.getMessage());
+                close();
+            } finally {
+                scheduled.set(false);
+            }
+            if (!live.isEmpty()) {
+                schedule();
+            }
+        }
+
+        private void catchUp() throws IOException {
+            List<OutboxEvent> page;
+            do {
+                page = outboxEventRepository.findBetween(lastSent, catchUpTo, Limit.of(CATCH_UP_PAGE));
+                for (OutboxEvent event : page) {
+                    if (matches(event)) {
+                        send(event);
+                    }
+                    lastSent = event.getId();
+                }
+            } while (page.size() == CATCH_UP_PAGE && !closed);
+            caughtUp = true;
+        }
+
+        private void send(OutboxEvent event) throws IOException {
+            emitter.send(SseEmitter.event()
+                    .id(event.getId().toString())
+                    .name(event.getEventType())
+                    .data(ChangeEventDTO.of(event), MediaType.APPLICATION_JSON));
+            lastSent = event.getId();
+        }
+
+        private boolean matches(OutboxEvent event) {
+            return aggregates.isEmpty() || aggregates.contains(event.getAggregateType());
+        }
+
+        private void close() {
+            closed = true;
+            subscribers.remove(this);
+        }
+    }
+
+    private static final class SenderThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, "outbox-sse-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
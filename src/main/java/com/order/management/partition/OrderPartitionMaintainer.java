@@ -0,0 +1,148 @@
+package com.order.management.partition;
+
+import com.order.management.config.OrderPartitionProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps {@code premake-months} of future partitions ready. Only when {@code retention-months}
+ * is set does it also archive partitions whose orders are all older than that.
+ *
+ * <p>Runs at startup and then on {@code maintain-cron}. Instances that run it at the same time
+ * are serialised by an advisory lock. Each step waits at most {@code lock-timeout} for its
+ * table locks and otherwise leaves the work to the next run, so it never queues traffic
+ * behind it for long.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "order-partitions", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class OrderPartitionMaintainer implements SmartInitializingSingleton {
+
+    private static final Pattern SCHEMA_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+    private static final long ADVISORY_LOCK = 0x6f72_6470_6172_7473L;
+
+    private final OrderPartitionProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public OrderPartitionMaintainer(OrderPartitionProperties properties,
+                                    DataSource dataSource,
+                                    PlatformTransactionManager transactionManager) {
+        if (!SCHEMA_NAME.matcher(properties.getArchiveSchema()).matches()) {
+            throw new IllegalArgumentException("order-partitions.archive-schema must be a plain lower-case identifier");
+        }
+        this.properties = properties;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        scheduledMaintain();
+    }
+
+    @Scheduled(cron = "${order-partitions.maintain-cron:0 30 2 * * *}")
+    public void scheduledMaintain() {
+        try {
+            maintain();
+        } catch (DataAccessException e) {
+            log.warn("Order partition maintenance did not finish, retrying on the next run: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return the {@code orders} partitions created and archived, in that order
+     */
+    public List<String> maintain() {
+        List<String> changed = new ArrayList<>(createAhead());
+        changed.addAll(archiveExpired());
+        return changed;
+    }
+
+    /**
+     * Creates the partitions up to {@code premake-months} after the current month.
+     */
+    public List<String> createAhead() {
+        YearMonth until = YearMonth.now(ZoneOffset.UTC).plusMonths(properties.getPremakeMonths());
+        List<String> created = inLockedTransaction(connection -> OrderPartitions.createThrough(connection, until));
+        if (!created.isEmpty()) {
+            log.info("Created order partitions {}", created);
+        }
+        return created;
+    }
+
+    /**
+     * Archives, oldest first, every partition that ends before the retention window. Does
+     * nothing unless {@code retention-months} is above 0.
+     */
+    public List<String> archiveExpired() {
+        if (properties.getRetentionMonths() <= 0) {
+            return List.of();
+        }
+        LocalDateTime cutoff = YearMonth.now(ZoneOffset.UTC).minusMonths(properties.getRetentionMonths())
+                .atDay(1).atStartOfDay();
+        List<String> archived = new ArrayList<>();
+        for (OrderPartitions.Partition partition : inLockedTransaction(OrderPartitions::list)) {
+            if (partition.upperBound().isAfter(cutoff)) {
+                break;
+            }
+            // one transaction per pair, so a lock timeout keeps what was archived so far
+            List<String> done = inLockedTransaction(connection -> {
+                OrderPartitions.archive(connection, partition, properties.getArchiveSchema());
+                return List.of(partition.name());
+            });
+            if (done.isEmpty()) {
+                break;
+            }
+            archived.addAll(done);
+            log.info("Archived order partitions {} and {} to schema {}", partition.name(),
+                     partition.itemPartition(), properties.getArchiveSchema());
+        }
+        return archived;
+    }
+
+    /**
+     * Runs {@code work} in a transaction with the lock timeout applied, or returns an empty list
+     * if another instance is maintaining partitions right now.
+     */
+    private <T> List<T> inLockedTransaction(PartitionWork<T> work) {
+        List<T> result = transactionTemplate.execute(status -> jdbcTemplate.execute((ConnectionCallback<List<T>>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET LOCAL lock_timeout = " + properties.getLockTimeout().toMillis());
+                try (ResultSet rs = statement.executeQuery("SELECT pg_try_advisory_xact_lock(" + ADVISORY_LOCK + ")")) {
+                    if (!rs.next() || !rs.getBoolean(1)) {
+                        log.debug("Order partitions are being maintained by another instance");
+                        return List.of();
+                    }
+                }
+            }
+            return work.apply(connection);
+        }));
+        return result != null ? result : List.of();
+    }
+
+    @FunctionalInterface
+    private interface PartitionWork<T> {
+        List<T> apply(Connection connection) throws SQLException;
+    }
+}
@@ -0,0 +1,120 @@
+package com.order.management.partition;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * DDL for the partitions of {@code orders} and {@code order_item}, used by
+ * {@link OrderPartitionMaintainer}. The V12 migration has its own copy of the monthly DDL, so
+ * keep the names and bounds created here in line with it.
+ *
+ * <p>Both tables are range-partitioned on {@code order_date} with identical bounds. Each
+ * month has a pair, {@code orders_pYYYYMM} and {@code order_item_pYYYYMM}, and the item
+ * partition's foreign key points at its own month's orders partition. Rows from before the
+ * partitioning live in one pair, {@code orders_legacy} and {@code order_item_legacy}.
+ */
+public final class OrderPartitions {
+
+    public static final String ORDERS = "orders";
+    public static final String ORDER_ITEM = "order_item";
+
+    private static final Pattern UPPER_BOUND = Pattern.compile("TO \\('([^']+)'\\)");
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("'_p'yyyyMM");
+
+    private static final String PARTITIONS_SQL = """
+            SELECT c.relname, pg_get_expr(c.relpartbound, c.oid)
+              FROM pg_inherits i
+              JOIN pg_class c ON c.oid = i.inhrelid
+             WHERE i.inhparent = 'orders'::regclass
+            """;
+
+    private OrderPartitions() {
+    }
+
+    /**
+     * An {@code orders} partition and the end of its range, exclusive.
+     */
+    public record Partition(String name, LocalDateTime upperBound) {
+
+        /** The {@code order_item} partition with the same bounds. */
+        public String itemPartition() {
+            return ORDER_ITEM + name.substring(ORDERS.length());
+        }
+    }
+
+    /**
+     * The attached {@code orders} partitions, oldest first.
+     */
+    public static List<Partition> list(Connection connection) throws SQLException {
+        List<Partition> partitions = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(PARTITIONS_SQL)) {
+            while (rs.next()) {
+                Matcher bound = UPPER_BOUND.matcher(rs.getString(2));
+                if (!bound.find()) {
+                    throw new IllegalStateException("Unexpected bounds for partition " + rs.getString(1)
+                                                    + ": " + rs.getString(2));
+                }
+                partitions.add(new Partition(rs.getString(1), LocalDateTime.parse(bound.group(1).replace(' ', 'T'))));
+            }
+        }
+        partitions.sort(Comparator.comparing(Partition::upperBound));
+        return partitions;
+    }
+
+    /**
+     * Adds monthly partition pairs after the newest one until {@code until} is covered.
+     *
+     * @return the names of the {@code orders} partitions created
+     */
+    public static List<String> createThrough(Connection connection, YearMonth until) throws SQLException {
+        List<Partition> existing = list(connection);
+        YearMonth month = existing.isEmpty()
+                ? YearMonth.now(ZoneOffset.UTC)
+                : YearMonth.from(existing.get(existing.size() - 1).upperBound());
+        List<String> created = new ArrayList<>();
+        try (Statement statement = connection.createStatement()) {
+            for (; !month.isAfter(until); month = month.plusMonths(1)) {
+                String suffix = month.format(SUFFIX);
+                String range = "FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')";
+                statement.execute("CREATE TABLE " + ORDERS + suffix + " PARTITION OF " + ORDERS + " " + range);
+                statement.execute("CREATE TABLE " + ORDER_ITEM + suffix + " PARTITION OF " + ORDER_ITEM + " " + range);
+                statement.execute("ALTER TABLE " + ORDER_ITEM + suffix + " ADD CONSTRAINT fk_" + ORDER_ITEM + suffix + "_order"
+                                  + " FOREIGN KEY (order_id, order_date) REFERENCES " + ORDERS + suffix + " (id, order_date)");
+                created.add(ORDERS + suffix);
+            }
+        }
+        return created;
+    }
+
+    /**
+     * Detaches a partition pair and moves it to {@code schema}. Its orders are first added to
+     * {@code customer_order_stats.archived_count}, so the stats check still balances.
+     */
+    public static void archive(Connection connection, Partition partition, String schema) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE SCHEMA IF NOT EXISTS " + schema);
+            statement.execute("""
+                    INSERT INTO customer_order_stats (customer_id, order_count, archived_count)
+                    SELECT customer_id, COUNT(*), COUNT(*) FROM %s GROUP BY customer_id
+                    ON CONFLICT (customer_id)
+                    DO UPDATE SET archived_count = customer_order_stats.archived_count + EXCLUDED.archived_count
+                    """.formatted(partition.name()));
+            statement.execute("ALTER TABLE " + ORDER_ITEM + " DETACH PARTITION " + partition.itemPartition());
+            statement.execute("ALTER TABLE " + ORDERS + " DETACH PARTITION " + partition.name());
+            statement.execute("ALTER TABLE " + partition.itemPartition() + " SET SCHEMA " + schema);
+            statement.execute("ALTER TABLE " + partition.name() + " SET SCHEMA " + schema);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.order.management.replica;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends connections for read-only transactions to the available replicas in turn and
+ * everything else to the primary. When no replica is available, reads fall back to the
+ * primary.
+ *
+ * <p>The route is decided when the connection is first used, so this has to sit behind a
+ * {@link LazyConnectionDataSourceProxy}: JPA transactions fetch their connection before the
+ * read-only flag of the transaction is published. Routed connections are counted as
+ * {@code datasource.routed.connections}, tagged {@code route=primary|replica|fallback}.
+ *
+ * <p>The proxy from {@link #lazy()} closes the primary pool when the context shuts it down;
+ * the replica pools belong to {@link ReplicaLagMonitor}.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+
+    private final DataSource primary;
+    private final List<ReplicaPool> replicas;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter primaryRoutes;
+    private final Counter replicaRoutes;
+    private final Counter fallbackRoutes;
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<ReplicaPool> replicas, MeterRegistry registry) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (ReplicaPool replica : this.replicas) {
+            targets.put(replica.getName(), replica.getDataSource());
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+
+        this.primaryRoutes = routeCounter(registry, "primary");
+        this.replicaRoutes = routeCounter(registry, "replica");
+        this.fallbackRoutes = routeCounter(registry, "fallback");
+    }
+
+    /**
+     * A proxy that fetches the connection on first use, for use as the application's DataSource.
+     */
+    public DataSource lazy() {
+        return new LazyRoutingDataSource(this);
+    }
+
+    public List<ReplicaPool> getReplicas() {
+        return replicas;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            primaryRoutes.increment();
+            return PRIMARY;
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            ReplicaPool replica = replicas.get((start + i) % size);
+            if (replica.isAvailable()) {
+                replicaRoutes.increment();
+                return replica.getName();
+            }
+        }
+        fallbackRoutes.increment();
+        return PRIMARY;
+    }
+
+    private static Counter routeCounter(MeterRegistry registry, String route) {
+        return Counter.builder("datasource.routed.connections")
+                .description("Connections handed out, by the pool they were routed to")
+                .tag("route", route)
+                .register(registry);
+    }
+
+    private static final class LazyRoutingDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+
+        private final ReadWriteRoutingDataSource routing;
+
+        private LazyRoutingDataSource(ReadWriteRoutingDataSource routing) {
+            super(routing);
+            this.routing = routing;
+        }
+
+        @Override
+        public void close() throws Exception {
+            if (routing.primary instanceof AutoCloseable pool) {
+                pool.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.order.management.replica;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Measures how far each replica's replay is behind the primary and takes replicas out of
+ * rotation while they are too far behind or cannot be reached. Replicas start out of rotation
+ * until their first check. The lag is published as {@code datasource.replica.lag}, in seconds,
+ * tagged with the replica's pool name.
+ */
+@Slf4j
+public class ReplicaLagMonitor implements AutoCloseable {
+
+    /**
+     * Zero when replay has caught up with everything received, so an idle primary does not
+     * make the replica look stale; otherwise the age of the last replayed transaction.
+     */
+    static final String LAG_SQL = """
+            SELECT CASE
+                       WHEN NOT pg_is_in_recovery() THEN 0
+                       WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                       ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+                   END
+            """;
+
+    private final List<ReplicaPool> replicas;
+    private final Duration maxLag;
+
+    public ReplicaLagMonitor(List<ReplicaPool> replicas, Duration maxLag, MeterRegistry registry) {
+        this.replicas = List.copyOf(replicas);
+        this.maxLag = maxLag;
+        for (ReplicaPool replica : this.replicas) {
+            Gauge.builder("datasource.replica.lag", replica, ReplicaPool::lagSeconds)
+                    .description("Replication lag behind the primary at the last check; NaN when unreachable")
+                    .baseUnit("seconds")
+                    .tag("pool", replica.getName())
+                    .register(registry);
+        }
+    }
+
+    public List<ReplicaPool> getReplicas() {
+        return replicas;
+    }
+
+    @Scheduled(fixedDelayString = "${read-replicas.check-interval:1s}")
+    public void check() {
+        for (ReplicaPool replica : replicas) {
+            boolean wasAvailable = replica.isAvailable();
+            try {
+                replica.lagMeasured(measure(replica), maxLag);
+                if (wasAvailable && !replica.isAvailable()) {
+                    log.warn("Replica {} is {}s behind the primary; reading from the primary instead",
+                             replica.getName(), replica.lagSeconds());
+                } else if (!wasAvailable && replica.isAvailable()) {
+                    log.info("Replica {} is back in rotation, {}s behind the primary",
+                             replica.getName(), replica.lagSeconds());
+                }
+            } catch (SQLException e) {
+                replica.unreachable();
+                if (wasAvailable) {
+                    log.warn("Replica {} is unreachable; reading from the primary instead: {}",
+                             replica.getName(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    private Duration measure(ReplicaPool replica) throws SQLException {
+        try (Connection connection = replica.getDataSource().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout((int) Math.max(1, maxLag.toSeconds()));
+            try (ResultSet rs = statement.executeQuery(LAG_SQL)) {
+                rs.next();
+                return Duration.ofMillis(Math.round(rs.getDouble(1) * 1000));
+            }
+        }
+    }
+
+    /**
+     * Closes the replica pools.
+     */
+    @Override
+    public void close() throws Exception {
+        for (ReplicaPool replica : replicas) {
+            if (replica.getDataSource() instanceof AutoCloseable pool) {
+                pool.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.order.management.replica;
+
+import lombok.Getter;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * A replica's connection pool and what the last lag check found. A replica takes reads only
+ * while its last check succeeded within the allowed lag.
+ */
+public class ReplicaPool {
+
+    @Getter
+    private final String name;
+
+    @Getter
+    private final DataSource dataSource;
+
+    private volatile Duration lag;
+    private volatile boolean available;
+
+    public ReplicaPool(String name, DataSource dataSource) {
+        this.name = name;
+        this.dataSource = dataSource;
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    public void lagMeasured(Duration lag, Duration maxLag) {
+        this.lag = lag;
+        this.available = lag.compareTo(maxLag) <= 0;
+    }
+
+    public void unreachable() {
+        this.lag = null;
+        this.available = false;
+    }
+
+    /**
+     * Seconds behind the primary at the last check, or NaN if the check failed.
+     */
+    public double lagSeconds() {
+        Duration last = lag;
+        return last != null ? last.toMillis() / 1000.0 : Double.NaN;
+    }
+}
@@ -0,0 +1,40 @@
+package com.order.management.repository;
+
+import com.order.management.dto.CustomerOrderCountDTO;
+import com.order.management.model.CustomerOrderStats;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface CustomerOrderStatsRepository
+        extends JpaRepository<CustomerOrderStats, Long>, CustomerOrderStatsRepositoryCustom {
+
+    @Modifying
+    @Query(value = "INSERT INTO customer_order_stats (customer_id, order_count) VALUES (:customerId, 0)",
+           nativeQuery = true)
+    void insertEmpty(@Param("customerId") Long customerId);
+
+    @Modifying
+    @Query("UPDATE CustomerOrderStats s SET s.orderCount = s.orderCount + :delta WHERE s.customerId = :customerId")
+    int incrementOrderCount(@Param("customerId") Long customerId, @Param("delta") long delta);
+
+    @Query("""
+        SELECT new com.order.management.dto.CustomerOrderCountDTO(c.id, c.name, s.orderCount)
+          FROM CustomerOrderStats s JOIN Customer c ON c.id = s.customerId
+         WHERE s.orderCount > 0
+         ORDER BY s.customerId
+        """)
+    List<CustomerOrderCountDTO> findOrderCountPerCustomer();
+
+    @Query("""
+        SELECT new com.order.management.dto.CustomerOrderCountDTO(c.id, c.name, s.orderCount)
+          FROM CustomerOrderStats s JOIN Customer c ON c.id = s.customerId
+         WHERE s.orderCount > 0
+         ORDER BY s.orderCount DESC, s.customerId
+        """)
+    List<CustomerOrderCountDTO> findTopCustomers(Limit limit);
+}
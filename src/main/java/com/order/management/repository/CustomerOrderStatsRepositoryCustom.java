@@ -0,0 +1,15 @@
+package com.order.management.repository;
+
+import java.util.List;
+import java.util.SortedMap;
+
+public interface CustomerOrderStatsRepositoryCustom {
+
+    /**
+     * Adds each delta to the customer's order count with one batched statement. Rows are
+     * updated in ascending customer id order so concurrent batches cannot deadlock.
+     *
+     * @return the customers that have no stats row yet
+     */
+    List<Long> incrementOrderCounts(SortedMap<Long, Long> deltas);
+}
@@ -0,0 +1,35 @@
+package com.order.management.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+@RequiredArgsConstructor
+class CustomerOrderStatsRepositoryCustomImpl implements CustomerOrderStatsRepositoryCustom {
+
+    private static final String INCREMENT_SQL =
+            "UPDATE customer_order_stats SET order_count = order_count + ? WHERE customer_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Long> incrementOrderCounts(SortedMap<Long, Long> deltas) {
+        List<Long> customerIds = new ArrayList<>(deltas.keySet());
+        List<Object[]> batchArgs = new ArrayList<>(deltas.size());
+        for (Map.Entry<Long, Long> entry : deltas.entrySet()) {
+            batchArgs.add(new Object[]{entry.getValue(), entry.getKey()});
+        }
+        int[] updated = jdbcTemplate.batchUpdate(INCREMENT_SQL, batchArgs);
+        List<Long> missing = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                missing.add(customerIds.get(i));
+            }
+        }
+        return missing;
+    }
+}
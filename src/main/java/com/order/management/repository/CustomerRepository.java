@@ -1,11 +1,25 @@
 package com.order.management.repository;
 
+import com.order.management.dto.CustomerDTO;
 import com.order.management.model.Customer;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
     Optional<Customer> findByEmail(String email);
     Optional<Customer> findByPhone(String phone);
+
+    /**
+     * Streams all customers as DTOs straight from a server-side cursor; nothing is added to
+     * the persistence context. The caller must close the stream inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.order.management.dto.CustomerDTO(c.id, c.name, c.email, c.phone) FROM Customer c ORDER BY c.id")
+    Stream<CustomerDTO> streamAllAsDto();
 }
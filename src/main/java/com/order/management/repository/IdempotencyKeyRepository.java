@@ -0,0 +1,7 @@
+package com.order.management.repository;
+
+import com.order.management.model.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String>, IdempotencyKeyRepositoryCustom {
+}
@@ -0,0 +1,28 @@
+package com.order.management.repository;
+
+import java.time.Instant;
+
+public interface IdempotencyKeyRepositoryCustom {
+
+    /**
+     * Claims the key with an immediate INSERT. A concurrent claim of the same key blocks on
+     * the primary key until this transaction ends, then fails if it committed.
+     */
+    void insertPending(String key, String requestHash, Instant createdAt, Instant expiresAt);
+
+    void complete(String key, int responseStatus, String location, String responseBody);
+
+    /**
+     * Deletes the key if it expired before {@code now}.
+     *
+     * @return whether a row was deleted
+     */
+    boolean deleteIfExpired(String key, Instant now);
+
+    /**
+     * Deletes at most {@code limit} keys that expired before {@code now}.
+     *
+     * @return the number of keys deleted
+     */
+    int deleteExpired(Instant now, int limit);
+}
@@ -0,0 +1,52 @@
+package com.order.management.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+@RequiredArgsConstructor
+class IdempotencyKeyRepositoryCustomImpl implements IdempotencyKeyRepositoryCustom {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO idempotency_key (idem_key, request_hash, created_at, expires_at)
+            VALUES (?, ?, ?, ?)
+            """;
+
+    private static final String COMPLETE_SQL = """
+            UPDATE idempotency_key
+               SET response_status = ?, location = ?, response_body = ?
+             WHERE idem_key = ?
+            """;
+
+    private static final String DELETE_EXPIRED_SQL = """
+            DELETE FROM idempotency_key
+             WHERE idem_key IN (SELECT idem_key FROM idempotency_key
+                                 WHERE expires_at < ?
+                                 LIMIT ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertPending(String key, String requestHash, Instant createdAt, Instant expiresAt) {
+        jdbcTemplate.update(INSERT_SQL, key, requestHash, Timestamp.from(createdAt), Timestamp.from(expiresAt));
+    }
+
+    @Override
+    public void complete(String key, int responseStatus, String location, String responseBody) {
+        jdbcTemplate.update(COMPLETE_SQL, responseStatus, location, responseBody, key);
+    }
+
+    @Override
+    public boolean deleteIfExpired(String key, Instant now) {
+        return jdbcTemplate.update("DELETE FROM idempotency_key WHERE idem_key = ? AND expires_at < ?",
+                                   key, Timestamp.from(now)) > 0;
+    }
+
+    @Override
+    public int deleteExpired(Instant now, int limit) {
+        return jdbcTemplate.update(DELETE_EXPIRED_SQL, Timestamp.from(now), limit);
+    }
+}
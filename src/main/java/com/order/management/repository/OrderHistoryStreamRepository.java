@@ -0,0 +1,88 @@
+package com.order.management.repository;
+
+import com.order.management.dto.OrderItemResponseDTO;
+import com.order.management.dto.OrderResponseDTO;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Streams a customer's order history straight from a JDBC cursor. Rows are folded into one
+ * {@link OrderResponseDTO} at a time, so memory use does not grow with the size of the history.
+ *
+ * <p>Items are joined on (order_id, order_date) so that each order reads only its own
+ * {@code order_item} partition.
+ *
+ * <p>Must be called inside a transaction: PostgreSQL only honours the fetch size with
+ * auto-commit off.
+ */
+@Repository
+public class OrderHistoryStreamRepository {
+
+    static final int FETCH_SIZE = 500;
+
+    private static final String HISTORY_SQL = """
+            SELECT o.id, o.order_date, o.total_amount, oi.product_id, p.name, oi.quantity, oi.unit_price
+              FROM orders o
+              JOIN order_item oi ON oi.order_id = o.id AND oi.order_date = o.order_date
+              JOIN product p ON p.id = oi.product_id
+             WHERE o.customer_id = ?
+             ORDER BY o.order_date, o.id, oi.id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OrderHistoryStreamRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+    }
+
+    /**
+     * Emits every order of the customer to {@code sink}, oldest first.
+     *
+     * @return the number of orders emitted
+     */
+    public long streamByCustomerId(Long customerId, Consumer<OrderResponseDTO> sink) {
+        OrderFolder folder = new OrderFolder(customerId, sink);
+        jdbcTemplate.query(HISTORY_SQL, rs -> {
+            folder.accept(rs.getLong(1), rs.getTimestamp(2).toInstant(), rs.getBigDecimal(3),
+                          new OrderItemResponseDTO(rs.getLong(4), rs.getString(5), rs.getInt(6), rs.getBigDecimal(7)));
+        }, customerId);
+        folder.finish();
+        return folder.emitted;
+    }
+
+    private static final class OrderFolder {
+
+        private final Long customerId;
+        private final Consumer<OrderResponseDTO> sink;
+        private OrderResponseDTO current;
+        private long emitted;
+
+        OrderFolder(Long customerId, Consumer<OrderResponseDTO> sink) {
+            this.customerId = customerId;
+            this.sink = sink;
+        }
+
+        void accept(long orderId, Instant orderDate, BigDecimal totalAmount, OrderItemResponseDTO item) {
+            if (current == null || current.getId() != orderId) {
+                finish();
+                current = new OrderResponseDTO(orderId, customerId, orderDate, new ArrayList<>(), totalAmount);
+            }
+            current.getItems().add(item);
+        }
+
+        void finish() {
+            if (current != null) {
+                sink.accept(current);
+                emitted++;
+                current = null;
+            }
+        }
+    }
+}
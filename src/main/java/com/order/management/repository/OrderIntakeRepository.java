@@ -0,0 +1,22 @@
+package com.order.management.repository;
+
+import com.order.management.model.OrderIntake;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface OrderIntakeRepository extends JpaRepository<OrderIntake, UUID>, OrderIntakeRepositoryCustom {
+
+    @Query("SELECT i.trackingId FROM OrderIntake i WHERE i.trackingId IN :ids")
+    List<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query("DELETE FROM OrderIntake i WHERE i.completedAt < :cutoff")
+    int deleteCompletedBefore(@Param("cutoff") Instant cutoff);
+}
@@ -0,0 +1,14 @@
+package com.order.management.repository;
+
+import com.order.management.model.OrderIntake;
+
+import java.util.List;
+
+public interface OrderIntakeRepositoryCustom {
+
+    /**
+     * Inserts the outcomes with one batched statement. Unlike {@code saveAll}, this does not
+     * look each assigned id up first.
+     */
+    void insertAll(List<OrderIntake> outcomes);
+}
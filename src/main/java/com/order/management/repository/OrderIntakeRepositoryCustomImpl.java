@@ -0,0 +1,43 @@
+package com.order.management.repository;
+
+import com.order.management.model.OrderIntake;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+@RequiredArgsConstructor
+class OrderIntakeRepositoryCustomImpl implements OrderIntakeRepositoryCustom {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO order_intake
+                   (tracking_id, status, order_id, error_code, message, accepted_at, completed_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final int MESSAGE_LENGTH = 255;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertAll(List<OrderIntake> outcomes) {
+        List<Object[]> batchArgs = new ArrayList<>(outcomes.size());
+        for (OrderIntake outcome : outcomes) {
+            String message = outcome.getMessage();
+            if (message != null && message.length() > MESSAGE_LENGTH) {
+                message = message.substring(0, MESSAGE_LENGTH);
+            }
+            batchArgs.add(new Object[]{
+                    outcome.getTrackingId(),
+                    outcome.getStatus().name(),
+                    outcome.getOrderId(),
+                    outcome.getErrorCode(),
+                    message,
+                    Timestamp.from(outcome.getAcceptedAt()),
+                    Timestamp.from(outcome.getCompletedAt())});
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, batchArgs);
+    }
+}
@@ -0,0 +1,9 @@
+package com.order.management.repository;
+
+import java.time.Instant;
+
+/**
+ * An order's position in the history: its date, which is also its partition, and its id.
+ */
+public record OrderKey(Long id, Instant orderDate) {
+}
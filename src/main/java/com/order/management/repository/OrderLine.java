@@ -0,0 +1,11 @@
+package com.order.management.repository;
+
+import com.order.management.model.Order;
+import com.order.management.model.OrderItem;
+
+/**
+ * One row of an order history read: an order and one of its items, or a null item for an
+ * order without any. Rows of the same order are adjacent and share the {@link Order} instance.
+ */
+public record OrderLine(Order order, OrderItem item) {
+}
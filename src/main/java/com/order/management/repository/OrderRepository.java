@@ -1,29 +1,98 @@
 package com.order.management.repository;
 
+import com.order.management.dto.OrderSummaryDTO;
 import com.order.management.model.Order;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
 
-    List<Order> findByCustomerId(Long customerId);
+    /**
+     * A customer's orders with their items, one row per item. Items are joined on
+     * (order_id, order_date), so each order probes only the {@code order_item} partition of
+     * its own month. Product names are resolved through the product metadata cache rather
+     * than joined here.
+     */
+    @Query("""
+        SELECT new com.order.management.repository.OrderLine(o, i)
+          FROM Order o
+          LEFT JOIN OrderItem i ON i.order = o AND i.orderDate = o.orderDate
+         WHERE o.customer.id = :customerId
+         ORDER BY o.orderDate, o.id, i.id
+        """)
+    List<OrderLine> findLinesByCustomerId(@Param("customerId") Long customerId);
+
+    /**
+     * A customer's orders with their stored totals, without touching {@code order_item}.
+     */
+    @Query("""
+        SELECT new com.order.management.dto.OrderSummaryDTO(o.id, o.customer.id, o.orderDate, o.itemCount, o.totalAmount)
+          FROM Order o
+         WHERE o.customer.id = :customerId
+         ORDER BY o.orderDate, o.id
+        """)
+    List<OrderSummaryDTO> findSummariesByCustomerId(@Param("customerId") Long customerId);
+
+    /**
+     * First page of a customer's orders in (order_date, id) order. Partitions are read
+     * oldest first and the scan stops once the page is full.
+     */
+    @Query("""
+        SELECT new com.order.management.repository.OrderKey(o.id, o.orderDate)
+          FROM Order o
+         WHERE o.customer.id = :customerId
+         ORDER BY o.orderDate, o.id
+        """)
+    List<OrderKey> findPageKeys(@Param("customerId") Long customerId, Limit limit);
+
+    /**
+     * Next page of a customer's orders, strictly after the given (order_date, id) position.
+     * The redundant {@code orderDate >= :afterDate} lets the planner skip older partitions.
+     */
+    @Query("""
+        SELECT new com.order.management.repository.OrderKey(o.id, o.orderDate)
+          FROM Order o
+         WHERE o.customer.id = :customerId
+           AND o.orderDate >= :afterDate
+           AND (o.orderDate > :afterDate OR o.id > :afterId)
+         ORDER BY o.orderDate, o.id
+        """)
+    List<OrderKey> findPageKeysAfter(@Param("customerId") Long customerId,
+                                     @Param("afterDate") Instant afterDate,
+                                     @Param("afterId") Long afterId,
+                                     Limit limit);
 
+    /**
+     * The given orders with their items, one row per item. {@code from} and {@code to} are
+     * the earliest and latest order dates among the ids and confine both tables to the
+     * partitions in between.
+     */
     @Query("""
-        SELECT o.customer.id AS custId, o.customer.name AS custName, COUNT(o) AS cnt
-         FROM Order o
-         GROUP BY o.customer.id, o.customer.name
-         ORDER BY o.customer.id
+        SELECT new com.order.management.repository.OrderLine(o, i)
+          FROM Order o
+          LEFT JOIN OrderItem i ON i.order = o AND i.orderDate = o.orderDate
+         WHERE o.id IN :ids
+           AND o.orderDate BETWEEN :from AND :to
+         ORDER BY o.orderDate, o.id, i.id
         """)
-    List<Object[]> findOrderCountPerCustomer();
+    List<OrderLine> findLinesByIdIn(@Param("ids") Collection<Long> ids,
+                                    @Param("from") Instant from,
+                                    @Param("to") Instant to);
 
+    /**
+     * Raw aggregation over orders. Reports read {@code customer_order_stats} instead; this is
+     * the reference the consistency check compares against.
+     */
     @Query("""
-        SELECT o.customer.id AS custId, o.customer.name AS custName, COUNT(o) AS cnt
+        SELECT o.customer.id AS custId, COUNT(o) AS cnt
           FROM Order o
-         GROUP BY o.customer.id, o.customer.name
-         ORDER BY cnt DESC
+         GROUP BY o.customer.id
         """)
-    List<Object[]> findTopCustomers(Pageable pageable);
+    List<Object[]> countOrdersPerCustomer();
 }
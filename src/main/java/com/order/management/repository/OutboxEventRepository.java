@@ -0,0 +1,21 @@
+package com.order.management.repository;
+
+import com.order.management.model.OutboxEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long>, OutboxEventRepositoryCustom {
+
+    @Query("SELECT e FROM OutboxEvent e WHERE e.id > :after ORDER BY e.id")
+    List<OutboxEvent> findAfter(@Param("after") long after, Limit limit);
+
+    @Query("SELECT e FROM OutboxEvent e WHERE e.id > :after AND e.id <= :upTo ORDER BY e.id")
+    List<OutboxEvent> findBetween(@Param("after") long after, @Param("upTo") long upTo, Limit limit);
+
+    @Query("SELECT COALESCE(MAX(e.id), 0) FROM OutboxEvent e")
+    long findMaxId();
+}
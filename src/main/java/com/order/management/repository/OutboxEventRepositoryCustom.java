@@ -0,0 +1,23 @@
+package com.order.management.repository;
+
+import com.order.management.model.OutboxEvent;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface OutboxEventRepositoryCustom {
+
+    /**
+     * Inserts the events with one batched statement, drawing each id from
+     * {@code outbox_event_seq} as its row is written.
+     */
+    void appendAll(List<OutboxEvent> events);
+
+    /**
+     * Deletes events up to {@code upToId} created before {@code cutoff}, at most
+     * {@code limit} rows per statement.
+     *
+     * @return the number of events deleted
+     */
+    int deletePublished(long upToId, Instant cutoff, int limit);
+}
@@ -0,0 +1,48 @@
+package com.order.management.repository;
+
+import com.order.management.model.OutboxEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+@RequiredArgsConstructor
+class OutboxEventRepositoryCustomImpl implements OutboxEventRepositoryCustom {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO outbox_event (id, aggregate_type, aggregate_id, event_type, payload, created_at)
+            VALUES (nextval('outbox_event_seq'), ?, ?, ?, ?, ?)
+            """;
+
+    private static final String DELETE_SQL = """
+            DELETE FROM outbox_event
+             WHERE id IN (SELECT id FROM outbox_event
+                           WHERE id <= ? AND created_at < ?
+                           ORDER BY id
+                           LIMIT ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void appendAll(List<OutboxEvent> events) {
+        List<Object[]> batchArgs = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            batchArgs.add(new Object[]{
+                    event.getAggregateType().name(),
+                    event.getAggregateId(),
+                    event.getEventType(),
+                    event.getPayload(),
+                    Timestamp.from(event.getCreatedAt())});
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, batchArgs);
+    }
+
+    @Override
+    public int deletePublished(long upToId, Instant cutoff, int limit) {
+        return jdbcTemplate.update(DELETE_SQL, upToId, Timestamp.from(cutoff), limit);
+    }
+}
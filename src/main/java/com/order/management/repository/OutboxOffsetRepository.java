@@ -0,0 +1,7 @@
+package com.order.management.repository;
+
+import com.order.management.model.OutboxOffset;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface OutboxOffsetRepository extends JpaRepository<OutboxOffset, String> {
+}
@@ -1,9 +1,47 @@
 package com.order.management.repository;
 
+import com.order.management.dto.ProductDTO;
 import com.order.management.model.Product;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
 
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
+    /**
+     * Loads and row-locks the given products in ascending id order, so that
+     * concurrent orders always acquire their locks in the same sequence.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id IN :ids ORDER BY p.id")
+    List<Product> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Adds {@code delta} to a product's stock unless that would take it below zero. Relative,
+     * so it never loses to a concurrent reservation; it bumps the version like any other write.
+     *
+     * @return 1 if applied, 0 if the product is missing or short
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Product p SET p.stock = p.stock + :delta, p.version = p.version + 1 WHERE p.id = :id AND p.stock + :delta >= 0")
+    int adjustStock(@Param("id") Long id, @Param("delta") int delta);
+
+    /**
+     * Streams the catalogue as DTOs straight from a server-side cursor; nothing is added to
+     * the persistence context. The caller must close the stream inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.order.management.dto.ProductDTO(p.id, p.name, p.price, p.stock, p.version) FROM Product p ORDER BY p.id")
+    Stream<ProductDTO> streamAllAsDto();
 }
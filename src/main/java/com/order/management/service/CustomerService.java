@@ -3,10 +3,13 @@ package com.order.management.service;
 import com.order.management.dto.CustomerDTO;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface CustomerService {
     CustomerDTO addCustomer(CustomerDTO dto);
     CustomerDTO updateCustomer(Long id, CustomerDTO dto);
     List<CustomerDTO> getAllCustomers();
+    List<CustomerDTO> getCustomers(int page, int size);
+    long streamAllCustomers(Consumer<CustomerDTO> sink);
     CustomerDTO getCustomerById(Long id);
 }
@@ -1,17 +1,36 @@
 package com.order.management.service;
 
+import com.order.management.dto.BatchOrderResponseDTO;
 import com.order.management.dto.CustomerOrderCountDTO;
+import com.order.management.dto.OrderPageDTO;
 import com.order.management.dto.OrderRequestDTO;
 import com.order.management.dto.OrderResponseDTO;
+import com.order.management.dto.OrderSummaryDTO;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface OrderService {
 
     OrderResponseDTO placeOrder(OrderRequestDTO dto);
 
+    /**
+     * Places a batch of orders in one transaction. Orders whose customer or products do not
+     * exist, or whose stock is short, are rejected individually; the rest are placed.
+     */
+    BatchOrderResponseDTO placeOrders(List<OrderRequestDTO> dtos);
+
     List<OrderResponseDTO> getOrdersByCustomerId(Long customerId);
 
+    OrderPageDTO getOrdersByCustomerId(Long customerId, String cursor, int limit);
+
+    /**
+     * The customer's orders without items, oldest first.
+     */
+    List<OrderSummaryDTO> getOrderSummariesByCustomerId(Long customerId);
+
+    long streamOrdersByCustomerId(Long customerId, Consumer<OrderResponseDTO> sink);
+
     List<CustomerOrderCountDTO> getOrderCountPerCustomer();
 
     List<CustomerOrderCountDTO> getTopCustomers(int topN);
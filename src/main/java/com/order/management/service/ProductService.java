@@ -3,11 +3,15 @@ package com.order.management.service;
 import com.order.management.dto.ProductDTO;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ProductService {
     ProductDTO addProduct(ProductDTO dto);
     ProductDTO updateProduct(Long id, ProductDTO dto);
+    ProductDTO adjustStock(Long id, int delta);
     List<ProductDTO> getAllProducts();
+    List<ProductDTO> getProducts(int page, int size);
+    long streamAllProducts(Consumer<ProductDTO> sink);
     ProductDTO getProductById(Long id);
     void deleteProduct(Long id);
 }
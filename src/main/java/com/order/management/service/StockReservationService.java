@@ -0,0 +1,108 @@
+package com.order.management.service;
+
+import com.order.management.exception.InsufficientStockException;
+import com.order.management.exception.ResourceNotFoundException;
+import com.order.management.model.Product;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reserves stock for the items of an order.
+ */
+public interface StockReservationService {
+
+    /**
+     * Reserves the requested quantities, all or nothing, inside the caller's transaction.
+     *
+     * @param demand requested quantity per productId, duplicates already merged
+     * @return the reserved products keyed by id
+     */
+    Map<Long, Product> reserve(Map<Long, Integer> demand);
+
+    /**
+     * Reserves stock for several orders inside the caller's transaction, serving them in list
+     * order. Each order is all or nothing on its own; one that cannot be satisfied is reported
+     * in the result and leaves the others untouched.
+     *
+     * @param demands requested quantity per productId for each order, duplicates already merged
+     */
+    default BatchReservation reserveEach(List<Map<Long, Integer>> demands) {
+        Map<Long, Product> products = new HashMap<>();
+        List<RuntimeException> failures = new ArrayList<>(demands.size());
+        for (Map<Long, Integer> demand : demands) {
+            try {
+                products.putAll(reserve(demand));
+                failures.add(null);
+            } catch (InsufficientStockException | ResourceNotFoundException ex) {
+                failures.add(ex);
+            }
+        }
+        return new BatchReservation(products, failures);
+    }
+
+    /**
+     * Whether {@link #reserve} has already written the product table by the time the
+     * order commits. Write-behind implementations leave the order flagged as pending.
+     */
+    default boolean isWriteThrough() {
+        return true;
+    }
+
+    /**
+     * The stock figure to show for a product, which may be ahead of the stored column.
+     */
+    default int availableStock(Long productId, int storedStock) {
+        return storedStock;
+    }
+
+    /**
+     * Called inside the transaction that overwrites a product's stock with an absolute value.
+     */
+    default void stockOverwritten(Long productId, int stock) {
+    }
+
+    /**
+     * Called inside the transaction that adds {@code delta} to a product's stock, before the
+     * row is updated. May reject a decrease with {@link InsufficientStockException}.
+     *
+     * @param storedStock the stock column as read in this transaction
+     */
+    default void stockAdjusted(Long productId, int storedStock, int delta) {
+    }
+
+    /**
+     * Called inside the transaction that deletes a product.
+     */
+    default void productRemoved(Long productId) {
+    }
+
+    /**
+     * Counter of orders rejected for insufficient stock, tagged with the inventory mode.
+     */
+    static Counter rejections(MeterRegistry registry, String mode) {
+        return Counter.builder("inventory.stock.rejections")
+                .description("Reservations rejected for insufficient stock")
+                .tag("mode", mode)
+                .register(registry);
+    }
+
+    /**
+     * Outcome of {@link #reserveEach}.
+     *
+     * @param products the products of every order that was reserved, keyed by id
+     * @param failures per order, in request order: null if reserved, otherwise the
+     *                 {@link InsufficientStockException} or {@link ResourceNotFoundException}
+     *                 that rejected it
+     */
+    record BatchReservation(Map<Long, Product> products, List<RuntimeException> failures) {
+
+        public boolean isReserved(int index) {
+            return failures.get(index) == null;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.order.management.service.impl;
+
+import com.order.management.cache.ResponseCache;
+import com.order.management.config.ReportStatsProperties;
+import com.order.management.model.CustomerOrderStats;
+import com.order.management.repository.CustomerOrderStatsRepository;
+import com.order.management.repository.OrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compares {@code customer_order_stats} with a raw aggregation over {@code orders}.
+ *
+ * <p>Both sides are read from one repeatable-read snapshot, so orders placed while the check
+ * runs do not show up as drift. Repairs are applied as deltas rather than absolute values,
+ * which keeps them correct even if more orders commit between the check and the repair.
+ */
+@Slf4j
+@Component
+public class CustomerOrderStatsVerifier {
+
+    private final OrderRepository orderRepository;
+    private final CustomerOrderStatsRepository customerOrderStatsRepository;
+    private final ReportStatsProperties properties;
+    private final ResponseCache responseCache;
+    private final TransactionTemplate snapshotTemplate;
+    private final TransactionTemplate writeTemplate;
+
+    public CustomerOrderStatsVerifier(OrderRepository orderRepository,
+                                      CustomerOrderStatsRepository customerOrderStatsRepository,
+                                      ReportStatsProperties properties,
+                                      ResponseCache responseCache,
+                                      PlatformTransactionManager transactionManager) {
+        this.orderRepository = orderRepository;
+        this.customerOrderStatsRepository = customerOrderStatsRepository;
+        this.properties = properties;
+        this.responseCache = responseCache;
+        this.snapshotTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.snapshotTemplate.setReadOnly(true);
+        this.writeTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(cron = "${reports.stats.verify-cron:0 0 3 * * *}")
+    public void scheduledVerify() {
+        verify();
+    }
+
+    /**
+     * @return the drift per customer id (raw count minus maintained count); empty when consistent
+     */
+    public Map<Long, Long> verify() {
+        Map<Long, Long> drift = snapshotTemplate.execute(status -> {
+            Map<Long, Long> expected = new HashMap<>();
+            for (Object[] row : orderRepository.countOrdersPerCustomer()) {
+                expected.put(((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+            }
+            Map<Long, Long> diff = new HashMap<>();
+            for (CustomerOrderStats stats : customerOrderStatsRepository.findAll()) {
+                // orders in archived partitions are counted, but no longer in orders
+                long raw = expected.getOrDefault(stats.getCustomerId(), 0L) + stats.getArchivedCount();
+                expected.remove(stats.getCustomerId());
+                if (raw != stats.getOrderCount()) {
+                    diff.put(stats.getCustomerId(), raw - stats.getOrderCount());
+                }
+            }
+            // customers with orders but no stats row at all
+            diff.putAll(expected);
+            return diff;
+        });
+
+        if (drift == null || drift.isEmpty()) {
+            log.info("Customer order stats are consistent with orders");
+            return Map.of();
+        }
+        log.warn("Customer order stats drift detected for {} customers: {}", drift.size(), drift);
+        if (properties.isRepair()) {
+            writeTemplate.executeWithoutResult(status -> {
+                drift.forEach((customerId, delta) -> {
+                    if (customerOrderStatsRepository.incrementOrderCount(customerId, delta) == 0) {
+                        customerOrderStatsRepository.save(new CustomerOrderStats(customerId, delta));
+                    }
+                });
+                responseCache.changed(ResponseCache.Dataset.REPORTS);
+            });
+            log.info("Repaired customer order stats for {} customers", drift.size());
+        }
+        return drift;
+    }
+}
@@ -1,36 +1,51 @@
 package com.order.management.service.impl;
 
+import com.order.management.cache.ResponseCache;
 import com.order.management.dto.CustomerDTO;
+import com.order.management.exception.BadRequestException;
 import com.order.management.exception.ResourceNotFoundException;
+import com.order.management.logging.PayloadSummary;
 import com.order.management.model.Customer;
+import com.order.management.outbox.ChangeEventRecorder;
+import com.order.management.repository.CustomerOrderStatsRepository;
 import com.order.management.repository.CustomerRepository;
 import com.order.management.service.CustomerService;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.BeanUtils;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Implements business logic for Customer operations.
  */
 @Service
+@Timed("service.calls")
 @RequiredArgsConstructor
 public class CustomerServiceImpl implements CustomerService {
 
     private static final Logger log = LoggerFactory.getLogger(CustomerServiceImpl.class);
+    static final int MAX_PAGE_SIZE = 500;
+
     private final CustomerRepository customerRepository;
+    private final CustomerOrderStatsRepository customerOrderStatsRepository;
+    private final ChangeEventRecorder changeEventRecorder;
+    private final ResponseCache responseCache;
 
     @Override
     @Transactional
     public CustomerDTO addCustomer(CustomerDTO dto) {
-        log.info("Attempting to add new customer: name={}, email={}, phone={}",
-                 dto.getName(), dto.getEmail(), dto.getPhone());
+        log.debug("Adding customer: {}", PayloadSummary.of(dto));
         try {
             Customer customer = Customer.builder()
                     .name(dto.getName())
@@ -38,10 +53,15 @@ public class CustomerServiceImpl implements CustomerService {
                     .phone(dto.getPhone())
                     .build();
             Customer saved = customerRepository.save(customer);
-            log.info("Successfully added customer with id={}", saved.getId());
+            customerOrderStatsRepository.insertEmpty(saved.getId());
+            changeEventRecorder.customerChanged(ChangeEventRecorder.CUSTOMER_CREATED, saved);
+            // reports list every customer by name
+            responseCache.changed(ResponseCache.Dataset.REPORTS);
+            log.debug("Successfully added customer with id={}", saved.getId());
             return toDTO(saved);
         } catch (DataIntegrityViolationException ex) {
-            log.error("Failed to add customer due to integrity violation: {}", ex.getRootCause() != null ? ex.getRootCause().getMessage() : ex.getMessage());
+            // the constraint message quotes the conflicting email or phone, so it is not logged
+            log.error("Failed to add customer due to integrity violation");
             throw ex;
         } catch (Exception ex) {
             log.error("Unexpected error while adding customer: {}", ex.getMessage(), ex);
@@ -52,7 +72,7 @@ public class CustomerServiceImpl implements CustomerService {
     @Override
     @Transactional
     public CustomerDTO updateCustomer(Long id, CustomerDTO dto) {
-        log.info("Updating customer with id={}", id);
+        log.debug("Updating customer with id={}", id);
         Customer existing = customerRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Customer not found with id " + id));
 
@@ -61,10 +81,12 @@ public class CustomerServiceImpl implements CustomerService {
         existing.setPhone(dto.getPhone());
         try {
             Customer updated = customerRepository.save(existing);
-            log.info("Successfully updated customer with id={}", updated.getId());
+            changeEventRecorder.customerChanged(ChangeEventRecorder.CUSTOMER_UPDATED, updated);
+            responseCache.changed(ResponseCache.Dataset.REPORTS);
+            log.debug("Successfully updated customer with id={}", updated.getId());
             return toDTO(updated);
         } catch (DataIntegrityViolationException ex) {
-            log.error("Failed to update customer id={} due to integrity violation: {}", id,  ex.getRootCause() != null ? ex.getRootCause().getMessage() : ex.getMessage());
+            log.error("Failed to update customer id={} due to integrity violation", id);
             throw ex;
         } catch (Exception ex) {
             log.error("Unexpected error while updating customer id={}: {}", id, ex.getMessage(), ex);
@@ -76,26 +98,60 @@ public class CustomerServiceImpl implements CustomerService {
     @Transactional(readOnly = true)
     public List<CustomerDTO> getAllCustomers() {
         log.debug("Fetching all customers from database");
-        List<CustomerDTO> list = customerRepository.findAll().stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        List<CustomerDTO> list = toDTOs(customerRepository.findAll());
         log.debug("Found {} customers", list.size());
         return list;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<CustomerDTO> getCustomers(int page, int size) {
+        log.debug("Fetching customers page={} size={}", page, size);
+        if (page < 0) {
+            throw new BadRequestException("page must not be negative");
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        List<Customer> customers = customerRepository.findAll(PageRequest.of(page, size, Sort.by("id"))).getContent();
+        List<CustomerDTO> list = toDTOs(customers);
+        log.debug("Found {} customers on page {}", list.size(), page);
+        return list;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long streamAllCustomers(Consumer<CustomerDTO> sink) {
+        log.debug("Streaming all customers from database");
+        long count = 0;
+        try (Stream<CustomerDTO> customers = customerRepository.streamAllAsDto()) {
+            for (Iterator<CustomerDTO> it = customers.iterator(); it.hasNext(); count++) {
+                sink.accept(it.next());
+            }
+        }
+        log.debug("Streamed {} customers", count);
+        return count;
+    }
+
     @Override
     @Transactional(readOnly = true)
     public CustomerDTO getCustomerById(Long id) {
         log.debug("Fetching customer by id={}", id);
         Customer customer = customerRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Customer not found with id " + id));
-        log.debug("Found customer: {}", customer);
+        log.debug("Found customer id={}", customer.getId());
         return toDTO(customer);
     }
 
-    private CustomerDTO toDTO(Customer customer) {
-        CustomerDTO dto = new CustomerDTO();
-        BeanUtils.copyProperties(customer, dto);
-        return dto;
+    CustomerDTO toDTO(Customer customer) {
+        return CustomerDTO.of(customer);
+    }
+
+    List<CustomerDTO> toDTOs(List<Customer> customers) {
+        List<CustomerDTO> dtos = new ArrayList<>(customers.size());
+        for (Customer customer : customers) {
+            dtos.add(CustomerDTO.of(customer));
+        }
+        return dtos;
     }
 }
@@ -0,0 +1,151 @@
+package com.order.management.service.impl;
+
+import com.order.management.exception.InsufficientStockException;
+import com.order.management.exception.ResourceNotFoundException;
+import com.order.management.inventory.InventoryLedger;
+import com.order.management.inventory.StripedStockCounter;
+import com.order.management.model.Product;
+import com.order.management.repository.ProductRepository;
+import com.order.management.service.StockReservationService;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+
+/**
+ * Reserves stock with CAS operations on the {@link InventoryLedger}. Products are read
+ * without row locks; the product table is updated later by the ledger's flusher.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "inventory", name = "mode", havingValue = "ledger")
+@RequiredArgsConstructor
+public class LedgerStockReservationService implements StockReservationService {
+
+    private final ProductRepository productRepository;
+    private final InventoryLedger ledger;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Override
+    public Map<Long, Product> reserve(Map<Long, Integer> demand) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Ledger reservations must run inside a transaction");
+        }
+        Map<Long, Product> products = new HashMap<>(demand.size() * 2);
+        for (Product product : productRepository.findAllById(demand.keySet())) {
+            products.put(product.getId(), product);
+        }
+
+        List<Taken> taken = new ArrayList<>(demand.size());
+        for (Map.Entry<Long, Integer> entry : demand.entrySet()) {
+            Product product = products.get(entry.getKey());
+            if (product == null) {
+                release(taken);
+                throw new ResourceNotFoundException("Product not found with id " + entry.getKey());
+            }
+            StripedStockCounter counter = ledger.counter(product.getId(), product.getStock());
+            int requestedQty = entry.getValue();
+            if (!counter.tryTake(requestedQty)) {
+                release(taken);
+                throw rejected(product.getId(), requestedQty, counter.sum());
+            }
+            taken.add(new Taken(counter, requestedQty));
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    release(taken);
+                }
+            }
+        });
+        return products;
+    }
+
+    @Override
+    public boolean isWriteThrough() {
+        return false;
+    }
+
+    @Override
+    public int availableStock(Long productId, int storedStock) {
+        return (int) ledger.available(productId).orElse(storedStock);
+    }
+
+    /**
+     * Turns the overwrite into a relative change of the counter. With the row locked, orders
+     * committing before the write are still pending and will be flushed onto the new value
+     * later; they were already taken from the counter, so the two stay in step.
+     */
+    @Override
+    public void stockOverwritten(Long productId, int stock) {
+        OptionalLong stored = ledger.lockStock(productId);
+        if (stored.isPresent()) {
+            int storedStock = (int) stored.getAsLong();
+            stockAdjusted(productId, storedStock, stock - storedStock);
+        }
+    }
+
+    @Override
+    public void stockAdjusted(Long productId, int storedStock, int delta) {
+        StripedStockCounter counter = ledger.counter(productId, storedStock);
+        if (delta >= 0) {
+            afterCommit(() -> counter.release(delta));
+            return;
+        }
+        // a decrease is taken from the counters first, exactly like a reservation
+        if (!counter.tryTake(-delta)) {
+            throw rejected(productId, -delta, counter.sum());
+        }
+        List<Taken> taken = List.of(new Taken(counter, -delta));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    release(taken);
+                }
+            }
+        });
+    }
+
+    @Override
+    public void productRemoved(Long productId) {
+        afterCommit(() -> ledger.remove(productId));
+    }
+
+    private InsufficientStockException rejected(Long productId, int requested, long available) {
+        InsufficientStockException ex = InsufficientStockException.forProduct(productId, requested, available);
+        log.warn(ex.getMessage());
+        meterRegistry.ifAvailable(registry -> StockReservationService.rejections(registry, "ledger").increment());
+        return ex;
+    }
+
+    private static void release(List<Taken> taken) {
+        for (Taken t : taken) {
+            t.counter().release(t.quantity());
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private record Taken(StripedStockCounter counter, int quantity) {
+    }
+}
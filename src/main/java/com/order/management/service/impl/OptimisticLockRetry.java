@@ -0,0 +1,88 @@
+package com.order.management.service.impl;
+
+import com.order.management.config.InventoryProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs a unit of work again when it loses an optimistic version check, with jittered
+ * exponential backoff between attempts. Each attempt must be its own transaction: when the
+ * caller is already inside one, a conflict is counted and passed on without retrying.
+ */
+@Slf4j
+@Component
+public class OptimisticLockRetry {
+
+    private final InventoryProperties.Optimistic settings;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public OptimisticLockRetry(InventoryProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.settings = properties.getOptimistic();
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> T run(String operation, Supplier<T> attempt) {
+        for (int n = 1; ; n++) {
+            try {
+                return attempt.get();
+            } catch (OptimisticLockingFailureException ex) {
+                conflict(operation);
+                if (n >= settings.getMaxAttempts() || TransactionSynchronizationManager.isActualTransactionActive()) {
+                    log.warn("{} gave up after {} conflicting attempts: {}", operation, n, ex.getMessage());
+                    increment("inventory.optimistic.exhausted", "Operations that failed on their last conflict", operation);
+                    throw ex;
+                }
+                log.debug("{} conflicted on attempt {}, retrying: {}", operation, n, ex.getMessage());
+                increment("inventory.optimistic.retries", "Attempts repeated after a version conflict", operation);
+                if (!backOff(n)) {
+                    throw ex;
+                }
+            }
+        }
+    }
+
+    /**
+     * Counts a lost version check, retried or not.
+     */
+    public void conflict(String operation) {
+        increment("inventory.optimistic.conflicts", "Writes that lost an optimistic version check", operation);
+    }
+
+    /**
+     * Sleeps for a random time between half and all of the backoff due before retry {@code n}.
+     *
+     * @return false if interrupted
+     */
+    private boolean backOff(int n) {
+        long initial = settings.getInitialBackoff().toNanos();
+        long max = settings.getMaxBackoff().toNanos();
+        long backoff = Math.min(max, initial << Math.min(n - 1, 20));
+        if (backoff <= 0) {
+            return true;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(ThreadLocalRandom.current().nextLong(backoff / 2, backoff + 1));
+            return true;
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void increment(String name, String description, String operation) {
+        meterRegistry.ifAvailable(registry -> Counter.builder(name)
+                .description(description)
+                .tag("operation", operation)
+                .register(registry)
+                .increment());
+    }
+}
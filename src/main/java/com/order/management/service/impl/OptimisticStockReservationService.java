@@ -0,0 +1,150 @@
+package com.order.management.service.impl;
+
+import com.order.management.exception.InsufficientStockException;
+import com.order.management.exception.ResourceNotFoundException;
+import com.order.management.model.Product;
+import com.order.management.repository.ProductRepository;
+import com.order.management.service.StockReservationService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Reserves stock without row locks. Products are read plainly and checked in memory, then
+ * decremented with one batched update that only matches rows still at the version that was
+ * read. A row that moved on in between fails the reservation with an
+ * {@link ObjectOptimisticLockingFailureException}, for the caller to retry in a new transaction.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "inventory", name = "mode", havingValue = "optimistic")
+@RequiredArgsConstructor
+public class OptimisticStockReservationService implements StockReservationService {
+
+    static final String DECREMENT_SQL =
+            "UPDATE product SET stock = stock - ?, version = version + 1 WHERE id = ? AND version = ?";
+
+    private final ProductRepository productRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Override
+    public Map<Long, Product> reserve(Map<Long, Integer> demand) {
+        Map<Long, Product> products = load(demand.keySet());
+        for (Map.Entry<Long, Integer> entry : demand.entrySet()) {
+            Product product = products.get(entry.getKey());
+            if (product == null) {
+                throw new ResourceNotFoundException("Product not found with id " + entry.getKey());
+            }
+            int requestedQty = entry.getValue();
+            if (product.getStock() < requestedQty) {
+                throw insufficientStock(product.getId(), requestedQty, product.getStock());
+            }
+        }
+        decrement(products, demand);
+        return products;
+    }
+
+    @Override
+    public BatchReservation reserveEach(List<Map<Long, Integer>> demands) {
+        Set<Long> ids = new TreeSet<>();
+        demands.forEach(demand -> ids.addAll(demand.keySet()));
+        if (ids.isEmpty()) {
+            return new BatchReservation(Map.of(), List.of());
+        }
+        Map<Long, Product> products = load(ids);
+        Map<Long, Integer> remaining = new HashMap<>(products.size() * 2);
+        products.values().forEach(product -> remaining.put(product.getId(), product.getStock()));
+
+        Map<Long, Integer> accepted = new TreeMap<>();
+        List<RuntimeException> failures = new ArrayList<>(demands.size());
+        for (Map<Long, Integer> demand : demands) {
+            RuntimeException failure = check(demand, remaining);
+            failures.add(failure);
+            if (failure == null) {
+                demand.forEach((productId, qty) -> {
+                    remaining.merge(productId, -qty, Integer::sum);
+                    accepted.merge(productId, qty, Integer::sum);
+                });
+            }
+        }
+
+        if (!accepted.isEmpty()) {
+            decrement(products, accepted);
+        }
+        products.keySet().retainAll(accepted.keySet());
+        return new BatchReservation(products, failures);
+    }
+
+    private Map<Long, Product> load(Set<Long> ids) {
+        Map<Long, Product> products = new LinkedHashMap<>(ids.size() * 2);
+        for (Product product : productRepository.findAllById(ids)) {
+            products.put(product.getId(), product);
+        }
+        return products;
+    }
+
+    private RuntimeException check(Map<Long, Integer> demand, Map<Long, Integer> remaining) {
+        for (Map.Entry<Long, Integer> entry : demand.entrySet()) {
+            Integer available = remaining.get(entry.getKey());
+            if (available == null) {
+                return new ResourceNotFoundException("Product not found with id " + entry.getKey());
+            }
+            if (available < entry.getValue()) {
+                return insufficientStock(entry.getKey(), entry.getValue(), available);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Applies already validated quantities to the rows, in ascending id order, provided none
+     * of them changed since it was read.
+     */
+    private void decrement(Map<Long, Product> products, Map<Long, Integer> demand) {
+        List<Object[]> batchArgs = new ArrayList<>(demand.size());
+        for (Map.Entry<Long, Integer> entry : demand.entrySet()) {
+            batchArgs.add(new Object[]{entry.getValue(), entry.getKey(), products.get(entry.getKey()).getVersion()});
+        }
+
+        int[] updated = jdbcTemplate.batchUpdate(DECREMENT_SQL, batchArgs);
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                // rows already decremented by this batch are undone by the rollback
+                throw new ObjectOptimisticLockingFailureException(Product.class, batchArgs.get(i)[1]);
+            }
+        }
+
+        Session session = entityManager.unwrap(Session.class);
+        for (Map.Entry<Long, Integer> entry : demand.entrySet()) {
+            Product product = products.get(entry.getKey());
+            session.setReadOnly(product, true);
+            product.setStock(product.getStock() - entry.getValue());
+            product.setVersion(product.getVersion() + 1);
+        }
+    }
+
+    private InsufficientStockException insufficientStock(Long productId, int requested, int available) {
+        InsufficientStockException ex = InsufficientStockException.forProduct(productId, requested, available);
+        log.warn(ex.getMessage());
+        meterRegistry.ifAvailable(registry -> StockReservationService.rejections(registry, "optimistic").increment());
+        return ex;
+    }
+}
@@ -1,138 +1,421 @@
 package com.order.management.service.impl;
 
+import com.order.management.cache.ProductMetadata;
+import com.order.management.cache.ProductMetadataCache;
+import com.order.management.cache.ResponseCache;
 import com.order.management.dto.*;
+import com.order.management.exception.BadRequestException;
 import com.order.management.exception.InsufficientStockException;
 import com.order.management.exception.ResourceNotFoundException;
 import com.order.management.model.*;
+import com.order.management.outbox.ChangeEventRecorder;
 import com.order.management.repository.*;
 import com.order.management.service.OrderService;
-import jakarta.transaction.Transactional;
+import com.order.management.service.StockReservationService;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
-import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Consumer;
 
 @Slf4j
 @Service
+@Timed("service.calls")
 @RequiredArgsConstructor
 public class OrderServiceImpl implements OrderService {
 
+    static final int MAX_PAGE_SIZE = 500;
+
     private final OrderRepository orderRepository;
+    private final OrderHistoryStreamRepository orderHistoryStreamRepository;
     private final CustomerRepository customerRepository;
-    private final ProductRepository productRepository;
+    private final CustomerOrderStatsRepository customerOrderStatsRepository;
+    private final StockReservationService stockReservationService;
+    private final ProductMetadataCache productMetadataCache;
+    private final ChangeEventRecorder changeEventRecorder;
+    private final ResponseCache responseCache;
+    private final OptimisticLockRetry optimisticLockRetry;
+    private final TransactionTemplate transactionTemplate;
 
+    /**
+     * Checks the customer and products first, so that the write transaction covers only the
+     * reservation and the inserts. That transaction is run again from scratch if a product
+     * changed under an optimistic reservation; the response is built after it has committed.
+     */
     @Override
-    @Transactional
     public OrderResponseDTO placeOrder(OrderRequestDTO dto) {
-        log.info("Placing order for customerId={} with {} items",
-                 dto.getCustomerId(), dto.getItems().size());
+        log.debug("Placing order for customerId={} with {} items",
+                  dto.getCustomerId(), dto.getItems().size());
+
+        Long customerId = dto.getCustomerId();
+        Map<Long, Integer> demand = demandOf(dto);
+        // not read-only: a replica may not have a customer or product created a moment ago
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!customerRepository.existsById(customerId)) {
+                throw new ResourceNotFoundException("Customer not found with id " + customerId);
+            }
+            RuntimeException unknown = unknownProduct(demand, productMetadataCache.getAll(demand.keySet()));
+            if (unknown != null) {
+                throw unknown;
+            }
+        });
 
-        Customer customer = customerRepository.findById(dto.getCustomerId())
-                .orElseThrow(() -> new ResourceNotFoundException(
-                        "Customer not found with id " + dto.getCustomerId()));
+        Order savedOrder = optimisticLockRetry.run("placeOrder",
+                () -> transactionTemplate.execute(status -> insertOrder(dto, demand)));
+        log.debug("Order placed successfully with orderId={}", savedOrder.getId());
 
-        Order order = Order.builder()
-                .customer(customer)
+        return toResponseDTOs(List.of(savedOrder)).get(0);
+    }
+
+    private Order insertOrder(OrderRequestDTO dto, Map<Long, Integer> demand) {
+        Map<Long, Product> products = stockReservationService.reserve(demand);
+        products.values().forEach(productMetadataCache::put);
+
+        // customers are never deleted, so the one checked above is still there
+        Customer customer = customerRepository.getReferenceById(dto.getCustomerId());
+        Order savedOrder = orderRepository.save(buildOrder(customer, dto, products));
+        if (customerOrderStatsRepository.incrementOrderCount(customer.getId(), 1) == 0) {
+            // customer row predates the stats table; the consistency check backfills history
+            customerOrderStatsRepository.save(new CustomerOrderStats(customer.getId(), 1));
+        }
+        changeEventRecorder.ordersPlaced(List.of(savedOrder));
+        ordersChanged();
+        return savedOrder;
+    }
+
+    /**
+     * Like {@link #placeOrder}, orders with an unknown customer or product are rejected
+     * before the transaction that reserves and inserts the rest.
+     */
+    @Override
+    public BatchOrderResponseDTO placeOrders(List<OrderRequestDTO> dtos) {
+        log.debug("Placing batch of {} orders", dtos.size());
+
+        Set<Long> customerIds = new HashSet<>();
+        Set<Long> productIds = new HashSet<>();
+        for (OrderRequestDTO dto : dtos) {
+            customerIds.add(dto.getCustomerId());
+            dto.getItems().forEach(item -> productIds.add(item.getProductId()));
+        }
+        RuntimeException[] failures = new RuntimeException[dtos.size()];
+        List<Integer> reservedIndexes = new ArrayList<>(dtos.size());
+        List<Map<Long, Integer>> demands = new ArrayList<>(dtos.size());
+        transactionTemplate.executeWithoutResult(status -> {
+            Set<Long> knownCustomers = new HashSet<>(customerIds.size() * 2);
+            for (Customer customer : customerRepository.findAllById(customerIds)) {
+                knownCustomers.add(customer.getId());
+            }
+            Map<Long, ProductMetadata> knownProducts = productMetadataCache.getAll(productIds);
+            for (int i = 0; i < dtos.size(); i++) {
+                Long customerId = dtos.get(i).getCustomerId();
+                Map<Long, Integer> demand = demandOf(dtos.get(i));
+                if (!knownCustomers.contains(customerId)) {
+                    failures[i] = new ResourceNotFoundException("Customer not found with id " + customerId);
+                } else if ((failures[i] = unknownProduct(demand, knownProducts)) == null) {
+                    reservedIndexes.add(i);
+                    demands.add(demand);
+                }
+            }
+        });
+
+        Order[] placed = reservedIndexes.isEmpty()
+                ? new Order[dtos.size()]
+                : optimisticLockRetry.run("placeOrders", () -> transactionTemplate.execute(
+                        status -> insertOrders(dtos, reservedIndexes, demands, failures)));
+        List<Order> orders = new ArrayList<>(reservedIndexes.size());
+        for (Order order : placed) {
+            if (order != null) {
+                orders.add(order);
+            }
+        }
+        log.debug("Batch placed {} of {} orders", orders.size(), dtos.size());
+
+        // orders were collected in request order, so their responses line up with placed[]
+        Iterator<OrderResponseDTO> responses = toResponseDTOs(orders).iterator();
+        List<BatchOrderResultDTO> results = new ArrayList<>(dtos.size());
+        for (int i = 0; i < dtos.size(); i++) {
+            results.add(placed[i] != null
+                    ? BatchOrderResultDTO.builder()
+                        .index(i)
+                        .status(BatchOrderResultDTO.Status.PLACED)
+                        .order(responses.next())
+                        .build()
+                    : BatchOrderResultDTO.builder()
+                        .index(i)
+                        .status(BatchOrderResultDTO.Status.REJECTED)
+                        .errorCode(errorCode(failures[i]))
+                        .message(failures[i].getMessage())
+                        .build());
+        }
+        return BatchOrderResponseDTO.builder()
+                .placed(orders.size())
+                .rejected(dtos.size() - orders.size())
+                .results(results)
                 .build();
+    }
 
-        for (OrderItemRequestDTO itemReq : dto.getItems()) {
-            Product product = productRepository.findById(itemReq.getProductId())
-                    .orElseThrow(() -> new ResourceNotFoundException(
-                            "Product not found with id " + itemReq.getProductId()));
-
-            int requestedQty = itemReq.getQuantity();
-            if (product.getStock() < requestedQty) {
-                String errMsg = String.format(
-                        "Insufficient stock for productId=%d: requested=%d, available=%d",
-                        product.getId(), requestedQty, product.getStock());
-                log.warn(errMsg);
-                throw new InsufficientStockException(errMsg);
+    /**
+     * Reserves and inserts the validated orders. Sets the reservation outcome of each of them
+     * in {@code failures}, so a retried attempt overwrites what an earlier one left there.
+     *
+     * @return the placed orders by request index
+     */
+    private Order[] insertOrders(List<OrderRequestDTO> dtos, List<Integer> reservedIndexes,
+                                 List<Map<Long, Integer>> demands, RuntimeException[] failures) {
+        StockReservationService.BatchReservation reservation = stockReservationService.reserveEach(demands);
+        reservation.products().values().forEach(productMetadataCache::put);
+
+        Order[] placed = new Order[dtos.size()];
+        List<Order> orders = new ArrayList<>(reservedIndexes.size());
+        SortedMap<Long, Long> ordersPerCustomer = new TreeMap<>();
+        for (int k = 0; k < reservedIndexes.size(); k++) {
+            int i = reservedIndexes.get(k);
+            failures[i] = reservation.failures().get(k);
+            if (failures[i] != null) {
+                continue;
             }
+            OrderRequestDTO dto = dtos.get(i);
+            placed[i] = buildOrder(customerRepository.getReferenceById(dto.getCustomerId()), dto, reservation.products());
+            orders.add(placed[i]);
+            ordersPerCustomer.merge(dto.getCustomerId(), 1L, Long::sum);
+        }
 
-            product.setStock(product.getStock() - requestedQty);
-            productRepository.save(product);
+        orderRepository.saveAll(orders);
+        if (!ordersPerCustomer.isEmpty()) {
+            for (Long customerId : customerOrderStatsRepository.incrementOrderCounts(ordersPerCustomer)) {
+                customerOrderStatsRepository.save(
+                        new CustomerOrderStats(customerId, ordersPerCustomer.get(customerId)));
+            }
+        }
+        changeEventRecorder.ordersPlaced(orders);
+        if (!orders.isEmpty()) {
+            ordersChanged();
+        }
+        return placed;
+    }
+
+    /**
+     * The rejection for the first product of {@code demand} that does not exist, if any. The
+     * reservation checks again, for products deleted in the meantime.
+     */
+    private static RuntimeException unknownProduct(Map<Long, Integer> demand, Map<Long, ProductMetadata> known) {
+        for (Long productId : demand.keySet()) {
+            if (!known.containsKey(productId)) {
+                return new ResourceNotFoundException("Product not found with id " + productId);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Placed orders change the stock shown in the catalogue and the order counts in reports.
+     */
+    private void ordersChanged() {
+        responseCache.changed(ResponseCache.Dataset.PRODUCTS);
+        responseCache.changed(ResponseCache.Dataset.REPORTS);
+    }
+
+    private static Map<Long, Integer> demandOf(OrderRequestDTO dto) {
+        Map<Long, Integer> demand = new TreeMap<>();
+        for (OrderItemRequestDTO itemReq : dto.getItems()) {
+            demand.merge(itemReq.getProductId(), itemReq.getQuantity(), Integer::sum);
+        }
+        return demand;
+    }
+
+    private Order buildOrder(Customer customer, OrderRequestDTO dto, Map<Long, Product> products) {
+        Order order = Order.builder()
+                .customer(customer)
+                .inventoryApplied(stockReservationService.isWriteThrough())
+                .build();
 
+        for (OrderItemRequestDTO itemReq : dto.getItems()) {
+            Product product = products.get(itemReq.getProductId());
             OrderItem orderItem = OrderItem.builder()
                     .product(product)
-                    .quantity(requestedQty)
+                    .quantity(itemReq.getQuantity())
                     .unitPrice(product.getPrice())
                     .build();
 
             order.addItem(orderItem);
         }
+        return order;
+    }
 
-        Order savedOrder = orderRepository.save(order);
-        log.info("Order placed successfully with orderId={}", savedOrder.getId());
-
-        return toResponseDTO(savedOrder);
+    /**
+     * The code GlobalExceptionHandler would have answered a single order with.
+     */
+    private static String errorCode(RuntimeException failure) {
+        if (failure instanceof InsufficientStockException) {
+            return "INSUFFICIENT_STOCK";
+        }
+        if (failure instanceof ResourceNotFoundException) {
+            return "NOT_FOUND";
+        }
+        return "INTERNAL_ERROR";
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<OrderResponseDTO> getOrdersByCustomerId(Long customerId) {
         log.debug("Fetching orders for customerId={}", customerId);
 
-        customerRepository.findById(customerId)
-                .orElseThrow(() -> new ResourceNotFoundException(
-                        "Customer not found with id " + customerId));
-
-        List<Order> orders = orderRepository.findByCustomerId(customerId);
+        List<OrderLine> lines = orderRepository.findLinesByCustomerId(customerId);
+        if (lines.isEmpty() && !customerRepository.existsById(customerId)) {
+            throw new ResourceNotFoundException("Customer not found with id " + customerId);
+        }
+        List<OrderResponseDTO> orders = linesToResponseDTOs(lines);
         log.debug("Found {} orders for customerId={}", orders.size(), customerId);
 
-        return orders.stream()
-                .map(this::toResponseDTO)
-                .collect(Collectors.toList());
-    }
-
-    private OrderResponseDTO toResponseDTO(Order order) {
-        List<OrderItemResponseDTO> itemDTOs = order.getItems().stream()
-                .map(item -> OrderItemResponseDTO.builder()
-                        .productId(item.getProduct().getId())
-                        .productName(item.getProduct().getName())
-                        .quantity(item.getQuantity())
-                        .unitPrice(item.getUnitPrice())
-                        .build())
-                .collect(Collectors.toList());
-
-        BigDecimal totalAmount = itemDTOs.stream()
-                .map(i -> i.getUnitPrice().multiply(BigDecimal.valueOf(i.getQuantity())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        return OrderResponseDTO.builder()
-                .id(order.getId())
-                .customerId(order.getCustomer().getId())
-                .orderDate(order.getOrderDate())
-                .items(itemDTOs)
-                .totalAmount(totalAmount)
+        return orders;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OrderPageDTO getOrdersByCustomerId(Long customerId, String cursor, int limit) {
+        log.debug("Fetching order page for customerId={} limit={}", customerId, limit);
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        Limit fetch = Limit.of(limit + 1);
+        List<OrderKey> keys;
+        if (cursor == null) {
+            keys = orderRepository.findPageKeys(customerId, fetch);
+            if (keys.isEmpty() && !customerRepository.existsById(customerId)) {
+                throw new ResourceNotFoundException("Customer not found with id " + customerId);
+            }
+        } else {
+            OrderCursor after = OrderCursor.decode(cursor);
+            keys = orderRepository.findPageKeysAfter(customerId, after.orderDate(), after.id(), fetch);
+        }
+
+        boolean hasMore = keys.size() > limit;
+        List<OrderKey> page = hasMore ? keys.subList(0, limit) : keys;
+        List<OrderResponseDTO> orders = List.of();
+        String nextCursor = null;
+        if (!page.isEmpty()) {
+            List<Long> ids = new ArrayList<>(page.size());
+            for (OrderKey key : page) {
+                ids.add(key.id());
+            }
+            OrderKey first = page.get(0);
+            OrderKey last = page.get(page.size() - 1);
+            orders = linesToResponseDTOs(orderRepository.findLinesByIdIn(ids, first.orderDate(), last.orderDate()));
+            if (hasMore) {
+                nextCursor = new OrderCursor(last.orderDate(), last.id()).encode();
+            }
+        }
+        return OrderPageDTO.builder()
+                .orders(orders)
+                .nextCursor(nextCursor)
                 .build();
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public List<OrderSummaryDTO> getOrderSummariesByCustomerId(Long customerId) {
+        log.debug("Fetching order summaries for customerId={}", customerId);
+        List<OrderSummaryDTO> summaries = orderRepository.findSummariesByCustomerId(customerId);
+        if (summaries.isEmpty() && !customerRepository.existsById(customerId)) {
+            throw new ResourceNotFoundException("Customer not found with id " + customerId);
+        }
+        return summaries;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long streamOrdersByCustomerId(Long customerId, Consumer<OrderResponseDTO> sink) {
+        log.debug("Streaming orders for customerId={}", customerId);
+        if (!customerRepository.existsById(customerId)) {
+            throw new ResourceNotFoundException("Customer not found with id " + customerId);
+        }
+        long streamed = orderHistoryStreamRepository.streamByCustomerId(customerId, sink);
+        log.debug("Streamed {} orders for customerId={}", streamed, customerId);
+        return streamed;
+    }
+
+    private List<OrderResponseDTO> toResponseDTOs(List<Order> orders) {
+        Set<Long> productIds = new HashSet<>();
+        for (Order order : orders) {
+            for (OrderItem item : order.getItems()) {
+                productIds.add(item.getProduct().getId());
+            }
+        }
+        Map<Long, ProductMetadata> products = productMetadataCache.getAll(productIds);
+        List<OrderResponseDTO> responses = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            responses.add(toResponseDTO(order, order.getItems(), products));
+        }
+        return responses;
+    }
+
+    /**
+     * Folds item rows back into orders. The rows carry the items, so the orders' own item
+     * collections are never loaded.
+     */
+    private List<OrderResponseDTO> linesToResponseDTOs(List<OrderLine> lines) {
+        Set<Long> productIds = new HashSet<>();
+        for (OrderLine line : lines) {
+            if (line.item() != null) {
+                productIds.add(line.item().getProduct().getId());
+            }
+        }
+        Map<Long, ProductMetadata> products = productMetadataCache.getAll(productIds);
+        List<OrderResponseDTO> responses = new ArrayList<>();
+        List<OrderItem> items = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            OrderLine line = lines.get(i);
+            if (line.item() != null) {
+                items.add(line.item());
+            }
+            if (i + 1 == lines.size() || lines.get(i + 1).order() != line.order()) {
+                responses.add(toResponseDTO(line.order(), items, products));
+                items.clear();
+            }
+        }
+        return responses;
+    }
+
+    /**
+     * Maps the order and its items in one pass. The total is the one stored with the order.
+     */
+    static OrderResponseDTO toResponseDTO(Order order, List<OrderItem> items, Map<Long, ProductMetadata> products) {
+        List<OrderItemResponseDTO> itemDTOs = new ArrayList<>(items.size());
+        for (OrderItem item : items) {
+            Long productId = item.getProduct().getId();
+            ProductMetadata product = products.get(productId);
+            itemDTOs.add(new OrderItemResponseDTO(productId, product != null ? product.name() : null,
+                                                  item.getQuantity(), item.getUnitPrice()));
+        }
+        return new OrderResponseDTO(order.getId(), order.getCustomer().getId(), order.getOrderDate(),
+                                    itemDTOs, order.getTotalAmount());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<CustomerOrderCountDTO> getOrderCountPerCustomer() {
         log.debug("Fetching total order count per customer");
-        List<Object[]> rows = orderRepository.findOrderCountPerCustomer();
-        return rows.stream()
-                .map(row -> new CustomerOrderCountDTO(
-                        ((Number) row[0]).longValue(),
-                        (String) row[1],
-                        ((Number) row[2]).longValue()))
-                .collect(Collectors.toList());
+        return customerOrderStatsRepository.findOrderCountPerCustomer();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<CustomerOrderCountDTO> getTopCustomers(int topN) {
         log.debug("Fetching top {} customers by order count", topN);
-        PageRequest pageReq = PageRequest.of(0, topN);
-        List<Object[]> rows = orderRepository.findTopCustomers(pageReq);
-        return rows.stream()
-                .map(row -> new CustomerOrderCountDTO(
-                        ((Number) row[0]).longValue(),
-                        (String) row[1],
-                        ((Number) row[2]).longValue()))
-                .collect(Collectors.toList());
+        return customerOrderStatsRepository.findTopCustomers(Limit.of(topN));
     }
 }
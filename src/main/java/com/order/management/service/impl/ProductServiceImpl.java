@@ -1,35 +1,57 @@
 package com.order.management.service.impl;
 
+import com.order.management.cache.ProductMetadataCache;
+import com.order.management.cache.ResponseCache;
 import com.order.management.dto.ProductDTO;
+import com.order.management.exception.BadRequestException;
+import com.order.management.exception.InsufficientStockException;
 import com.order.management.exception.ResourceNotFoundException;
+import com.order.management.logging.PayloadSummary;
 import com.order.management.model.Product;
+import com.order.management.outbox.ChangeEventRecorder;
 import com.order.management.repository.ProductRepository;
 import com.order.management.service.ProductService;
-import jakarta.transaction.Transactional;
+import com.order.management.service.StockReservationService;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.BeanUtils;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Implements product‐related business logic.
  */
 @Slf4j
 @Service
+@Timed("service.calls")
 @RequiredArgsConstructor
 public class ProductServiceImpl implements ProductService {
 
+    static final int MAX_PAGE_SIZE = 500;
+
     private final ProductRepository productRepository;
+    private final StockReservationService stockReservationService;
+    private final ProductMetadataCache productMetadataCache;
+    private final ChangeEventRecorder changeEventRecorder;
+    private final ResponseCache responseCache;
+    private final OptimisticLockRetry optimisticLockRetry;
 
     @Override
     @Transactional
     public ProductDTO addProduct(ProductDTO dto) {
-        log.info("Attempting to add new product: name={}, price={}, stock={}",
-                 dto.getName(), dto.getPrice(), dto.getStock());
+        log.debug("Adding product: {}", PayloadSummary.of(dto));
         try {
             Product product = Product.builder()
                     .name(dto.getName())
@@ -38,7 +60,9 @@ public class ProductServiceImpl implements ProductService {
                     .build();
 
             Product saved = productRepository.save(product);
-            log.info("Successfully added product with id={}", saved.getId());
+            changeEventRecorder.productChanged(ChangeEventRecorder.PRODUCT_CREATED, saved);
+            responseCache.changed(ResponseCache.Dataset.PRODUCTS);
+            log.debug("Successfully added product with id={}", saved.getId());
             return toDTO(saved);
         } catch (DataIntegrityViolationException ex) {
             log.error("Data integrity violation while adding product: {}",
@@ -53,18 +77,34 @@ public class ProductServiceImpl implements ProductService {
     @Override
     @Transactional
     public ProductDTO updateProduct(Long id, ProductDTO dto) {
-        log.info("Updating product with id={}", id);
+        log.debug("Updating product with id={}", id);
+        // before the read, so that stock written behind by the inventory is in the version checked
+        stockReservationService.stockOverwritten(id, dto.getStock());
         Product existing = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id " + id));
+        if (dto.getVersion() != null && !dto.getVersion().equals(existing.getVersion())) {
+            optimisticLockRetry.conflict("updateProduct");
+            log.warn("Refusing update of product id={} at version {}; it is at version {}",
+                     id, dto.getVersion(), existing.getVersion());
+            throw new ObjectOptimisticLockingFailureException(Product.class, id);
+        }
 
         existing.setName(dto.getName());
         existing.setPrice(dto.getPrice());
         existing.setStock(dto.getStock());
+        productMetadataCache.invalidate(id);
+        responseCache.changed(ResponseCache.Dataset.PRODUCTS);
 
         try {
-            Product updated = productRepository.save(existing);
-            log.info("Successfully updated product with id={}", updated.getId());
+            Product updated = productRepository.saveAndFlush(existing);
+            changeEventRecorder.productChanged(ChangeEventRecorder.PRODUCT_UPDATED, updated);
+            log.debug("Successfully updated product with id={}", updated.getId());
             return toDTO(updated);
+        } catch (OptimisticLockingFailureException ex) {
+            // an order or stock adjustment got in between; the client decides whether to overwrite it
+            optimisticLockRetry.conflict("updateProduct");
+            log.warn("Product id={} changed concurrently, update refused", id);
+            throw ex;
         } catch (DataIntegrityViolationException ex) {
             log.error("Data integrity violation while updating product id={}: {}",
                       id, ex.getRootCause() != null ? ex.getRootCause().getMessage() : ex.getMessage());
@@ -75,19 +115,75 @@ public class ProductServiceImpl implements ProductService {
         }
     }
 
+    /**
+     * Applies a relative change to the stock with a single conditional update, so it neither
+     * waits on nor conflicts with orders reserving the same product.
+     */
     @Override
-    @Transactional(Transactional.TxType.SUPPORTS)
+    @Transactional
+    public ProductDTO adjustStock(Long id, int delta) {
+        log.debug("Adjusting stock of product id={} by {}", id, delta);
+        Product existing = productRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id " + id));
+        stockReservationService.stockAdjusted(id, existing.getStock(), delta);
+
+        if (productRepository.adjustStock(id, delta) == 0) {
+            Product current = productRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Product not found with id " + id));
+            InsufficientStockException ex = InsufficientStockException.forProduct(id, -delta, current.getStock());
+            log.warn(ex.getMessage());
+            throw ex;
+        }
+        Product adjusted = productRepository.findById(id).orElseThrow();
+        changeEventRecorder.productChanged(ChangeEventRecorder.PRODUCT_UPDATED, adjusted);
+        responseCache.changed(ResponseCache.Dataset.PRODUCTS);
+        log.debug("Stock of product id={} is now {}", id, adjusted.getStock());
+        return toDTO(adjusted);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<ProductDTO> getAllProducts() {
         log.debug("Fetching all products from repository");
-        List<ProductDTO> list = productRepository.findAll().stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        List<ProductDTO> list = toDTOs(productRepository.findAll());
         log.debug("Found {} products", list.size());
         return list;
     }
 
     @Override
-    @Transactional(Transactional.TxType.SUPPORTS)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<ProductDTO> getProducts(int page, int size) {
+        log.debug("Fetching products page={} size={}", page, size);
+        if (page < 0) {
+            throw new BadRequestException("page must not be negative");
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        List<Product> products = productRepository.findAll(PageRequest.of(page, size, Sort.by("id"))).getContent();
+        List<ProductDTO> list = toDTOs(products);
+        log.debug("Found {} products on page {}", list.size(), page);
+        return list;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long streamAllProducts(Consumer<ProductDTO> sink) {
+        log.debug("Streaming all products from repository");
+        long count = 0;
+        try (Stream<ProductDTO> products = productRepository.streamAllAsDto()) {
+            for (Iterator<ProductDTO> it = products.iterator(); it.hasNext(); count++) {
+                ProductDTO dto = it.next();
+                dto.setStock(stockReservationService.availableStock(dto.getId(), dto.getStock()));
+                sink.accept(dto);
+            }
+        }
+        log.debug("Streamed {} products", count);
+        return count;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public ProductDTO getProductById(Long id) {
         log.debug("Fetching product by id={}", id);
         Product product = productRepository.findById(id)
@@ -99,16 +195,26 @@ public class ProductServiceImpl implements ProductService {
     @Override
     @Transactional
     public void deleteProduct(Long id) {
-        log.info("Deleting product with id={}", id);
+        log.debug("Deleting product with id={}", id);
         Product existing = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id " + id));
         productRepository.delete(existing);
-        log.info("Deleted product with id={}", id);
+        changeEventRecorder.productDeleted(id);
+        stockReservationService.productRemoved(id);
+        productMetadataCache.invalidate(id);
+        responseCache.changed(ResponseCache.Dataset.PRODUCTS);
+        log.debug("Deleted product with id={}", id);
     }
 
-    private ProductDTO toDTO(Product product) {
-        ProductDTO dto = new ProductDTO();
-        BeanUtils.copyProperties(product, dto);
-        return dto;
+    ProductDTO toDTO(Product product) {
+        return ProductDTO.of(product, stockReservationService.availableStock(product.getId(), product.getStock()));
+    }
+
+    List<ProductDTO> toDTOs(List<Product> products) {
+        List<ProductDTO> dtos = new ArrayList<>(products.size());
+        for (Product product : products) {
+            dtos.add(toDTO(product));
+        }
+        return dtos;
     }
 }
@@ -0,0 +1,85 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Fills {@code orders.total_amount} and {@code item_count} for orders placed before V9, one
+ * id range at a time, committing after each range so no chunk holds its row locks for long.
+ * The item lookup needs an index on {@code order_item.order_id}, which is built first without
+ * blocking writes.
+ *
+ * <p>The columns then become NOT NULL through a CHECK constraint that is added NOT VALID and
+ * validated separately, which lets PostgreSQL skip the full-table scan it would otherwise do
+ * under an exclusive lock.
+ *
+ * <p>This is not a rolling migration. The previous version inserts orders without totals, which
+ * the constraint rejects as soon as it is added, so every instance of it must be stopped before
+ * this runs. Reads from other clients carry on.
+ */
+public class V10__BackfillOrderTotals extends BaseJavaMigration {
+
+    private static final long CHUNK = 10_000;
+
+    private static final String BACKFILL_SQL = """
+            UPDATE orders o
+               SET total_amount = t.total,
+                   item_count = t.lines
+              FROM (SELECT r.id, COALESCE(SUM(oi.quantity * oi.unit_price), 0) AS total, COUNT(oi.id) AS lines
+                      FROM orders r
+                      LEFT JOIN order_item oi ON oi.order_id = r.id
+                     WHERE r.id > ? AND r.id <= ?
+                       AND r.total_amount IS NULL
+                     GROUP BY r.id) t
+             WHERE o.id = t.id
+            """;
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(true);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_order_item_order_id ON order_item (order_id)");
+            backfill(connection);
+            statement.execute("""
+                    ALTER TABLE orders ADD CONSTRAINT chk_orders_totals_present
+                        CHECK (total_amount IS NOT NULL AND item_count IS NOT NULL) NOT VALID""");
+            statement.execute("ALTER TABLE orders VALIDATE CONSTRAINT chk_orders_totals_present");
+            statement.execute("""
+                    ALTER TABLE orders ALTER COLUMN total_amount SET NOT NULL,
+                                       ALTER COLUMN item_count SET NOT NULL""");
+            statement.execute("ALTER TABLE orders DROP CONSTRAINT chk_orders_totals_present");
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private static void backfill(Connection connection) throws SQLException {
+        long maxId;
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(
+                     "SELECT COALESCE(MAX(id), 0) FROM orders WHERE total_amount IS NULL")) {
+            rs.next();
+            maxId = rs.getLong(1);
+        }
+        try (PreparedStatement update = connection.prepareStatement(BACKFILL_SQL)) {
+            for (long from = 0; from < maxId; from += CHUNK) {
+                update.setLong(1, from);
+                update.setLong(2, from + CHUNK);
+                update.executeUpdate();
+            }
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Turns {@code orders} and {@code order_item} into tables range-partitioned by month on
+ * {@code order_date}, without copying any rows.
+ *
+ * <p>The existing tables become the first partition pair, {@code orders_legacy} and
+ * {@code order_item_legacy}, covering everything before the month after next. Monthly
+ * partitions follow from there. To make the attach a catalog-only change, the legacy tables
+ * are first prepared:
+ * <ul>
+ *   <li>{@code order_item} gets its order's date, backfilled in chunks like V10.</li>
+ *   <li>A CHECK constraint proves the partition range. It is added NOT VALID and validated
+ *       under a lock that still lets readers through, so ATTACH PARTITION can skip its scan.</li>
+ *   <li>Every index of the partitioned parents, including the (id, order_date) primary keys, is
+ *       built CONCURRENTLY, so ATTACH adopts the indexes instead of building them.</li>
+ * </ul>
+ * Only the swap itself takes exclusive locks, in one short transaction that gives up after
+ * {@code lock_timeout} rather than queueing readers behind it.
+ *
+ * <p>This is not a rolling migration. The previous version inserts items without
+ * {@code order_date}, which the range check rejects and the partitioned table cannot route, so
+ * every instance of it must be stopped before this runs. Reads from other clients carry on.
+ *
+ * <p>Item partitions reference their own month's orders partition, because a foreign key
+ * onto the partitioned {@code orders} could only be added by validating every item under lock.
+ * Order ids still come from {@code orders_seq}; the primary key has to include
+ * {@code order_date}, so uniqueness of the id alone rests on the sequence.
+ *
+ * <p>The monthly partition DDL is written out here rather than taken from
+ * {@code OrderPartitions}, so that later changes to the maintainer cannot change what this
+ * version does on a fresh database.
+ */
+public class V12__PartitionOrdersByDate extends BaseJavaMigration {
+
+    private static final long CHUNK = 10_000;
+    private static final int PREMAKE_MONTHS = 3;
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("'_p'yyyyMM");
+
+    private static final String BACKFILL_SQL = """
+            UPDATE order_item oi
+               SET order_date = o.order_date
+              FROM orders o
+             WHERE o.id = oi.order_id
+               AND oi.id > ? AND oi.id <= ?
+               AND oi.order_date IS NULL
+            """;
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        boolean autoCommit = connection.getAutoCommit();
+        LocalDate legacyEnd = YearMonth.now(ZoneOffset.UTC).plusMonths(2).atDay(1);
+        String bound = "TIMESTAMP '" + legacyEnd + "'";
+        try {
+            connection.setAutoCommit(true);
+            prepare(connection, bound);
+            swap(connection, legacyEnd);
+            connection.setAutoCommit(true);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ALTER TABLE order_item_legacy VALIDATE CONSTRAINT fk_order_item_legacy_order");
+                statement.execute("ALTER TABLE orders_legacy DROP CONSTRAINT chk_orders_legacy_range");
+                statement.execute("ALTER TABLE order_item_legacy DROP CONSTRAINT chk_order_item_legacy_range");
+                statement.execute("DROP INDEX CONCURRENTLY IF EXISTS order_item_legacy_order_id");
+            }
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private void prepare(Connection connection, String bound) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE customer_order_stats ADD COLUMN IF NOT EXISTS archived_count BIGINT NOT NULL DEFAULT 0");
+            statement.execute("ALTER TABLE order_item ADD COLUMN IF NOT EXISTS order_date TIMESTAMP");
+            backfill(connection);
+            // V1 allowed a NULL order_date; such orders go to the start of the legacy range
+            statement.execute("UPDATE orders SET order_date = TIMESTAMP 'epoch' WHERE order_date IS NULL");
+            statement.execute("ALTER TABLE orders ADD CONSTRAINT chk_orders_legacy_range"
+                              + " CHECK (order_date IS NOT NULL AND order_date < " + bound + ") NOT VALID");
+            statement.execute("ALTER TABLE order_item ADD CONSTRAINT chk_order_item_legacy_range"
+                              + " CHECK (order_date IS NOT NULL AND order_date < " + bound + ") NOT VALID");
+            statement.execute("ALTER TABLE orders VALIDATE CONSTRAINT chk_orders_legacy_range");
+            statement.execute("ALTER TABLE order_item VALIDATE CONSTRAINT chk_order_item_legacy_range");
+            statement.execute("ALTER TABLE orders ALTER COLUMN order_date SET NOT NULL");
+            statement.execute("ALTER TABLE order_item ALTER COLUMN order_date SET NOT NULL");
+
+            statement.execute("CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS orders_legacy_pkey ON orders (id, order_date)");
+            statement.execute("CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS order_item_legacy_pkey ON order_item (id, order_date)");
+            statement.execute("""
+                    CREATE INDEX CONCURRENTLY IF NOT EXISTS order_item_legacy_order_covering
+                        ON order_item (order_id, order_date, id) INCLUDE (product_id, quantity, unit_price)""");
+        }
+    }
+
+    private void swap(Connection connection, LocalDate legacyEnd) throws SQLException {
+        String bound = "TIMESTAMP '" + legacyEnd + "'";
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET LOCAL lock_timeout = '10s'");
+            statement.execute("LOCK TABLE orders, order_item IN ACCESS EXCLUSIVE MODE");
+
+            // the legacy pair: primary keys on (id, order_date), free up the parents' names
+            statement.execute("ALTER TABLE order_item DROP CONSTRAINT fk_order_item_order");
+            statement.execute("ALTER TABLE orders DROP CONSTRAINT orders_pkey,"
+                              + " ADD CONSTRAINT orders_legacy_pkey PRIMARY KEY USING INDEX orders_legacy_pkey");
+            statement.execute("ALTER TABLE order_item DROP CONSTRAINT order_item_pkey,"
+                              + " ADD CONSTRAINT order_item_legacy_pkey PRIMARY KEY USING INDEX order_item_legacy_pkey");
+            statement.execute("ALTER TABLE orders RENAME TO orders_legacy");
+            statement.execute("ALTER TABLE order_item RENAME TO order_item_legacy");
+            statement.execute("ALTER INDEX idx_orders_customer_date_covering RENAME TO orders_legacy_customer_date_covering");
+            statement.execute("ALTER INDEX idx_orders_inventory_pending RENAME TO orders_legacy_inventory_pending");
+            statement.execute("ALTER INDEX idx_order_item_order_covering RENAME TO order_item_legacy_order_id");
+            statement.execute("ALTER INDEX idx_order_item_product_id RENAME TO order_item_legacy_product_id");
+
+            // the partitioned parents, with the indexes and constraints every partition gets
+            statement.execute("CREATE TABLE orders (LIKE orders_legacy INCLUDING DEFAULTS) PARTITION BY RANGE (order_date)");
+            statement.execute("""
+                    ALTER TABLE orders
+                        ADD PRIMARY KEY (id, order_date),
+                        ADD CONSTRAINT fk_orders_customer FOREIGN KEY (customer_id) REFERENCES customer (id)""");
+            statement.execute("""
+                    CREATE INDEX idx_orders_customer_date_covering
+                        ON orders (customer_id, order_date, id) INCLUDE (total_amount, item_count)""");
+            statement.execute("CREATE INDEX idx_orders_inventory_pending ON orders (id) WHERE inventory_applied = FALSE");
+            statement.execute("CREATE TABLE order_item (LIKE order_item_legacy INCLUDING DEFAULTS) PARTITION BY RANGE (order_date)");
+            statement.execute("""
+                    ALTER TABLE order_item
+                        ADD PRIMARY KEY (id, order_date),
+                        ADD CONSTRAINT order_item_quantity_check CHECK (quantity > 0),
+                        ADD CONSTRAINT fk_order_item_product FOREIGN KEY (product_id) REFERENCES product (id)""");
+            statement.execute("""
+                    CREATE INDEX idx_order_item_order_covering
+                        ON order_item (order_id, order_date, id) INCLUDE (product_id, quantity, unit_price)""");
+            statement.execute("CREATE INDEX idx_order_item_product_id ON order_item (product_id)");
+
+            statement.execute("ALTER TABLE orders ATTACH PARTITION orders_legacy FOR VALUES FROM (MINVALUE) TO (" + bound + ")");
+            statement.execute("ALTER TABLE order_item ATTACH PARTITION order_item_legacy FOR VALUES FROM (MINVALUE) TO (" + bound + ")");
+            statement.execute("""
+                    ALTER TABLE order_item_legacy ADD CONSTRAINT fk_order_item_legacy_order
+                        FOREIGN KEY (order_id, order_date) REFERENCES orders_legacy (id, order_date) NOT VALID""");
+            YearMonth until = YearMonth.now(ZoneOffset.UTC).plusMonths(PREMAKE_MONTHS);
+            for (YearMonth month = YearMonth.from(legacyEnd); !month.isAfter(until); month = month.plusMonths(1)) {
+                String suffix = month.format(SUFFIX);
+                String range = "FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')";
+                statement.execute("CREATE TABLE orders" + suffix + " PARTITION OF orders " + range);
+                statement.execute("CREATE TABLE order_item" + suffix + " PARTITION OF order_item " + range);
+                statement.execute("ALTER TABLE order_item" + suffix + " ADD CONSTRAINT fk_order_item" + suffix + "_order"
+                                  + " FOREIGN KEY (order_id, order_date) REFERENCES orders" + suffix + " (id, order_date)");
+            }
+            connection.commit();
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        }
+    }
+
+    private void backfill(Connection connection) throws SQLException {
+        long maxId;
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM order_item")) {
+            rs.next();
+            maxId = rs.getLong(1);
+        }
+        try (PreparedStatement update = connection.prepareStatement(BACKFILL_SQL)) {
+            for (long from = 0; from < maxId; from += CHUNK) {
+                update.setLong(1, from);
+                update.setLong(2, from + CHUNK);
+                update.executeUpdate();
+            }
+        }
+    }
+}
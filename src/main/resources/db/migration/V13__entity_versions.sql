@@ -0,0 +1,4 @@
+-- Optimistic-locking versions for @Version. Raw stock UPDATEs bump product.version as well,
+-- so it changes with every write to the row. A constant default does not rewrite the tables.
+ALTER TABLE product ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE customer ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,4 @@
+-- Orders placed in ledger inventory mode are stored before their stock is written back
+ALTER TABLE orders ADD COLUMN inventory_applied BOOLEAN NOT NULL DEFAULT TRUE;
+
+CREATE INDEX idx_orders_inventory_pending ON orders (id) WHERE inventory_applied = FALSE;
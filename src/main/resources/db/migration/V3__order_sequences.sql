@@ -0,0 +1,14 @@
+-- Replace SERIAL identity columns on orders/order_item with pooled sequences so Hibernate
+-- can batch inserts. Allocation size must match @SequenceGenerator(allocationSize = 50).
+CREATE SEQUENCE orders_seq INCREMENT BY 50;
+CREATE SEQUENCE order_item_seq INCREMENT BY 50;
+
+-- The pooled optimizer treats each value as the top of a 50-wide block, so start one
+-- block above the current maximum to keep new ids clear of existing rows.
+SELECT setval('orders_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM orders));
+SELECT setval('order_item_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM order_item));
+
+ALTER TABLE orders ALTER COLUMN id DROP DEFAULT;
+ALTER TABLE order_item ALTER COLUMN id DROP DEFAULT;
+DROP SEQUENCE orders_id_seq;
+DROP SEQUENCE order_item_id_seq;
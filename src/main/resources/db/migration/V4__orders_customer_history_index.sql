@@ -0,0 +1,2 @@
+-- Supports keyset pagination of order history on (order_date, id) per customer
+CREATE INDEX idx_orders_customer_date_id ON orders (customer_id, order_date, id);
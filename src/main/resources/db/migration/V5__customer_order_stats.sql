@@ -0,0 +1,15 @@
+-- Per-customer order counts maintained by placeOrder, so reports no longer aggregate orders
+CREATE TABLE customer_order_stats (
+    customer_id INTEGER PRIMARY KEY,
+    order_count BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT fk_customer_order_stats_customer FOREIGN KEY (customer_id) REFERENCES customer(id)
+);
+
+INSERT INTO customer_order_stats (customer_id, order_count)
+SELECT c.id, COUNT(o.id)
+  FROM customer c
+  LEFT JOIN orders o ON o.customer_id = c.id
+ GROUP BY c.id;
+
+-- Top-N reads walk this index from the top instead of sorting every customer
+CREATE INDEX idx_customer_order_stats_top ON customer_order_stats (order_count DESC, customer_id);
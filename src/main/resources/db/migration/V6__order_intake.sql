@@ -0,0 +1,13 @@
+-- Outcome of orders accepted through the asynchronous intake log. Written in the same
+-- transaction as the orders themselves, so replay after a crash can skip what is done.
+CREATE TABLE order_intake (
+    tracking_id UUID PRIMARY KEY,
+    status VARCHAR(16) NOT NULL,
+    order_id BIGINT,
+    error_code VARCHAR(32),
+    message VARCHAR(255),
+    accepted_at TIMESTAMP NOT NULL,
+    completed_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_order_intake_completed_at ON order_intake (completed_at);
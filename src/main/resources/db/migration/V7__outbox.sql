@@ -0,0 +1,19 @@
+-- Change events recorded in the same transaction as the write they describe. Ids come from
+-- a sequence drawn while the aggregate row is locked, so they order events per aggregate.
+CREATE SEQUENCE outbox_event_seq;
+
+CREATE TABLE outbox_event (
+    id BIGINT PRIMARY KEY,
+    aggregate_type VARCHAR(16) NOT NULL,
+    aggregate_id BIGINT NOT NULL,
+    event_type VARCHAR(32) NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL
+);
+
+-- Last event id each relay sink has published; the relay resumes from here after a restart
+CREATE TABLE outbox_offset (
+    sink VARCHAR(64) PRIMARY KEY,
+    last_event_id BIGINT NOT NULL,
+    updated_at TIMESTAMP NOT NULL
+);
@@ -0,0 +1,13 @@
+-- Responses of POST /api/orders requests sent with an Idempotency-Key. The row is inserted
+-- in the order's own transaction, so a key exists exactly when its order was committed.
+CREATE TABLE idempotency_key (
+    idem_key VARCHAR(128) PRIMARY KEY,
+    request_hash VARCHAR(64) NOT NULL,
+    response_status INTEGER,
+    location VARCHAR(255),
+    response_body TEXT,
+    created_at TIMESTAMP NOT NULL,
+    expires_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_idempotency_key_expires_at ON idempotency_key (expires_at);
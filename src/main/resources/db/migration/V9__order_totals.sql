@@ -0,0 +1,5 @@
+-- Order totals and item counts, written once when the order is placed. The columns start out
+-- nullable so adding them does not rewrite the table; V10 backfills existing orders in chunks
+-- and then makes them NOT NULL.
+ALTER TABLE orders ADD COLUMN total_amount NUMERIC(14, 2);
+ALTER TABLE orders ADD COLUMN item_count INTEGER;
@@ -0,0 +1,190 @@
+package com.order.management.benchmark;
+
+import com.order.management.ManagementApplication;
+import com.order.management.dto.OrderItemRequestDTO;
+import com.order.management.dto.OrderRequestDTO;
+import com.order.management.dto.OrderResponseDTO;
+import com.order.management.service.OrderService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * How long {@code placeOrder} keeps pooled connections, against the in-process H2 database of
+ * the "test" profile. "split" is the service as it stands: the customer and product checks
+ * borrow a connection briefly, then one transaction holds it for the reservation and inserts.
+ * "enclosing" runs the same call inside a caller's transaction, the way a single
+ * {@code @Transactional} placeOrder did, so one connection is held from the first check until
+ * the response has been built.
+ * <p>
+ * The primary score is the time per order. Among the secondary results, {@code connections}
+ * and {@code heldMicros} are the borrows and the connection time summed over them, for the
+ * {@code orders} placed; divide by {@code orders} for the figures per order. On PostgreSQL
+ * every statement adds a network round trip to the hold time, so the gap widens there.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConnectionHoldBenchmark {
+
+    private static final int PRODUCTS = 100;
+
+    private static final LongAdder HELD_NANOS = new LongAdder();
+    private static final LongAdder BORROWED = new LongAdder();
+    /** Scheduled jobs borrow connections too; only the benchmark thread's are counted. */
+    private static volatile Thread measured;
+
+    @Param({"split", "enclosing"})
+    public String scope;
+
+    @Param({"1", "10"})
+    public int lines;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private TransactionTemplate transactionTemplate;
+    private JdbcTemplate jdbcTemplate;
+    private OrderRequestDTO request;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        ApplicationContextInitializer<ConfigurableApplicationContext> timeConnections =
+                context -> context.getBeanFactory().addBeanPostProcessor(new BeanPostProcessor() {
+                    @Override
+                    public Object postProcessAfterInitialization(Object bean, String beanName) {
+                        return bean instanceof DataSource dataSource && !(bean instanceof HoldTimingDataSource)
+                                ? new HoldTimingDataSource(dataSource)
+                                : bean;
+                    }
+                });
+        context = new SpringApplicationBuilder(ManagementApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .initializers(timeConnections)
+                .run("--logging.level.root=WARN");
+        orderService = context.getBean(OrderService.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        jdbcTemplate.update("INSERT INTO customer (name, email, phone) VALUES ('Bench', 'bench@example.com', '555-0000')");
+        Long customerId = jdbcTemplate.queryForObject("SELECT id FROM customer", Long.class);
+        jdbcTemplate.update("INSERT INTO customer_order_stats (customer_id, order_count) VALUES (?, 0)", customerId);
+        for (int i = 0; i < PRODUCTS; i++) {
+            jdbcTemplate.update("INSERT INTO product (name, price, stock) VALUES (?, 9.99, 0)", "product-" + i);
+        }
+        List<Long> productIds = jdbcTemplate.queryForList("SELECT id FROM product ORDER BY id", Long.class);
+
+        List<OrderItemRequestDTO> items = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            items.add(new OrderItemRequestDTO(productIds.get(i), 1));
+        }
+        request = new OrderRequestDTO(customerId, items);
+    }
+
+    @Setup(Level.Iteration)
+    public void restock() {
+        jdbcTemplate.update("UPDATE product SET stock = 100000000");
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public OrderResponseDTO placeOrder(Holds holds) {
+        holds.orders++;
+        return "enclosing".equals(scope)
+                ? transactionTemplate.execute(status -> orderService.placeOrder(request))
+                : orderService.placeOrder(request);
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Holds {
+
+        private long orders;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            orders = 0;
+            measured = Thread.currentThread();
+            HELD_NANOS.reset();
+            BORROWED.reset();
+        }
+
+        public long orders() {
+            return orders;
+        }
+
+        public long connections() {
+            return BORROWED.sum();
+        }
+
+        public long heldMicros() {
+            return HELD_NANOS.sum() / 1_000;
+        }
+    }
+
+    /**
+     * Adds the time from borrowing each connection on the measured thread to closing it to
+     * {@link #HELD_NANOS}.
+     */
+    static class HoldTimingDataSource extends DelegatingDataSource {
+
+        HoldTimingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return timed(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return timed(super.getConnection(username, password));
+        }
+
+        private static Connection timed(Connection connection) {
+            if (Thread.currentThread() != measured) {
+                return connection;
+            }
+            long borrowedAt = System.nanoTime();
+            BORROWED.increment();
+            boolean[] closed = {false};
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        if ("close".equals(method.getName()) && !closed[0]) {
+                            closed[0] = true;
+                            HELD_NANOS.add(System.nanoTime() - borrowedAt);
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException ex) {
+                            throw ex.getTargetException();
+                        }
+                    });
+        }
+    }
+}
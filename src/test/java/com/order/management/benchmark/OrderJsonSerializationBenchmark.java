@@ -0,0 +1,54 @@
+package com.order.management.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.order.management.dto.OrderItemResponseDTO;
+import com.order.management.dto.OrderResponseDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of order history responses, using the same ObjectMapper setup as
+ * Spring MVC.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderJsonSerializationBenchmark {
+
+    @Param({"10", "200"})
+    public int orders;
+
+    @Param({"5"})
+    public int itemsPerOrder;
+
+    private ObjectMapper objectMapper;
+    private List<OrderResponseDTO> history;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        history = new ArrayList<>(orders);
+        Instant now = Instant.now();
+        for (long o = 0; o < orders; o++) {
+            List<OrderItemResponseDTO> items = new ArrayList<>(itemsPerOrder);
+            for (long i = 0; i < itemsPerOrder; i++) {
+                items.add(new OrderItemResponseDTO(i, "product-" + i, 2, new BigDecimal("19.99")));
+            }
+            history.add(new OrderResponseDTO(o, 1L, now, items, new BigDecimal("199.90")));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeHistory() throws Exception {
+        return objectMapper.writeValueAsBytes(history);
+    }
+}
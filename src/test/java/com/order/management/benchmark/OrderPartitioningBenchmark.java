@@ -0,0 +1,299 @@
+package com.order.management.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * History and report queries on a multi-year order table, before and after partitioning by
+ * month. {@code heap} is the single-table layout with the queries as they were; {@code partitioned}
+ * is the monthly layout of V12 with the rewritten queries from {@code OrderRepository} and
+ * {@code OrderHistoryStreamRepository}.
+ *
+ * <p>Needs PostgreSQL, given by the {@code url} parameter. Each layout is seeded once into its
+ * own schema ({@code bench_heap}, {@code bench_partitioned}) and reused by later runs of the
+ * same size, which {@code years} and {@code ordersPerDay} set:
+ * <pre>
+ * mvn -Pjmh verify -Djmh.args="OrderPartitioning -p url=jdbc:postgresql://localhost:5433/bench?user=root&amp;password=root"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class OrderPartitioningBenchmark {
+
+    private static final int CUSTOMERS = 50_000;
+    private static final int PRODUCTS = 10_000;
+    private static final int ITEMS_PER_ORDER = 3;
+    private static final LocalDate START = LocalDate.of(2022, 1, 1);
+
+    @Param({"heap", "partitioned"})
+    public String layout;
+
+    @Param("jdbc:postgresql://localhost:5433/bench?user=root&password=root")
+    public String url;
+
+    @Param("3")
+    public int years;
+
+    @Param("2000")
+    public int ordersPerDay;
+
+    private Connection connection;
+    private PreparedStatement history;
+    private PreparedStatement pageKeys;
+    private PreparedStatement pageLines;
+    private PreparedStatement summaries;
+    private PreparedStatement ordersPerCustomer;
+    private LocalDateTime recent;
+
+    @Setup(Level.Trial)
+    public void seed() throws SQLException {
+        long orders = (long) ordersPerDay * (START.plusYears(years).toEpochDay() - START.toEpochDay());
+        recent = START.plusYears(years).minusMonths(1).atStartOfDay();
+
+        connection = DriverManager.getConnection(url);
+        String schema = "bench_" + layout;
+        try (Statement statement = connection.createStatement()) {
+            if (!seeded(statement, schema, orders)) {
+                statement.execute("DROP SCHEMA IF EXISTS " + schema + " CASCADE");
+                statement.execute("CREATE SCHEMA " + schema);
+                statement.execute("SET search_path = " + schema);
+                if (layout.equals("heap")) {
+                    createHeap(statement);
+                } else {
+                    createPartitioned(statement);
+                }
+                load(statement, orders, ordersPerDay);
+            }
+            statement.execute("SET search_path = " + schema);
+        }
+        Queries queries = layout.equals("heap") ? Queries.BEFORE : Queries.AFTER;
+        history = connection.prepareStatement(queries.history);
+        pageKeys = connection.prepareStatement(queries.pageKeys);
+        pageLines = connection.prepareStatement(queries.pageLines);
+        summaries = connection.prepareStatement(SUMMARIES_SQL);
+        ordersPerCustomer = connection.prepareStatement(ORDERS_PER_CUSTOMER_SQL);
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws SQLException {
+        connection.close();
+    }
+
+    /** A customer's whole history with items: {@code GET /api/orders/customer/{id}}. */
+    @Benchmark
+    public void customerHistory(Blackhole blackhole) throws SQLException {
+        history.setLong(1, randomCustomer());
+        consume(history, blackhole);
+    }
+
+    /** One page of 20 orders from the last month of history, then its items. */
+    @Benchmark
+    public void recentHistoryPage(Blackhole blackhole) throws SQLException {
+        pageKeys.setLong(1, randomCustomer());
+        pageKeys.setTimestamp(2, Timestamp.valueOf(recent));
+        pageKeys.setTimestamp(3, Timestamp.valueOf(recent));
+        pageKeys.setLong(4, 0);
+        Long[] ids = new Long[20];
+        int n = 0;
+        Timestamp first = null;
+        Timestamp last = null;
+        try (ResultSet rs = pageKeys.executeQuery()) {
+            while (rs.next()) {
+                ids[n++] = rs.getLong(1);
+                last = rs.getTimestamp(2);
+                first = first == null ? last : first;
+            }
+        }
+        if (n == 0) {
+            return;
+        }
+        pageLines.setArray(1, connection.createArrayOf("bigint", Arrays.copyOf(ids, n)));
+        if (layout.equals("partitioned")) {
+            pageLines.setTimestamp(2, first);
+            pageLines.setTimestamp(3, last);
+        }
+        consume(pageLines, blackhole);
+    }
+
+    /** Order summaries from the stored totals: {@code GET /api/orders/customer/{id}/summary}. */
+    @Benchmark
+    public void customerSummaries(Blackhole blackhole) throws SQLException {
+        summaries.setLong(1, randomCustomer());
+        consume(summaries, blackhole);
+    }
+
+    /** The raw per-customer aggregation the stats consistency check runs. */
+    @Benchmark
+    @Warmup(iterations = 1, time = 5)
+    @Measurement(iterations = 3, time = 10)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void ordersPerCustomer(Blackhole blackhole) throws SQLException {
+        consume(ordersPerCustomer, blackhole);
+    }
+
+    private static long randomCustomer() {
+        return 1 + ThreadLocalRandom.current().nextInt(CUSTOMERS);
+    }
+
+    private static void consume(PreparedStatement query, Blackhole blackhole) throws SQLException {
+        try (ResultSet rs = query.executeQuery()) {
+            while (rs.next()) {
+                blackhole.consume(rs.getLong(1));
+            }
+        }
+    }
+
+    private static boolean seeded(Statement statement, String schema, long orders) throws SQLException {
+        try (ResultSet rs = statement.executeQuery(
+                "SELECT to_regclass('" + schema + ".orders') IS NOT NULL")) {
+            rs.next();
+            if (!rs.getBoolean(1)) {
+                return false;
+            }
+        }
+        try (ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM " + schema + ".orders")) {
+            rs.next();
+            return rs.getLong(1) == orders;
+        }
+    }
+
+    private static void createHeap(Statement statement) throws SQLException {
+        statement.execute("""
+                CREATE TABLE orders (id BIGINT PRIMARY KEY, customer_id INTEGER NOT NULL, order_date TIMESTAMP NOT NULL,
+                                     inventory_applied BOOLEAN NOT NULL, total_amount NUMERIC(14, 2) NOT NULL,
+                                     item_count INTEGER NOT NULL)""");
+        statement.execute("""
+                CREATE TABLE order_item (id BIGINT PRIMARY KEY, order_id BIGINT NOT NULL, product_id INTEGER NOT NULL,
+                                         quantity INTEGER NOT NULL, unit_price NUMERIC(10, 2) NOT NULL,
+                                         order_date TIMESTAMP NOT NULL)""");
+        statement.execute("""
+                CREATE INDEX ON order_item (order_id, id) INCLUDE (product_id, quantity, unit_price)""");
+    }
+
+    private void createPartitioned(Statement statement) throws SQLException {
+        statement.execute("""
+                CREATE TABLE orders (id BIGINT NOT NULL, customer_id INTEGER NOT NULL, order_date TIMESTAMP NOT NULL,
+                                     inventory_applied BOOLEAN NOT NULL, total_amount NUMERIC(14, 2) NOT NULL,
+                                     item_count INTEGER NOT NULL, PRIMARY KEY (id, order_date))
+                    PARTITION BY RANGE (order_date)""");
+        statement.execute("""
+                CREATE TABLE order_item (id BIGINT NOT NULL, order_id BIGINT NOT NULL, product_id INTEGER NOT NULL,
+                                         quantity INTEGER NOT NULL, unit_price NUMERIC(10, 2) NOT NULL,
+                                         order_date TIMESTAMP NOT NULL, PRIMARY KEY (id, order_date))
+                    PARTITION BY RANGE (order_date)""");
+        statement.execute("""
+                CREATE INDEX ON order_item (order_id, order_date, id) INCLUDE (product_id, quantity, unit_price)""");
+        for (YearMonth month = YearMonth.from(START); month.isBefore(YearMonth.from(START.plusYears(years)));
+             month = month.plusMonths(1)) {
+            String range = "FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')";
+            String suffix = "_p" + month.getYear() + String.format("%02d", month.getMonthValue());
+            statement.execute("CREATE TABLE orders" + suffix + " PARTITION OF orders " + range);
+            statement.execute("CREATE TABLE order_item" + suffix + " PARTITION OF order_item " + range);
+        }
+    }
+
+    /**
+     * Orders spread evenly over the years, round-robin over customers, so every customer
+     * has a multi-year history.
+     */
+    private static void load(Statement statement, long orders, int ordersPerDay) throws SQLException {
+        statement.execute("""
+                INSERT INTO orders (id, customer_id, order_date, inventory_applied, total_amount, item_count)
+                SELECT g, 1 + g %% %d, TIMESTAMP '%s' + ((g - 1) * 86400.0 / %d) * INTERVAL '1 second', TRUE, 29.97, %d
+                  FROM generate_series(1, %d) g""".formatted(CUSTOMERS, START, ordersPerDay, ITEMS_PER_ORDER, orders));
+        statement.execute("""
+                INSERT INTO order_item (id, order_id, product_id, quantity, unit_price, order_date)
+                SELECT (o.id - 1) * %d + k, o.id, 1 + (o.id * 7 + k) %% %d, 1, 9.99, o.order_date
+                  FROM orders o, generate_series(1, %d) k""".formatted(ITEMS_PER_ORDER, PRODUCTS, ITEMS_PER_ORDER));
+        statement.execute("""
+                CREATE INDEX ON orders (customer_id, order_date, id) INCLUDE (total_amount, item_count)""");
+        statement.execute("VACUUM ANALYZE orders");
+        statement.execute("VACUUM ANALYZE order_item");
+    }
+
+    private static final String SUMMARIES_SQL = """
+            SELECT o.id, o.customer_id, o.order_date, o.item_count, o.total_amount
+              FROM orders o
+             WHERE o.customer_id = ?
+             ORDER BY o.order_date, o.id
+            """;
+
+    private static final String ORDERS_PER_CUSTOMER_SQL = """
+            SELECT o.customer_id, COUNT(o.id) FROM orders o GROUP BY o.customer_id
+            """;
+
+    private enum Queries {
+
+        BEFORE("""
+                SELECT o.id, o.order_date, o.total_amount, i.id, i.product_id, i.quantity, i.unit_price
+                  FROM orders o
+                  LEFT JOIN order_item i ON i.order_id = o.id
+                 WHERE o.customer_id = ?
+                 ORDER BY o.order_date, o.id, i.id
+                """, """
+                SELECT o.id, o.order_date
+                  FROM orders o
+                 WHERE o.customer_id = ?
+                   AND (o.order_date > ? OR (o.order_date = ? AND o.id > ?))
+                 ORDER BY o.order_date, o.id
+                 FETCH FIRST 20 ROWS ONLY
+                """, """
+                SELECT o.id, o.order_date, o.total_amount, i.id, i.product_id, i.quantity, i.unit_price
+                  FROM orders o
+                  LEFT JOIN order_item i ON i.order_id = o.id
+                 WHERE o.id = ANY (?)
+                 ORDER BY o.order_date, o.id, i.id
+                """),
+
+        AFTER("""
+                SELECT o.id, o.order_date, o.total_amount, i.id, i.product_id, i.quantity, i.unit_price
+                  FROM orders o
+                  LEFT JOIN order_item i ON i.order_id = o.id AND i.order_date = o.order_date
+                 WHERE o.customer_id = ?
+                 ORDER BY o.order_date, o.id, i.id
+                """, """
+                SELECT o.id, o.order_date
+                  FROM orders o
+                 WHERE o.customer_id = ?
+                   AND o.order_date >= ?
+                   AND (o.order_date > ? OR o.id > ?)
+                 ORDER BY o.order_date, o.id
+                 FETCH FIRST 20 ROWS ONLY
+                """, """
+                SELECT o.id, o.order_date, o.total_amount, i.id, i.product_id, i.quantity, i.unit_price
+                  FROM orders o
+                  LEFT JOIN order_item i ON i.order_id = o.id AND i.order_date = o.order_date
+                 WHERE o.id = ANY (?)
+                   AND o.order_date BETWEEN ? AND ?
+                 ORDER BY o.order_date, o.id, i.id
+                """);
+
+        private final String history;
+        private final String pageKeys;
+        private final String pageLines;
+
+        Queries(String history, String pageKeys, String pageLines) {
+            this.history = history;
+            this.pageKeys = pageKeys;
+            this.pageLines = pageLines;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.order.management.benchmark;
+
+import com.order.management.ManagementApplication;
+import com.order.management.dto.OrderItemRequestDTO;
+import com.order.management.dto.OrderRequestDTO;
+import com.order.management.dto.OrderResponseDTO;
+import com.order.management.service.OrderService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end {@code placeOrder} against the in-process H2 database of the "test" profile.
+ * Absolute numbers are not comparable with PostgreSQL, but relative changes in the number
+ * of statements and the work done per order show up clearly.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PlaceOrderBenchmark {
+
+    private static final int PRODUCTS = 100;
+
+    @Param({"1", "10"})
+    public int lines;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private JdbcTemplate jdbcTemplate;
+    private OrderRequestDTO request;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(ManagementApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run("--logging.level.root=WARN");
+        orderService = context.getBean(OrderService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        jdbcTemplate.update("INSERT INTO customer (name, email, phone) VALUES ('Bench', 'bench@example.com', '555-0000')");
+        Long customerId = jdbcTemplate.queryForObject("SELECT id FROM customer", Long.class);
+        jdbcTemplate.update("INSERT INTO customer_order_stats (customer_id, order_count) VALUES (?, 0)", customerId);
+        for (int i = 0; i < PRODUCTS; i++) {
+            jdbcTemplate.update("INSERT INTO product (name, price, stock) VALUES (?, 9.99, 0)", "product-" + i);
+        }
+        List<Long> productIds = jdbcTemplate.queryForList("SELECT id FROM product ORDER BY id", Long.class);
+
+        List<OrderItemRequestDTO> items = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            items.add(new OrderItemRequestDTO(productIds.get(i), 1));
+        }
+        request = new OrderRequestDTO(customerId, items);
+    }
+
+    @Setup(Level.Iteration)
+    public void restock() {
+        jdbcTemplate.update("UPDATE product SET stock = 100000000");
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public OrderResponseDTO placeOrder() {
+        return orderService.placeOrder(request);
+    }
+}
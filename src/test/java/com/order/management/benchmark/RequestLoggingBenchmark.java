@@ -0,0 +1,132 @@
+package com.order.management.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.order.management.dto.OrderItemRequestDTO;
+import com.order.management.dto.OrderRequestDTO;
+import com.order.management.logging.PayloadSummary;
+import com.order.management.logging.RequestLogSampler;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logging cost on the request thread for one POST /api/orders, with the old and new
+ * controller logging. Output goes to a discarding stream through Spring Boot's console
+ * pattern, so only formatting and appender work is measured, not terminal I/O.
+ * <p>
+ * {@code summarizedSync} isolates the formatting saved by summaries and sampling;
+ * {@code summarizedAsync} adds the hand-off to the async appender, whose worker thread still
+ * formats the sampled events. Run with {@code -prof gc} to compare allocation per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestLoggingBenchmark {
+
+    private static final String PATTERN =
+            "%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p %pid --- [%t] %-40.40logger{39} : %m%n";
+
+    @Param({"5", "50"})
+    public int items;
+
+    private LoggerContext payloadContext;
+    private LoggerContext summaryContext;
+    private LoggerContext asyncContext;
+    private Logger payloadLogger;
+    private Logger summaryLogger;
+    private Logger asyncLogger;
+    private OrderRequestDTO dto;
+
+    @Setup
+    public void setUp() {
+        List<OrderItemRequestDTO> lines = new ArrayList<>(items);
+        for (long i = 0; i < items; i++) {
+            lines.add(new OrderItemRequestDTO(i, 2));
+        }
+        dto = new OrderRequestDTO(42L, lines);
+
+        payloadContext = new LoggerContext();
+        payloadLogger = logger(payloadContext, appender(payloadContext));
+
+        summaryContext = sampledContext();
+        summaryLogger = logger(summaryContext, appender(summaryContext));
+
+        asyncContext = sampledContext();
+        AsyncAppender async = new AsyncAppender();
+        async.setContext(asyncContext);
+        async.setQueueSize(8192);
+        async.setNeverBlock(true);
+        async.addAppender(appender(asyncContext));
+        async.start();
+        asyncLogger = logger(asyncContext, async);
+    }
+
+    @TearDown
+    public void tearDown() {
+        payloadContext.stop();
+        summaryContext.stop();
+        asyncContext.stop();
+    }
+
+    /** What the controller did before: the whole DTO through Lombok toString, every request. */
+    @Benchmark
+    public void payloadToString() {
+        payloadLogger.info("POST /api/orders - payload: {}", dto);
+        payloadLogger.info("POST /api/orders - created order id={}", 1001L);
+    }
+
+    @Benchmark
+    public void summarizedSync() {
+        summaryLogger.debug("POST /api/orders - {}", PayloadSummary.of(dto));
+        summaryLogger.info(RequestLogSampler.REQUEST, "POST /api/orders - created order id={}", 1001L);
+    }
+
+    @Benchmark
+    public void summarizedAsync() {
+        asyncLogger.debug("POST /api/orders - {}", PayloadSummary.of(dto));
+        asyncLogger.info(RequestLogSampler.REQUEST, "POST /api/orders - created order id={}", 1001L);
+    }
+
+    private static LoggerContext sampledContext() {
+        LoggerContext context = new LoggerContext();
+        RequestLogSampler sampler = new RequestLogSampler();
+        sampler.setContext(context);
+        sampler.setEvery(10);
+        sampler.start();
+        context.addTurboFilter(sampler);
+        return context;
+    }
+
+    private static Appender<ILoggingEvent> appender(LoggerContext context) {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(context);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(OutputStream.nullOutputStream());
+        appender.start();
+        return appender;
+    }
+
+    private static Logger logger(LoggerContext context, Appender<ILoggingEvent> appender) {
+        Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.INFO);
+        root.addAppender(appender);
+        return context.getLogger("com.order.management.controller.OrderController");
+    }
+}
@@ -0,0 +1,102 @@
+package com.order.management.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Platform vs virtual threads for blocking request handling. Each simulated request spends
+ * {@code blockingMillis} waiting on I/O that does not hold a connection (client, downstream
+ * calls), then {@code dbMillis} holding one of {@code poolSize} connection permits, the way
+ * requests queue behind the concurrency limit and Hikari. Platform threads use a fixed pool
+ * the size of Tomcat's default worker pool; virtual threads get one thread per request.
+ * <p>
+ * The "virtual" parameter needs a Java 21 runtime and fails its setup on older JVMs. Add
+ * {@code -prof gc} to {@code jmh.args} to compare allocation as well. The end-to-end
+ * comparison is the load-test harness with {@code app.spring.profiles.active=vthreads}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class ThreadModelBenchmark {
+
+    private static final int TOMCAT_MAX_THREADS = 200;
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    @Param({"2000"})
+    public int requests;
+
+    @Param({"10", "50"})
+    public int blockingMillis;
+
+    @Param({"1"})
+    public int dbMillis;
+
+    @Param({"20"})
+    public int poolSize;
+
+    private ExecutorService executor;
+    private Semaphore connections;
+
+    @Setup(Level.Trial)
+    public void createExecutor() throws Exception {
+        executor = switch (threads) {
+            case "platform" -> Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+            case "virtual" -> newVirtualThreadPerTaskExecutor();
+            default -> throw new IllegalArgumentException(threads);
+        };
+        connections = new Semaphore(poolSize, true);
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+    }
+
+    /**
+     * One burst of {@code requests} concurrent requests; the score is the time to drain it.
+     */
+    @Benchmark
+    public void burst() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(requests);
+        for (int i = 0; i < requests; i++) {
+            executor.execute(() -> {
+                try {
+                    Thread.sleep(blockingMillis);
+                    connections.acquire();
+                    try {
+                        Thread.sleep(dbMillis);
+                    } finally {
+                        connections.release();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+    }
+
+    // Looked up reflectively so the test sources still compile for Java 17.
+    private static ExecutorService newVirtualThreadPerTaskExecutor() throws Exception {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("Virtual threads need Java 21; run the benchmarks with a Java 21 JDK", e);
+        }
+    }
+}
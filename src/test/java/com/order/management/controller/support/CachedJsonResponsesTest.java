@@ -0,0 +1,130 @@
+package com.order.management.controller.support;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.order.management.cache.ResponseCache;
+import com.order.management.config.ResponseCacheProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachedJsonResponsesTest {
+
+    private final ResponseCache responseCache = new ResponseCache(new ResponseCacheProperties(),
+            new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class));
+    private final CachedJsonResponses responses = new CachedJsonResponses(responseCache, new ObjectMapper());
+    private final AtomicInteger loads = new AtomicInteger();
+    private final AtomicInteger orderCount = new AtomicInteger(1);
+
+    @Test
+    void reportIsBuiltOnceUntilOrdersChange() {
+        ResponseEntity<byte[]> first = report(null);
+        ResponseEntity<byte[]> second = report(null);
+
+        assertThat(loads).hasValue(1);
+        assertThat(second.getBody()).isEqualTo(first.getBody());
+        assertThat(new String(first.getBody())).contains("\"orderCount\":1");
+
+        orderCount.incrementAndGet();
+        responseCache.changed(ResponseCache.Dataset.REPORTS);
+        ResponseEntity<byte[]> third = report(null);
+
+        assertThat(loads).hasValue(2);
+        assertThat(third.getHeaders().getETag()).isNotEqualTo(first.getHeaders().getETag());
+    }
+
+    @Test
+    void currentETagIsAnsweredWithoutLoading() {
+        String etag = report(null).getHeaders().getETag();
+
+        ResponseEntity<byte[]> notModified = report(etag);
+
+        assertThat(notModified.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(notModified.getBody()).isNull();
+        assertThat(loads).hasValue(1);
+
+        responseCache.changed(ResponseCache.Dataset.PRODUCTS);
+        assertThat(report(etag).getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+
+        // reloaded after a write, but the body, and so the ETag, is unchanged
+        responseCache.changed(ResponseCache.Dataset.REPORTS);
+        assertThat(report(etag).getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(loads).hasValue(2);
+
+        orderCount.incrementAndGet();
+        responseCache.changed(ResponseCache.Dataset.REPORTS);
+        assertThat(report(etag).getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void writeThroughAnotherInstanceIsSeenOnceTheCopyExpires() throws InterruptedException {
+        ResponseCacheProperties properties = new ResponseCacheProperties();
+        properties.setTtl(Duration.ofMillis(50));
+        CachedJsonResponses shortLived = new CachedJsonResponses(new ResponseCache(properties,
+                new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class)), new ObjectMapper());
+        String etag = report(shortLived, null).getHeaders().getETag();
+
+        // this instance's generation does not move for a write made elsewhere
+        orderCount.incrementAndGet();
+        assertThat(report(shortLived, etag).getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+
+        Thread.sleep(100);
+        ResponseEntity<byte[]> fresh = report(shortLived, etag);
+        assertThat(fresh.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(new String(fresh.getBody())).contains("\"orderCount\":2");
+    }
+
+    @Test
+    void valueETagIsReloadedOnlyAfterAWrite() {
+        AtomicInteger version = new AtomicInteger(3);
+        ResponseEntity<byte[]> first = product(version);
+        product(version);
+
+        assertThat(first.getHeaders().getETag()).isEqualTo("\"3\"");
+        assertThat(loads).hasValue(1);
+
+        // a write to another product moves the generation but not this product's version
+        responseCache.changed(ResponseCache.Dataset.PRODUCTS);
+        assertThat(product(version).getHeaders().getETag()).isEqualTo("\"3\"");
+        assertThat(loads).hasValue(2);
+
+        version.incrementAndGet();
+        responseCache.changed(ResponseCache.Dataset.PRODUCTS);
+        assertThat(product(version).getHeaders().getETag()).isEqualTo("\"4\"");
+    }
+
+    private ResponseEntity<byte[]> report(String ifNoneMatch) {
+        return report(responses, ifNoneMatch);
+    }
+
+    private ResponseEntity<byte[]> report(CachedJsonResponses responses, String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/reports/orders-per-customer");
+        if (ifNoneMatch != null) {
+            request.addHeader("If-None-Match", ifNoneMatch);
+        }
+        return responses.byGeneration(new ServletWebRequest(request, new MockHttpServletResponse()),
+                ResponseCache.Dataset.REPORTS, "orders-per-customer", () -> {
+                    loads.incrementAndGet();
+                    return List.of(Map.of("customerId", 1, "orderCount", orderCount.get()));
+                });
+    }
+
+    private ResponseEntity<byte[]> product(AtomicInteger version) {
+        return responses.byValue(ResponseCache.Dataset.PRODUCTS, "product/1", () -> {
+            loads.incrementAndGet();
+            return Map.of("id", 1, "version", version.get());
+        }, value -> "\"" + value.get("version") + "\"");
+    }
+}
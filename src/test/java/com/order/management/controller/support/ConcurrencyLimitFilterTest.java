@@ -0,0 +1,77 @@
+package com.order.management.controller.support;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyLimitFilterTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Test
+    void rejectsWith503WhenNoPermitFreesUpInTime() throws Exception {
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(1, Duration.ofMillis(50), objectMapper);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        HttpServlet blocking = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                entered.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> first = executor.submit(() -> {
+                filter.doFilter(request(), new MockHttpServletResponse(), new MockFilterChain(blocking));
+                return null;
+            });
+            assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(filter.inFlight()).isEqualTo(1);
+
+            MockHttpServletResponse rejected = new MockHttpServletResponse();
+            filter.doFilter(request(), rejected, new MockFilterChain());
+
+            assertThat(rejected.getStatus()).isEqualTo(503);
+            assertThat(rejected.getHeader("Retry-After")).isEqualTo("1");
+            assertThat(objectMapper.readTree(rejected.getContentAsByteArray()).get("errorCode").asText())
+                    .isEqualTo("SERVICE_BUSY");
+            assertThat(filter.rejectedCount()).isEqualTo(1);
+
+            release.countDown();
+            first.get(5, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+
+        MockHttpServletResponse admitted = new MockHttpServletResponse();
+        filter.doFilter(request(), admitted, new MockFilterChain());
+        assertThat(admitted.getStatus()).isEqualTo(200);
+        assertThat(filter.inFlight()).isZero();
+    }
+
+    private static MockHttpServletRequest request() {
+        return new MockHttpServletRequest("POST", "/api/orders");
+    }
+}
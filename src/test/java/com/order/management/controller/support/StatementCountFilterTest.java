@@ -0,0 +1,76 @@
+package com.order.management.controller.support;
+
+import com.order.management.metrics.StatementCountingDataSource;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StatementCountFilterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(new StatementCountingDataSource(h2()));
+
+    @Test
+    void recordsStatementsRunByTheRequestUnderItsRoutePattern() throws Exception {
+        jdbcTemplate.execute("CREATE TABLE item (id INT PRIMARY KEY)");
+        StatementCountFilter filter = new StatementCountFilter(registry);
+
+        HttpServlet handler = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/items/{id}");
+                jdbcTemplate.batchUpdate("INSERT INTO item (id) VALUES (?)",
+                                         List.of(new Object[]{1}, new Object[]{2}, new Object[]{3}));
+                jdbcTemplate.queryForObject("SELECT count(*) FROM item", Integer.class);
+                jdbcTemplate.update("DELETE FROM item WHERE id = ?", 3);
+            }
+        };
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/items/7"), new MockHttpServletResponse(),
+                        new MockFilterChain(handler));
+
+        DistributionSummary summary = registry.get(StatementCountFilter.METRIC)
+                .tag("method", "POST").tag("uri", "/api/items/{id}").summary();
+        assertThat(summary.count()).isEqualTo(1);
+        assertThat(summary.totalAmount()).isEqualTo(3); // the batch is one round trip
+    }
+
+    @Test
+    void statementsOutsideARequestAreNotCounted() throws Exception {
+        StatementCountFilter filter = new StatementCountFilter(registry);
+        jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/nothing"), new MockHttpServletResponse(),
+                        new MockFilterChain());
+
+        DistributionSummary summary = registry.get(StatementCountFilter.METRIC).tag("uri", "UNKNOWN").summary();
+        assertThat(summary.totalAmount()).isZero();
+    }
+
+    @Test
+    void wrapperStillUnwrapsToThePool() throws Exception {
+        DataSource wrapped = new StatementCountingDataSource(h2());
+
+        assertThat(wrapped.isWrapperFor(JdbcDataSource.class)).isTrue();
+        assertThat(wrapped.unwrap(JdbcDataSource.class)).isNotNull();
+    }
+
+    private static DataSource h2() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:statements-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        return dataSource;
+    }
+}
@@ -0,0 +1,189 @@
+package com.order.management.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.order.management.config.IdempotencyProperties;
+import com.order.management.exception.IdempotencyKeyMismatchException;
+import com.order.management.exception.InsufficientStockException;
+import com.order.management.model.IdempotencyKey;
+import com.order.management.repository.IdempotencyKeyRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnableConfigurationProperties(IdempotencyProperties.class)
+@Import({IdempotencyStore.class, JacksonAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // the store commits its own transactions
+class IdempotencyStoreTest {
+
+    @Autowired
+    private IdempotencyStore store;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private IdempotencyProperties properties;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @AfterEach
+    void cleanUp() {
+        idempotencyKeyRepository.deleteAll();
+    }
+
+    @Test
+    void retryGetsTheOriginalResponseWithoutRunningAgain() throws Exception {
+        ResponseEntity<?> first = store.execute("k-1", Map.of("qty", 1), () -> created(42));
+        ResponseEntity<?> retry = store.execute("k-1", Map.of("qty", 1), () -> created(43));
+
+        assertThat(executions).hasValue(1);
+        assertThat(first.getHeaders().containsKey(IdempotencyStore.REPLAYED_HEADER)).isFalse();
+        assertThat(retry.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(retry.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(retry.getHeaders().getLocation()).isEqualTo(URI.create("/orders/42"));
+        assertThat(body(retry)).isEqualTo("{\"id\":42}");
+    }
+
+    @Test
+    void storedResponseIsReplayedByAnotherInstance() throws Exception {
+        store.execute("k-2", Map.of("qty", 1), () -> created(7));
+
+        ResponseEntity<?> replayed = newStore().execute("k-2", Map.of("qty", 1), () -> created(8));
+
+        assertThat(executions).hasValue(1);
+        assertThat(body(replayed)).isEqualTo("{\"id\":7}");
+    }
+
+    @Test
+    void keyReusedForADifferentRequestIsRejected() {
+        store.execute("k-3", Map.of("qty", 1), () -> created(1));
+
+        assertThatThrownBy(() -> store.execute("k-3", Map.of("qty", 2), () -> created(2)))
+                .isInstanceOf(IdempotencyKeyMismatchException.class);
+        assertThatThrownBy(() -> newStore().execute("k-3", Map.of("qty", 2), () -> created(2)))
+                .isInstanceOf(IdempotencyKeyMismatchException.class);
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void failedRequestLeavesNoKeyBehind() {
+        assertThatThrownBy(() -> store.execute("k-4", Map.of("qty", 1), () -> {
+            executions.incrementAndGet();
+            throw InsufficientStockException.forProduct(1L, 1, 0);
+        })).isInstanceOf(InsufficientStockException.class);
+
+        store.execute("k-4", Map.of("qty", 1), () -> created(5));
+
+        assertThat(executions).hasValue(2);
+        assertThat(idempotencyKeyRepository.findById("k-4")).get()
+                .satisfies(key -> assertThat(key.getResponseStatus()).isEqualTo(201));
+    }
+
+    @Test
+    void concurrentDuplicatesWaitForTheOriginal() throws Exception {
+        int duplicates = 8;
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(duplicates);
+        try {
+            List<Future<ResponseEntity<?>>> responses = new ArrayList<>();
+            for (int i = 0; i < duplicates; i++) {
+                responses.add(pool.submit(() -> store.execute("k-5", Map.of("qty", 1), () -> {
+                    await(release);
+                    return created(9);
+                })));
+            }
+            Thread.sleep(200);
+            release.countDown();
+            for (Future<ResponseEntity<?>> response : responses) {
+                assertThat(body(response.get(10, TimeUnit.SECONDS))).isEqualTo("{\"id\":9}");
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void expiredKeysAreReclaimedAndPurged() {
+        idempotencyKeyRepository.save(IdempotencyKey.builder()
+                .key("k-6").requestHash("old").responseStatus(200).responseBody("{}")
+                .createdAt(Instant.now().minusSeconds(7200)).expiresAt(Instant.now().minusSeconds(3600))
+                .build());
+        idempotencyKeyRepository.save(IdempotencyKey.builder()
+                .key("k-7").requestHash("old").responseStatus(200).responseBody("{}")
+                .createdAt(Instant.now().minusSeconds(7200)).expiresAt(Instant.now().minusSeconds(3600))
+                .build());
+
+        newStore().execute("k-6", Map.of("qty", 1), () -> created(11));
+        assertThat(executions).hasValue(1);
+
+        store.purgeExpired();
+        assertThat(idempotencyKeyRepository.findAll()).extracting(IdempotencyKey::getKey).containsExactly("k-6");
+    }
+
+    private IdempotencyStore newStore() {
+        return new IdempotencyStore(properties, idempotencyKeyRepository, transactionManager, objectMapper,
+                                    meterRegistry);
+    }
+
+    private ResponseEntity<?> created(long id) {
+        executions.incrementAndGet();
+        return ResponseEntity.created(URI.create("/orders/" + id)).body(Map.of("id", id));
+    }
+
+    private String body(ResponseEntity<?> response) throws Exception {
+        if (response.getBody() instanceof byte[] replayed) {
+            return new String(replayed, StandardCharsets.UTF_8);
+        }
+        return objectMapper.writeValueAsString(response.getBody());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
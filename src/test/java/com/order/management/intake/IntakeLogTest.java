@@ -0,0 +1,98 @@
+package com.order.management.intake;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IntakeLogTest {
+
+    private static final int SEGMENT_BYTES = 64 * 1024;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void recordsAfterTheCheckpointAreRecoveredOnReopen() throws IOException {
+        UUID second = UUID.randomUUID();
+        try (IntakeLog log = IntakeLog.open(dir, SEGMENT_BYTES)) {
+            IntakeLog.Entry first = append(log, "one");
+            append(log, second, "two");
+            append(log, "three");
+            log.complete(List.of(first.seq()));
+            assertThat(log.checkpoint()).isEqualTo(first.seq());
+        }
+
+        try (IntakeLog log = IntakeLog.open(dir, SEGMENT_BYTES)) {
+            assertThat(log.recovered()).extracting(IntakeLog.Entry::seq).containsExactly(2L, 3L);
+            IntakeLog.Entry recovered = log.recovered().get(0);
+            assertThat(recovered.trackingId()).isEqualTo(second);
+            assertThat(new String(recovered.payload(), StandardCharsets.UTF_8)).isEqualTo("two");
+            assertThat(log.outstandingCount()).isEqualTo(2);
+            assertThat(append(log, "four").seq()).isEqualTo(4);
+        }
+    }
+
+    @Test
+    void tornTailIsDiscardedAndOverwritten() throws IOException {
+        try (IntakeLog log = IntakeLog.open(dir, SEGMENT_BYTES)) {
+            append(log, "complete");
+            append(log, "torn");
+        }
+        // flip the last payload byte of the second record, as if the crash hit mid-write
+        try (RandomAccessFile file = new RandomAccessFile(segments().get(0).toFile(), "rw")) {
+            long offset = 2L * IntakeLog.HEADER_BYTES + "complete".length() + "torn".length() - 1;
+            file.seek(offset);
+            file.write('X');
+        }
+
+        try (IntakeLog log = IntakeLog.open(dir, SEGMENT_BYTES)) {
+            assertThat(log.recovered()).extracting(IntakeLog.Entry::seq).containsExactly(1L);
+            assertThat(append(log, "retried").seq()).isEqualTo(2);
+        }
+        try (IntakeLog log = IntakeLog.open(dir, SEGMENT_BYTES)) {
+            assertThat(log.recovered()).extracting(e -> new String(e.payload(), StandardCharsets.UTF_8))
+                    .containsExactly("complete", "retried");
+        }
+    }
+
+    @Test
+    void rollsOverSegmentsAndDeletesThoseBehindTheCheckpoint() throws IOException {
+        int segmentBytes = 4 * (IntakeLog.HEADER_BYTES + 10);
+        try (IntakeLog log = IntakeLog.open(dir, segmentBytes)) {
+            List<Long> seqs = Stream.generate(() -> append(log, "0123456789").seq()).limit(10).toList();
+            assertThat(segments()).hasSizeGreaterThan(2);
+
+            log.complete(seqs.subList(0, 9));
+            assertThat(log.checkpoint()).isEqualTo(9);
+            assertThat(segments()).hasSize(1);
+        }
+        try (IntakeLog log = IntakeLog.open(dir, segmentBytes)) {
+            assertThat(log.recovered()).extracting(IntakeLog.Entry::seq).containsExactly(10L);
+        }
+    }
+
+    private IntakeLog.Entry append(IntakeLog log, String payload) {
+        return append(log, UUID.randomUUID(), payload);
+    }
+
+    private static IntakeLog.Entry append(IntakeLog log, UUID trackingId, String payload) {
+        return log.append(trackingId, Instant.now(), payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> p.toString().endsWith(".log")).sorted().toList();
+        }
+    }
+}
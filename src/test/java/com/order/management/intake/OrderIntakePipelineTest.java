@@ -0,0 +1,129 @@
+package com.order.management.intake;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.order.management.dto.OrderIntakeStatusDTO;
+import com.order.management.dto.OrderItemRequestDTO;
+import com.order.management.dto.OrderRequestDTO;
+import com.order.management.model.OrderIntake;
+import com.order.management.repository.OrderIntakeRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+                properties = {"order-intake.mode=async", "order-intake.linger=20ms"})
+@ActiveProfiles("test")
+@DirtiesContext // close the pipeline before the log directory is deleted
+class OrderIntakePipelineTest {
+
+    @TempDir
+    static Path logDir;
+
+    @DynamicPropertySource
+    static void intakeLog(DynamicPropertyRegistry registry) {
+        registry.add("order-intake.log-dir", logDir::toString);
+    }
+
+    @Autowired
+    private OrderIntakePipeline pipeline;
+
+    @Autowired
+    private OrderIntakeRepository orderIntakeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private long customerId;
+    private long productId;
+
+    @BeforeEach
+    void seed() {
+        String tag = UUID.randomUUID().toString().substring(0, 8);
+        jdbcTemplate.update("INSERT INTO customer (name, email, phone) VALUES (?, ?, ?)",
+                "Ann", tag + "@example.com", tag);
+        customerId = jdbcTemplate.queryForObject("SELECT id FROM customer WHERE phone = ?", Long.class, tag);
+        jdbcTemplate.update("INSERT INTO product (name, price, stock) VALUES (?, 2.50, 5)", "pen-" + tag);
+        productId = jdbcTemplate.queryForObject("SELECT id FROM product WHERE name = ?", Long.class, "pen-" + tag);
+    }
+
+    @Test
+    void acceptedOrdersArePlacedOrRejectedAsynchronously() throws Exception {
+        OrderIntakeStatusDTO first = pipeline.submit(order(3));
+        OrderIntakeStatusDTO second = pipeline.submit(order(3));
+        assertThat(first.getStatus()).isEqualTo(OrderIntakeStatusDTO.QUEUED);
+
+        OrderIntakeStatusDTO placed = awaitCompletion(first.getTrackingId());
+        OrderIntakeStatusDTO rejected = awaitCompletion(second.getTrackingId());
+
+        assertThat(placed.getStatus()).isEqualTo("PLACED");
+        assertThat(placed.getOrderId()).isNotNull();
+        assertThat(rejected.getStatus()).isEqualTo("REJECTED");
+        assertThat(rejected.getErrorCode()).isEqualTo("INSUFFICIENT_STOCK");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT stock FROM product WHERE id = ?", Integer.class, productId)).isEqualTo(2);
+    }
+
+    @Test
+    void recordsLeftInTheLogAreReplayedOnceOnRestart() throws Exception {
+        pipeline.stop();
+        assertThat(meterRegistry.find("order.intake.queued").gauge()).isNull();
+        UUID pending = UUID.randomUUID();
+        UUID alreadyCommitted = UUID.randomUUID();
+        try (IntakeLog log = IntakeLog.open(logDir, 64 * 1024)) {
+            // as if the process died after appending, and after committing the second order
+            // but before the checkpoint
+            log.append(pending, Instant.now(), objectMapper.writeValueAsBytes(order(1)));
+            log.append(alreadyCommitted, Instant.now(), objectMapper.writeValueAsBytes(order(1)));
+        }
+        orderIntakeRepository.insertAll(List.of(OrderIntake.builder()
+                .trackingId(alreadyCommitted)
+                .status(OrderIntake.Status.PLACED)
+                .acceptedAt(Instant.now())
+                .completedAt(Instant.now())
+                .build()));
+
+        pipeline.start();
+        assertThat(meterRegistry.find("order.intake.queued").gauges()).hasSize(1);
+
+        assertThat(awaitCompletion(pending).getStatus()).isEqualTo("PLACED");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT stock FROM product WHERE id = ?", Integer.class, productId)).isEqualTo(4);
+    }
+
+    private OrderRequestDTO order(int quantity) {
+        return new OrderRequestDTO(customerId, List.of(new OrderItemRequestDTO(productId, quantity)));
+    }
+
+    private OrderIntakeStatusDTO awaitCompletion(UUID trackingId) throws InterruptedException {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (System.nanoTime() < deadline) {
+            OrderIntakeStatusDTO status = pipeline.status(trackingId);
+            if (!OrderIntakeStatusDTO.QUEUED.equals(status.getStatus())) {
+                return status;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("Order " + trackingId + " was not committed in time");
+    }
+}
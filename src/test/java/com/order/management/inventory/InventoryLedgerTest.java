@@ -0,0 +1,171 @@
+package com.order.management.inventory;
+
+import com.order.management.config.InventoryProperties;
+import com.order.management.model.Customer;
+import com.order.management.model.Order;
+import com.order.management.model.OrderItem;
+import com.order.management.model.Product;
+import com.order.management.service.impl.LedgerStockReservationService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {"inventory.mode=ledger", "inventory.ledger.flush-batch-size=7"})
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnableConfigurationProperties(InventoryProperties.class)
+@Import({InventoryLedger.class, LedgerStockReservationService.class})
+class InventoryLedgerTest {
+
+    @Autowired
+    private InventoryLedger ledger;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private LedgerStockReservationService reservationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        // for the tests that commit; the others have been rolled back already
+        jdbcTemplate.update("DELETE FROM order_item");
+        jdbcTemplate.update("DELETE FROM orders");
+        jdbcTemplate.update("DELETE FROM product");
+        jdbcTemplate.update("DELETE FROM customer");
+    }
+
+    @Test
+    void recoverAppliesPendingOrdersBeforeSeeding() {
+        Customer customer = Customer.builder().name("Ann").email("ann@example.com").phone("555-0100").build();
+        Product product = Product.builder().name("pen").price(new BigDecimal("2.50")).stock(10).build();
+        entityManager.persist(customer);
+        entityManager.persist(product);
+        Order pending = Order.builder().customer(customer).inventoryApplied(false).build();
+        pending.addItem(OrderItem.builder().product(product).quantity(3).unitPrice(product.getPrice()).build());
+        pending.addItem(OrderItem.builder().product(product).quantity(2).unitPrice(product.getPrice()).build());
+        entityManager.persist(pending);
+        entityManager.flush();
+
+        ledger.recover();
+
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT stock FROM product WHERE id = ?", Integer.class, product.getId())).isEqualTo(5);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT inventory_applied FROM orders WHERE id = ?", Boolean.class, pending.getId())).isTrue();
+        assertThat(ledger.available(product.getId())).hasValue(5);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void concurrentFlushesApplyEachOrderOnce() throws Exception {
+        Product product = transactionTemplate.execute(status -> {
+            Customer customer = Customer.builder().name("Ann").email("ann@example.com").phone("555-0100").build();
+            Product pen = Product.builder().name("pen").price(new BigDecimal("2.50")).stock(1000).build();
+            entityManager.persist(customer);
+            entityManager.persist(pen);
+            for (int i = 0; i < 100; i++) {
+                persistPending(customer, pen, 1);
+            }
+            return pen;
+        });
+
+        int flushers = 4;
+        ExecutorService pool = Executors.newFixedThreadPool(flushers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> applied = new ArrayList<>();
+        try {
+            for (int i = 0; i < flushers; i++) {
+                Callable<Integer> flush = () -> {
+                    start.await();
+                    return ledger.flushAll();
+                };
+                applied.add(pool.submit(flush));
+            }
+            start.countDown();
+            int total = 0;
+            for (Future<Integer> future : applied) {
+                total += future.get(30, TimeUnit.SECONDS);
+            }
+            assertThat(total).isEqualTo(100);
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(stockInDb(product.getId())).isEqualTo(900);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void ordersCommittedDuringAnOverwriteStayInStep() throws Exception {
+        Customer customer = Customer.builder().name("Ann").email("ann@example.com").phone("555-0100").build();
+        Product product = Product.builder().name("pen").price(new BigDecimal("2.50")).stock(10).build();
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.persist(customer);
+            entityManager.persist(product);
+            persistPending(customer, product, 3);
+        });
+        ledger.counter(product.getId(), 10).tryTake(3);
+
+        ExecutorService orders = Executors.newSingleThreadExecutor();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                reservationService.stockOverwritten(product.getId(), 20);
+                // an order reserved and committed while the overwrite is still open
+                ledger.counter(product.getId(), 10).tryTake(2);
+                try {
+                    orders.submit(() -> transactionTemplate.executeWithoutResult(
+                            inner -> persistPending(entityManager.find(Customer.class, customer.getId()),
+                                                    entityManager.find(Product.class, product.getId()), 2)))
+                            .get(30, TimeUnit.SECONDS);
+                } catch (Exception ex) {
+                    throw new IllegalStateException(ex);
+                }
+                jdbcTemplate.update("UPDATE product SET stock = 20 WHERE id = ?", product.getId());
+            });
+        } finally {
+            orders.shutdownNow();
+        }
+        ledger.flushAll();
+
+        assertThat(stockInDb(product.getId())).isEqualTo(18);
+        assertThat(ledger.available(product.getId())).hasValue(18);
+    }
+
+    private void persistPending(Customer customer, Product product, int quantity) {
+        Order order = Order.builder().customer(customer).inventoryApplied(false).build();
+        order.addItem(OrderItem.builder().product(product).quantity(quantity).unitPrice(product.getPrice()).build());
+        entityManager.persist(order);
+    }
+
+    private Integer stockInDb(Long id) {
+        return jdbcTemplate.queryForObject("SELECT stock FROM product WHERE id = ?", Integer.class, id);
+    }
+}
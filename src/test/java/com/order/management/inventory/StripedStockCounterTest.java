@@ -0,0 +1,53 @@
+package com.order.management.inventory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StripedStockCounterTest {
+
+    @Test
+    void takeSpansStripesWhenHomeStripeIsShort() {
+        StripedStockCounter counter = new StripedStockCounter(10, 4);
+
+        assertThat(counter.tryTake(9)).isTrue();
+        assertThat(counter.sum()).isEqualTo(1);
+        assertThat(counter.tryTake(2)).isFalse();
+        assertThat(counter.sum()).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentTakesNeverOversell() throws InterruptedException {
+        StripedStockCounter counter = new StripedStockCounter(1_000, 8);
+        AtomicInteger sold = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < 8; t++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < 500; i++) {
+                    if (counter.tryTake(3)) {
+                        sold.addAndGet(3);
+                    }
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(sold.get()).isLessThanOrEqualTo(1_000);
+        assertThat(sold.get() + counter.sum()).isEqualTo(1_000);
+    }
+}
@@ -0,0 +1,117 @@
+package com.order.management.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.order.management.dto.CustomerDTO;
+import com.order.management.dto.OrderItemRequestDTO;
+import com.order.management.dto.OrderRequestDTO;
+import com.order.management.dto.ProductDTO;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thin wrapper over {@link HttpClient} for the order-management REST API: request builders
+ * for the load loop and blocking helpers used to seed data before a run.
+ */
+class ApiClient {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final URI baseUri;
+    private final String runTag;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final AtomicInteger customerSeq = new AtomicInteger();
+
+    /**
+     * @param runTag mixed into seeded e-mail addresses and phone numbers, which are unique
+     *               columns, so repeated runs against the same database do not collide
+     */
+    ApiClient(URI baseUri, String runTag, ObjectMapper objectMapper) {
+        this.baseUri = baseUri;
+        this.runTag = runTag;
+        this.objectMapper = objectMapper;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    URI baseUri() {
+        return baseUri;
+    }
+
+    ObjectMapper objectMapper() {
+        return objectMapper;
+    }
+
+    HttpResponse<byte[]> send(HttpRequest request) throws IOException, InterruptedException {
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    HttpRequest get(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+    }
+
+    HttpRequest post(String path, Object body) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(toJson(body)))
+                .build();
+    }
+
+    HttpRequest placeOrder(long customerId, List<OrderItemRequestDTO> items) {
+        return post("/api/orders", new OrderRequestDTO(customerId, items));
+    }
+
+    long createCustomer(String name) throws IOException, InterruptedException {
+        int seq = customerSeq.incrementAndGet();
+        CustomerDTO dto = CustomerDTO.builder()
+                .name(name)
+                .email(name + "-" + runTag + "-" + seq + "@load.test")
+                .phone(runTag + "-" + seq)
+                .build();
+        return expectOk(post("/api/customers", dto)).get("id").asLong();
+    }
+
+    long createProduct(String name, BigDecimal price, int stock) throws IOException, InterruptedException {
+        ProductDTO dto = ProductDTO.builder().name(name).price(price).stock(stock).build();
+        return expectOk(post("/api/products", dto)).get("id").asLong();
+    }
+
+    int productStock(long productId) throws IOException, InterruptedException {
+        return expectOk(get("/api/products/" + productId)).get("stock").asInt();
+    }
+
+    JsonNode expectOk(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = send(request);
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException(request.method() + " " + request.uri() + " returned "
+                    + response.statusCode() + ": " + new String(response.body()));
+        }
+        return objectMapper.readTree(response.body());
+    }
+
+    private byte[] toJson(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.order.management.loadtest;
+
+import com.order.management.dto.OrderItemRequestDTO;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Every request buys one unit of the same SKU, so all writers contend on a single product
+ * row (or ledger counter). Once stock runs out the remaining requests should fail fast with
+ * {@code INSUFFICIENT_STOCK}; the run then checks that exactly the seeded stock was sold.
+ */
+class FlashSaleScenario implements LoadScenario {
+
+    private final String runTag;
+    private final int customers;
+    private final int stock;
+
+    private long[] customerIds;
+    private long productId;
+
+    FlashSaleScenario(LoadTestOptions options) {
+        this.runTag = options.runTag();
+        this.customers = options.intParam("customers", 100);
+        this.stock = options.intParam("stock", 5_000);
+    }
+
+    @Override
+    public String name() {
+        return "flash-sale";
+    }
+
+    @Override
+    public void seed(ApiClient api) throws Exception {
+        customerIds = new long[customers];
+        for (int i = 0; i < customers; i++) {
+            customerIds[i] = api.createCustomer("flash-" + i);
+        }
+        productId = api.createProduct("flash-sale-" + runTag, new BigDecimal("19.99"), stock);
+    }
+
+    @Override
+    public LabelledRequest next(ApiClient api, ThreadLocalRandom random) {
+        long customerId = customerIds[random.nextInt(customerIds.length)];
+        return new LabelledRequest("POST /api/orders",
+                api.placeOrder(customerId, List.of(new OrderItemRequestDTO(productId, 1))));
+    }
+
+    @Override
+    public Map<String, Object> verify(ApiClient api, LoadRecorder recorder) throws Exception {
+        // warm-up orders are not recorded, so units sold may exceed the measured successes
+        int remaining = api.productStock(productId);
+        Map<String, Object> checks = new LinkedHashMap<>();
+        checks.put("initialStock", stock);
+        checks.put("remainingStock", remaining);
+        checks.put("unitsSold", stock - remaining);
+        checks.put("measuredOrders", recorder.count(LoadRecorder.OK));
+        checks.put("oversold", remaining < 0 || recorder.count(LoadRecorder.OK) > stock);
+        return checks;
+    }
+}
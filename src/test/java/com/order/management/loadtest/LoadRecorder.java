@@ -0,0 +1,102 @@
+package com.order.management.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects latencies (microseconds, overall and per request label) and outcome counts.
+ * Non-2xx responses are classified by the {@code errorCode} of the ErrorResponse body, so
+ * {@code INSUFFICIENT_STOCK} and {@code INTERNAL_ERROR} come out exactly as
+ * GlobalExceptionHandler reports them; transport failures are counted as {@code CLIENT_*}.
+ */
+class LoadRecorder {
+
+    static final String OK = "OK";
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private final ObjectMapper objectMapper;
+    private final Histogram overall = newHistogram();
+    private final Map<String, Histogram> byLabel = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+
+    LoadRecorder(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    void recordResponse(String label, long latencyNanos, int status, byte[] body) {
+        record(label, latencyNanos, status / 100 == 2 ? OK : errorCode(status, body));
+    }
+
+    void recordFailure(String label, long latencyNanos, Throwable failure) {
+        record(label, latencyNanos, "CLIENT_" + failure.getClass().getSimpleName());
+    }
+
+    long count(String outcome) {
+        LongAdder adder = outcomes.get(outcome);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    long totalCount() {
+        return overall.getTotalCount();
+    }
+
+    Map<String, Long> outcomes() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        outcomes.forEach((outcome, adder) -> snapshot.put(outcome, adder.sum()));
+        return snapshot;
+    }
+
+    Map<String, LatencySummary> latencies() {
+        Map<String, LatencySummary> summary = new LinkedHashMap<>();
+        summary.put("all", LatencySummary.of(overall));
+        new TreeMap<>(byLabel).forEach((label, histogram) -> summary.put(label, LatencySummary.of(histogram)));
+        return summary;
+    }
+
+    private void record(String label, long latencyNanos, String outcome) {
+        long micros = Math.min(Math.max(1, latencyNanos / 1_000), HIGHEST_TRACKABLE_MICROS);
+        overall.recordValue(micros);
+        byLabel.computeIfAbsent(label, l -> newHistogram()).recordValue(micros);
+        outcomes.computeIfAbsent(outcome, o -> new LongAdder()).increment();
+    }
+
+    private String errorCode(int status, byte[] body) {
+        try {
+            JsonNode code = objectMapper.readTree(body).get("errorCode");
+            if (code != null && code.isTextual()) {
+                return code.asText();
+            }
+        } catch (Exception ignored) {
+            // not an ErrorResponse (e.g. a container error page); fall back to the status
+        }
+        return "HTTP_" + status;
+    }
+
+    private static Histogram newHistogram() {
+        return new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    }
+
+    record LatencySummary(long count, double mean, long p50, long p90, long p99, long p999, long max) {
+
+        static LatencySummary of(Histogram histogram) {
+            return new LatencySummary(
+                    histogram.getTotalCount(),
+                    Math.round(histogram.getMean() * 10) / 10.0,
+                    histogram.getValueAtPercentile(50),
+                    histogram.getValueAtPercentile(90),
+                    histogram.getValueAtPercentile(99),
+                    histogram.getValueAtPercentile(99.9),
+                    histogram.getMaxValue());
+        }
+    }
+}
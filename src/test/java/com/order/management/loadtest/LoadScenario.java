@@ -0,0 +1,32 @@
+package com.order.management.loadtest;
+
+import java.net.http.HttpRequest;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A workload the harness drives. {@link #seed} runs once before the clock starts; after that
+ * every worker thread calls {@link #next} in a loop, so implementations must be thread-safe.
+ */
+interface LoadScenario {
+
+    String name();
+
+    void seed(ApiClient api) throws Exception;
+
+    /**
+     * @return the next request to send, labelled with the endpoint it exercises so latencies
+     * can be reported per endpoint as well as overall
+     */
+    LabelledRequest next(ApiClient api, ThreadLocalRandom random);
+
+    /**
+     * Post-run consistency checks (e.g. no overselling), reported verbatim in the summary.
+     */
+    default Map<String, Object> verify(ApiClient api, LoadRecorder recorder) throws Exception {
+        return Map.of();
+    }
+
+    record LabelledRequest(String label, HttpRequest request) {
+    }
+}
@@ -0,0 +1,200 @@
+package com.order.management.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.order.management.ManagementApplication;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives the REST API with one of the {@link LoadScenario}s and writes a JSON summary with
+ * latency percentiles, throughput and outcome counts to {@code target/loadtest}.
+ * <p>
+ * Without {@code target} the application is started in-process on a random port against
+ * the H2 "test" profile, which is fine for comparing changes but not for absolute capacity
+ * numbers; point {@code target} at an instance backed by a throwaway PostgreSQL for those.
+ * <p>
+ * With {@code rate} the load is open-loop and latency is measured from each request's
+ * scheduled send time, so a stalled server shows up in the percentiles instead of simply
+ * slowing the generator down.
+ */
+@Slf4j
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        ConfigurableApplicationContext context = null;
+        String target = options.target();
+        if (target == null) {
+            context = startApplication(options);
+            target = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        }
+        try {
+            ApiClient api = new ApiClient(URI.create(target), options.runTag(), objectMapper);
+            LoadScenario scenario = scenario(options);
+            LoadSummary summary = run(options, scenario, api, objectMapper);
+            Path file = write(summary, options, objectMapper);
+            log.info("Summary written to {}", file.toAbsolutePath());
+            System.out.println(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(summary));
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    static LoadScenario scenario(LoadTestOptions options) {
+        return switch (options.scenario()) {
+            case "flash-sale" -> new FlashSaleScenario(options);
+            case "wide-catalogue" -> new WideCatalogueScenario(options);
+            case "report-polling" -> new ReportPollingScenario(options);
+            default -> throw new IllegalArgumentException("Unknown scenario: " + options.scenario()
+                    + " (expected flash-sale, wide-catalogue or report-polling)");
+        };
+    }
+
+    static LoadSummary run(LoadTestOptions options, LoadScenario scenario, ApiClient api,
+                           ObjectMapper objectMapper) throws Exception {
+        log.info("Seeding scenario {} against {}", scenario.name(), api.baseUri());
+        scenario.seed(api);
+
+        int threads = options.threads();
+        long intervalNanos = options.rate() > 0 ? (long) (threads * 1e9 / options.rate()) : 0;
+        LoadRecorder recorder = new LoadRecorder(objectMapper);
+        Instant startedAt = Instant.now();
+        long start = System.nanoTime();
+        long measureFrom = start + options.warmup().toNanos();
+        long stopAt = measureFrom + options.duration().toNanos();
+
+        log.info("Running {} threads for {} after {} warm-up{}", threads, options.duration(), options.warmup(),
+                intervalNanos > 0 ? " at " + options.rate() + " req/s" : "");
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            long firstSend = start + (intervalNanos * t) / threads;
+            workers.execute(() -> drive(scenario, api, recorder, intervalNanos, firstSend, measureFrom, stopAt));
+        }
+        workers.shutdown();
+        if (!workers.awaitTermination(options.warmup().plus(options.duration()).toSeconds() + 60, TimeUnit.SECONDS)) {
+            workers.shutdownNow();
+        }
+
+        Map<String, Object> checks = scenario.verify(api, recorder);
+        double seconds = options.duration().toNanos() / 1e9;
+        return new LoadSummary(
+                scenario.name(),
+                options.target() == null ? "in-process (h2)" : options.target(),
+                startedAt,
+                threads,
+                options.rate(),
+                options.warmup().toMillis() / 1000.0,
+                seconds,
+                recorder.totalCount(),
+                Math.round(recorder.totalCount() / seconds * 10) / 10.0,
+                recorder.count("INSUFFICIENT_STOCK"),
+                recorder.count("INTERNAL_ERROR"),
+                recorder.outcomes(),
+                recorder.latencies(),
+                checks,
+                options.values());
+    }
+
+    private static void drive(LoadScenario scenario, ApiClient api, LoadRecorder recorder,
+                              long intervalNanos, long firstSend, long measureFrom, long stopAt) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long nextSend = firstSend;
+        while (true) {
+            long intended;
+            if (intervalNanos > 0) {
+                intended = nextSend;
+                nextSend += intervalNanos;
+                long wait;
+                while ((wait = intended - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+            } else {
+                intended = System.nanoTime();
+            }
+            if (intended >= stopAt) {
+                return;
+            }
+            boolean measured = intended >= measureFrom;
+            LoadScenario.LabelledRequest next = scenario.next(api, random);
+            try {
+                HttpResponse<byte[]> response = api.send(next.request());
+                if (measured) {
+                    recorder.recordResponse(next.label(), System.nanoTime() - intended,
+                            response.statusCode(), response.body());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException e) {
+                if (measured) {
+                    recorder.recordFailure(next.label(), System.nanoTime() - intended, e);
+                }
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext startApplication(LoadTestOptions options) {
+        // devtools is on the test classpath and would otherwise relaunch main() in a restart loader
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        List<String> args = new ArrayList<>(List.of("--server.port=0", "--logging.level.root=WARN",
+                "--logging.level.com.order.management.loadtest=INFO"));
+        args.addAll(options.applicationArgs());
+        log.info("Starting in-process application with {}", args);
+        return new SpringApplicationBuilder(ManagementApplication.class)
+                .profiles("test")
+                .run(args.toArray(String[]::new));
+    }
+
+    private static Path write(LoadSummary summary, LoadTestOptions options, ObjectMapper objectMapper)
+            throws IOException {
+        Path dir = Files.createDirectories(Path.of(options.out()));
+        Path file = dir.resolve(summary.scenario() + "-" + options.runTag() + ".json");
+        objectMapper.copy().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), summary);
+        return file;
+    }
+
+    /**
+     * Machine-readable result of one run. Latencies are in microseconds.
+     */
+    record LoadSummary(
+            String scenario,
+            String target,
+            Instant startedAt,
+            int threads,
+            double targetRate,
+            double warmupSeconds,
+            double durationSeconds,
+            long requests,
+            double throughputPerSecond,
+            long insufficientStock,
+            long internalError,
+            Map<String, Long> outcomes,
+            Map<String, LoadRecorder.LatencySummary> latencyMicros,
+            Map<String, Object> checks,
+            Map<String, String> options) {
+    }
+}
@@ -0,0 +1,84 @@
+package com.order.management.loadtest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code key=value} (or {@code --key=value}) command-line options. Keys the harness does not
+ * know are kept as scenario parameters; keys prefixed with {@code app.} are passed to an
+ * in-process application (e.g. {@code app.inventory.mode=ledger}).
+ */
+record LoadTestOptions(Map<String, String> values, String runTag) {
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String arg : args) {
+            String option = arg.startsWith("--") ? arg.substring(2) : arg;
+            int eq = option.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Expected key=value but got: " + arg);
+            }
+            values.put(option.substring(0, eq), option.substring(eq + 1));
+        }
+        return new LoadTestOptions(values, Long.toString(System.currentTimeMillis(), 36));
+    }
+
+    String scenario() {
+        return values.getOrDefault("scenario", "flash-sale");
+    }
+
+    /**
+     * Base URL of a running application; when absent the harness starts one in-process
+     * against the H2 "test" profile.
+     */
+    String target() {
+        return values.get("target");
+    }
+
+    int threads() {
+        return intParam("threads", 16);
+    }
+
+    Duration warmup() {
+        return Duration.parse("PT" + values.getOrDefault("warmup", "5s"));
+    }
+
+    Duration duration() {
+        return Duration.parse("PT" + values.getOrDefault("duration", "30s"));
+    }
+
+    /**
+     * Aggregate requests per second across all threads, or 0 for a closed loop where every
+     * thread sends its next request as soon as the previous one returns.
+     */
+    double rate() {
+        return doubleParam("rate", 0);
+    }
+
+    String out() {
+        return values.getOrDefault("out", "target/loadtest");
+    }
+
+    List<String> applicationArgs() {
+        List<String> args = new ArrayList<>();
+        values.forEach((key, value) -> {
+            if (key.startsWith("app.")) {
+                args.add("--" + key.substring(4) + "=" + value);
+            }
+        });
+        return args;
+    }
+
+    int intParam(String key, int defaultValue) {
+        String value = values.get(key);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    double doubleParam(String key, double defaultValue) {
+        String value = values.get(key);
+        return value == null ? defaultValue : Double.parseDouble(value);
+    }
+}
@@ -0,0 +1,68 @@
+package com.order.management.loadtest;
+
+import com.order.management.dto.OrderItemRequestDTO;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Dashboards hammering the report endpoints while a trickle of orders keeps the counts
+ * moving underneath them.
+ */
+class ReportPollingScenario implements LoadScenario {
+
+    private final String runTag;
+    private final int customers;
+    private final int seedOrders;
+    private final double writeRatio;
+
+    private long[] customerIds;
+    private long productId;
+
+    ReportPollingScenario(LoadTestOptions options) {
+        this.runTag = options.runTag();
+        this.customers = options.intParam("customers", 500);
+        this.seedOrders = options.intParam("orders", 2_000);
+        this.writeRatio = options.doubleParam("write-ratio", 0.1);
+    }
+
+    @Override
+    public String name() {
+        return "report-polling";
+    }
+
+    @Override
+    public void seed(ApiClient api) throws Exception {
+        customerIds = new long[customers];
+        for (int i = 0; i < customers; i++) {
+            customerIds[i] = api.createCustomer("report-" + i);
+        }
+        productId = api.createProduct("report-sku-" + runTag, new BigDecimal("7.25"), Integer.MAX_VALUE / 2);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < seedOrders; i++) {
+            api.expectOk(order(api, random).request());
+        }
+    }
+
+    @Override
+    public LabelledRequest next(ApiClient api, ThreadLocalRandom random) {
+        double roll = random.nextDouble();
+        if (roll < writeRatio) {
+            return order(api, random);
+        }
+        if (roll < writeRatio + (1 - writeRatio) / 2) {
+            return new LabelledRequest("GET /api/reports/top-five-customers",
+                    api.get("/api/reports/top-five-customers"));
+        }
+        return new LabelledRequest("GET /api/reports/orders-per-customer",
+                api.get("/api/reports/orders-per-customer"));
+    }
+
+    private LabelledRequest order(ApiClient api, ThreadLocalRandom random) {
+        // skewed towards low ids so the top-five ranking is stable but not static
+        int index = (int) Math.min(customerIds.length - 1L, (long) (customerIds.length * Math.pow(random.nextDouble(), 3)));
+        return new LabelledRequest("POST /api/orders",
+                api.placeOrder(customerIds[index], List.of(new OrderItemRequestDTO(productId, 1))));
+    }
+}
@@ -0,0 +1,68 @@
+package com.order.management.loadtest;
+
+import com.order.management.dto.OrderItemRequestDTO;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Orders spread over a large catalogue with several lines each, so row locks rarely collide
+ * and the cost is dominated by per-order statement count, mixed with paged catalogue reads.
+ */
+class WideCatalogueScenario implements LoadScenario {
+
+    private final String runTag;
+    private final int customers;
+    private final int products;
+    private final int maxLines;
+    private final double readRatio;
+
+    private long[] customerIds;
+    private long[] productIds;
+
+    WideCatalogueScenario(LoadTestOptions options) {
+        this.runTag = options.runTag();
+        this.customers = options.intParam("customers", 200);
+        this.products = options.intParam("products", 2_000);
+        this.maxLines = options.intParam("lines", 5);
+        this.readRatio = options.doubleParam("read-ratio", 0.2);
+    }
+
+    @Override
+    public String name() {
+        return "wide-catalogue";
+    }
+
+    @Override
+    public void seed(ApiClient api) throws Exception {
+        customerIds = new long[customers];
+        for (int i = 0; i < customers; i++) {
+            customerIds[i] = api.createCustomer("wide-" + i);
+        }
+        productIds = new long[products];
+        for (int i = 0; i < products; i++) {
+            productIds[i] = api.createProduct("sku-" + runTag + "-" + i, new BigDecimal("4.50"), 1_000_000);
+        }
+    }
+
+    @Override
+    public LabelledRequest next(ApiClient api, ThreadLocalRandom random) {
+        if (random.nextDouble() < readRatio) {
+            int page = random.nextInt(Math.max(1, products / 50));
+            return new LabelledRequest("GET /api/products?page",
+                    api.get("/api/products?page=" + page + "&size=50"));
+        }
+        int lines = 1 + random.nextInt(maxLines);
+        List<OrderItemRequestDTO> items = new ArrayList<>(lines);
+        int first = random.nextInt(productIds.length);
+        for (int i = 0; i < lines; i++) {
+            // consecutive distinct products from a random offset; the service merges duplicates anyway
+            long productId = productIds[(first + i) % productIds.length];
+            items.add(new OrderItemRequestDTO(productId, 1 + random.nextInt(3)));
+        }
+        long customerId = customerIds[random.nextInt(customerIds.length)];
+        return new LabelledRequest("POST /api/orders", api.placeOrder(customerId, items));
+    }
+}
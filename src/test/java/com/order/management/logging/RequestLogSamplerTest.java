@@ -0,0 +1,52 @@
+package com.order.management.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import com.order.management.dto.OrderItemRequestDTO;
+import com.order.management.dto.OrderRequestDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestLogSamplerTest {
+
+    private final Logger logger = new LoggerContext().getLogger("test");
+
+    @Test
+    void keepsAboutOneInEveryMarkedEvent() {
+        RequestLogSampler sampler = new RequestLogSampler();
+        sampler.setEvery(10);
+
+        int kept = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (sampler.decide(RequestLogSampler.REQUEST, logger, Level.INFO, "x", null, null) == FilterReply.NEUTRAL) {
+                kept++;
+            }
+        }
+        assertThat(kept).isBetween(800, 1200);
+    }
+
+    @Test
+    void neverSamplesWarningsOrUnmarkedEvents() {
+        RequestLogSampler sampler = new RequestLogSampler();
+        sampler.setEvery(1_000_000);
+
+        for (int i = 0; i < 1000; i++) {
+            assertThat(sampler.decide(RequestLogSampler.REQUEST, logger, Level.WARN, "x", null, null))
+                    .isEqualTo(FilterReply.NEUTRAL);
+            assertThat(sampler.decide(null, logger, Level.INFO, "x", null, null)).isEqualTo(FilterReply.NEUTRAL);
+        }
+    }
+
+    @Test
+    void orderSummaryReportsCountsOnly() {
+        OrderRequestDTO dto = new OrderRequestDTO(7L, List.of(new OrderItemRequestDTO(1L, 2),
+                                                              new OrderItemRequestDTO(2L, 3)));
+
+        assertThat(PayloadSummary.of(dto)).hasToString("customerId=7 items=2 units=5");
+    }
+}
@@ -0,0 +1,205 @@
+package com.order.management.outbox;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.order.management.cache.ProductMetadataCache;
+import com.order.management.cache.ResponseCache;
+import com.order.management.config.InventoryProperties;
+import com.order.management.config.OutboxProperties;
+import com.order.management.config.ProductCacheProperties;
+import com.order.management.config.ResponseCacheProperties;
+import com.order.management.dto.OrderItemRequestDTO;
+import com.order.management.dto.OrderRequestDTO;
+import com.order.management.dto.ProductDTO;
+import com.order.management.model.Customer;
+import com.order.management.model.CustomerOrderStats;
+import com.order.management.model.OutboxEvent;
+import com.order.management.model.Product;
+import com.order.management.repository.OrderHistoryStreamRepository;
+import com.order.management.repository.OutboxEventRepository;
+import com.order.management.repository.OutboxOffsetRepository;
+import com.order.management.service.impl.JdbcStockReservationService;
+import com.order.management.service.impl.OptimisticLockRetry;
+import com.order.management.service.impl.OrderServiceImpl;
+import com.order.management.service.impl.ProductServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "outbox.relay.enabled=false")
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnableConfigurationProperties({OutboxProperties.class, ProductCacheProperties.class, ResponseCacheProperties.class,
+                               InventoryProperties.class})
+@Import({OrderServiceImpl.class, OptimisticLockRetry.class, ProductServiceImpl.class, JdbcStockReservationService.class,
+         OrderHistoryStreamRepository.class, ProductMetadataCache.class, ResponseCache.class,
+         ChangeEventRecorder.class})
+class OutboxRelayTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private OrderServiceImpl orderService;
+
+    @Autowired
+    private ProductServiceImpl productService;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxOffsetRepository outboxOffsetRepository;
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void writesAreRecordedAndPublishedInOrder() throws Exception {
+        Customer ann = Customer.builder().name("ann").email("ann@example.com").phone("555-0100").build();
+        entityManager.persist(ann);
+        entityManager.persist(new CustomerOrderStats(ann.getId(), 0));
+        Product pen = Product.builder().name("pen").price(new BigDecimal("2.50")).stock(10).build();
+        entityManager.persist(pen);
+        Product cap = Product.builder().name("cap").price(BigDecimal.ONE).stock(1).build();
+        entityManager.persist(cap);
+
+        Long orderId = orderService.placeOrder(
+                new OrderRequestDTO(ann.getId(), List.of(new OrderItemRequestDTO(pen.getId(), 3)))).getId();
+        productService.updateProduct(pen.getId(), new ProductDTO(pen.getId(), "pen", new BigDecimal("3.00"), 20));
+        productService.deleteProduct(cap.getId());
+
+        RecordingSink sink = new RecordingSink("test");
+        OutboxRelay relay = relay(sink, Duration.ZERO);
+        assertThat(relay.relay()).isEqualTo(3);
+
+        assertThat(sink.events).extracting(OutboxEvent::getEventType).containsExactly(
+                ChangeEventRecorder.ORDER_PLACED, ChangeEventRecorder.PRODUCT_UPDATED,
+                ChangeEventRecorder.PRODUCT_DELETED);
+        OutboxEvent placed = sink.events.get(0);
+        assertThat(placed.getAggregateId()).isEqualTo(orderId);
+        JsonNode payload = objectMapper.readTree(placed.getPayload());
+        assertThat(payload.get("customerId").asLong()).isEqualTo(ann.getId());
+        assertThat(payload.get("totalAmount").decimalValue()).isEqualByComparingTo("7.50");
+        assertThat(payload.get("items").get(0).get("quantity").asInt()).isEqualTo(3);
+        assertThat(objectMapper.readTree(sink.events.get(1).getPayload()).get("stock").asInt()).isEqualTo(20);
+        assertThat(sink.events.get(2).getAggregateId()).isEqualTo(cap.getId());
+
+        long last = sink.events.get(2).getId();
+        assertThat(outboxOffsetRepository.findById("test")).get()
+                .satisfies(offset -> assertThat(offset.getLastEventId()).isEqualTo(last));
+    }
+
+    @Test
+    void relayResumesFromTheStoredOffset() {
+        Product ink = product("ink");
+        RecordingSink first = new RecordingSink("file");
+        relay(first, Duration.ZERO).relay();
+        assertThat(first.events).hasSize(1);
+
+        productService.updateProduct(ink.getId(), new ProductDTO(ink.getId(), "ink", BigDecimal.ONE, 5));
+        RecordingSink afterRestart = new RecordingSink("file");
+        relay(afterRestart, Duration.ZERO).relay();
+
+        assertThat(afterRestart.events).extracting(OutboxEvent::getEventType)
+                .containsExactly(ChangeEventRecorder.PRODUCT_UPDATED);
+    }
+
+    @Test
+    void failedBatchIsOfferedAgain() {
+        product("cap");
+        RecordingSink sink = new RecordingSink("flaky");
+        sink.failuresLeft = 1;
+        OutboxRelay relay = relay(sink, Duration.ZERO);
+
+        assertThat(relay.relay()).isZero();
+        assertThat(relay.relay()).isEqualTo(1);
+        assertThat(sink.events).hasSize(1);
+    }
+
+    @Test
+    void relayWaitsForMissingIdsUntilTheGapTimeout() {
+        product("mug");
+        OutboxProperties properties = new OutboxProperties();
+        properties.getRelay().setGapTimeout(Duration.ZERO);
+        RecordingSink sink = new RecordingSink("gaps");
+        OutboxRelay relay = relay(sink, properties);
+        assertThat(relay.relay()).isEqualTo(1);
+        properties.getRelay().setGapTimeout(Duration.ofHours(1));
+
+        // an id drawn by a transaction that has not committed yet, or never will
+        jdbcTemplate.queryForObject("SELECT nextval('outbox_event_seq')", Long.class);
+        product("bowl");
+        assertThat(relay.relay()).isZero();
+
+        properties.getRelay().setGapTimeout(Duration.ZERO);
+        assertThat(relay.relay()).isEqualTo(1);
+        assertThat(sink.events).extracting(OutboxEvent::getPayload).last().asString().contains("bowl");
+    }
+
+    private Product product(String name) {
+        return toEntity(productService.addProduct(new ProductDTO(null, name, BigDecimal.TEN, 100)));
+    }
+
+    private Product toEntity(ProductDTO dto) {
+        return entityManager.find(Product.class, dto.getId());
+    }
+
+    private OutboxRelay relay(OutboxSink sink, Duration gapTimeout) {
+        OutboxProperties properties = new OutboxProperties();
+        properties.getRelay().setGapTimeout(gapTimeout);
+        return relay(sink, properties);
+    }
+
+    private OutboxRelay relay(OutboxSink sink, OutboxProperties properties) {
+        OutboxRelay relay = new OutboxRelay(properties, outboxEventRepository, outboxOffsetRepository,
+                                            List.of(sink), meterRegistry);
+        relay.afterSingletonsInstantiated();
+        return relay;
+    }
+
+    private static final class RecordingSink implements OutboxSink {
+
+        private final String name;
+        private final List<OutboxEvent> events = new ArrayList<>();
+        private int failuresLeft;
+
+        private RecordingSink(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public void publish(List<OutboxEvent> batch) {
+            if (failuresLeft > 0) {
+                failuresLeft--;
+                throw new IllegalStateException("sink unavailable");
+            }
+            events.addAll(batch);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.order.management.replica;
+
+import com.order.management.service.impl.CustomerServiceImpl;
+import com.order.management.service.impl.OrderServiceImpl;
+import com.order.management.service.impl.ProductServiceImpl;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionAttribute;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadWriteRoutingDataSourceTest {
+
+    private static final Duration MAX_LAG = Duration.ofSeconds(5);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private ReplicaPool replica;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        replica = new ReplicaPool("replica-1", database("replica"));
+        DataSource dataSource = new ReadWriteRoutingDataSource(database("primary"), List.of(replica), registry).lazy();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @Test
+    void readOnlyTransactionsGoToAnAvailableReplica() {
+        replica.lagMeasured(Duration.ofMillis(200), MAX_LAG);
+
+        assertThat(serverIn(readOnly)).isEqualTo("replica");
+        assertThat(serverIn(readWrite)).isEqualTo("primary");
+        assertThat(server()).isEqualTo("primary");
+        assertThat(routed("replica")).isEqualTo(1);
+    }
+
+    @Test
+    void readsFallBackToThePrimaryWhileTheReplicaLags() {
+        replica.lagMeasured(Duration.ofSeconds(30), MAX_LAG);
+
+        assertThat(serverIn(readOnly)).isEqualTo("primary");
+        assertThat(routed("fallback")).isEqualTo(1);
+
+        replica.lagMeasured(Duration.ZERO, MAX_LAG);
+        assertThat(serverIn(readOnly)).isEqualTo("replica");
+    }
+
+    @Test
+    void failedLagCheckTakesTheReplicaOutOfRotation() {
+        replica.lagMeasured(Duration.ZERO, MAX_LAG);
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(List.of(replica), MAX_LAG, registry);
+
+        // H2 has no replication functions, so the check fails like an unreachable replica would
+        monitor.check();
+
+        assertThat(replica.isAvailable()).isFalse();
+        assertThat(registry.get("datasource.replica.lag").tag("pool", "replica-1").gauge().value()).isNaN();
+        assertThat(serverIn(readOnly)).isEqualTo("primary");
+    }
+
+    @Test
+    void closingTheLazyProxyClosesThePrimaryPool() throws Exception {
+        HikariDataSource primary = new HikariDataSource();
+        primary.setJdbcUrl("jdbc:h2:mem:routing-pool");
+        DataSource dataSource = new ReadWriteRoutingDataSource(primary, List.of(replica), registry).lazy();
+        new JdbcTemplate(dataSource).queryForObject("SELECT 1", Integer.class);
+
+        // the context infers this destroy method from the bean, as it would for a plain Hikari pool
+        assertThat(dataSource).isInstanceOf(AutoCloseable.class);
+        ((AutoCloseable) dataSource).close();
+
+        assertThat(primary.isClosed()).isTrue();
+    }
+
+    @Test
+    void serviceReadsRunInReadOnlyTransactions() throws NoSuchMethodException {
+        assertReadOnly(ProductServiceImpl.class.getMethod("getProductById", Long.class));
+        assertReadOnly(ProductServiceImpl.class.getMethod("getAllProducts"));
+        assertReadOnly(ProductServiceImpl.class.getMethod("getProducts", int.class, int.class));
+        assertReadOnly(ProductServiceImpl.class.getMethod("streamAllProducts", Consumer.class));
+        assertReadOnly(CustomerServiceImpl.class.getMethod("getCustomerById", Long.class));
+        assertReadOnly(CustomerServiceImpl.class.getMethod("getAllCustomers"));
+        assertReadOnly(CustomerServiceImpl.class.getMethod("getCustomers", int.class, int.class));
+        assertReadOnly(CustomerServiceImpl.class.getMethod("streamAllCustomers", Consumer.class));
+        assertReadOnly(OrderServiceImpl.class.getMethod("getOrdersByCustomerId", Long.class));
+        assertReadOnly(OrderServiceImpl.class.getMethod("getOrdersByCustomerId", Long.class, String.class, int.class));
+        assertReadOnly(OrderServiceImpl.class.getMethod("getOrderSummariesByCustomerId", Long.class));
+        assertReadOnly(OrderServiceImpl.class.getMethod("streamOrdersByCustomerId", Long.class, Consumer.class));
+        assertReadOnly(OrderServiceImpl.class.getMethod("getOrderCountPerCustomer"));
+        assertReadOnly(OrderServiceImpl.class.getMethod("getTopCustomers", int.class));
+    }
+
+    private static void assertReadOnly(Method method) {
+        TransactionAttribute attribute = new AnnotationTransactionAttributeSource()
+                .getTransactionAttribute(method, method.getDeclaringClass());
+        assertThat(attribute).as(method.getName()).isNotNull();
+        assertThat(attribute.isReadOnly()).as(method.getName()).isTrue();
+    }
+
+    private String serverIn(TransactionTemplate transaction) {
+        return transaction.execute(status -> server());
+    }
+
+    private String server() {
+        return jdbcTemplate.queryForObject("SELECT name FROM server", String.class);
+    }
+
+    private double routed(String route) {
+        return registry.get("datasource.routed.connections").tag("route", route).counter().count();
+    }
+
+    private static DataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS server (name VARCHAR(20))");
+        jdbcTemplate.execute("DELETE FROM server");
+        jdbcTemplate.update("INSERT INTO server (name) VALUES (?)", name);
+        return dataSource;
+    }
+}
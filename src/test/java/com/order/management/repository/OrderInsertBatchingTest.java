@@ -0,0 +1,87 @@
+package com.order.management.repository;
+
+import com.order.management.model.Customer;
+import com.order.management.model.Order;
+import com.order.management.model.OrderItem;
+import com.order.management.model.Product;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures the statements issued to insert one order with 1, 10 and 100 lines, with JDBC
+ * batching on and with a batch size of 1, which has the same round-trip shape as the old
+ * IDENTITY mapping (one INSERT per row). Results are logged for comparison across runs.
+ */
+@Slf4j
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class OrderInsertBatchingTest {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Customer customer;
+    private Product product;
+    private Statistics statistics;
+
+    @BeforeEach
+    void seed() {
+        customer = Customer.builder().name("Ann").email("ann@example.com").phone("555-0100").build();
+        product = Product.builder().name("pen").price(new BigDecimal("2.50")).stock(1_000).build();
+        entityManager.persist(customer);
+        entityManager.persist(product);
+        entityManager.flush();
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 100})
+    void batchedInsertUsesOneStatementPerTable(int lines) {
+        Result unbatched = insert(lines, 1);
+        Result batched = insert(lines, 50);
+
+        log.info("order with {} lines: unbatched {} statements in {} us, batched {} statements in {} us",
+                 lines, unbatched.statements(), unbatched.micros(), batched.statements(), batched.micros());
+
+        // one statement for orders, one per 50 order_item rows, plus sequence refills
+        long insertBatches = 1 + (lines + 49) / 50;
+        assertThat(batched.statements()).isLessThanOrEqualTo(insertBatches + 2);
+        assertThat(unbatched.statements()).isGreaterThanOrEqualTo(1 + lines);
+    }
+
+    private Result insert(int lines, int batchSize) {
+        entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+        Order order = Order.builder().customer(customer).build();
+        for (int i = 0; i < lines; i++) {
+            order.addItem(OrderItem.builder().product(product).quantity(1).unitPrice(product.getPrice()).build());
+        }
+        statistics.clear();
+        long start = System.nanoTime();
+        orderRepository.save(order);
+        entityManager.flush();
+        long micros = (System.nanoTime() - start) / 1_000;
+        entityManager.unwrap(Session.class).setJdbcBatchSize(null);
+        return new Result(statistics.getPrepareStatementCount(), micros);
+    }
+
+    private record Result(long statements, long micros) {
+    }
+}
@@ -0,0 +1,301 @@
+package com.order.management.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assertj.core.api.SoftAssertions;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Method;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs every query of {@link OrderRepository}, {@link CustomerRepository} and
+ * {@link ProductRepository} against a seeded PostgreSQL database, explains the SQL Hibernate
+ * sent, and fails on a sequential scan of any table with more than
+ * {@code plan-check.max-seq-scan-rows} rows. Queries that read a whole table by design are
+ * listed as full scans and exempt. Also checks that every foreign key has an index leading
+ * with its columns, since the checks behind a parent DELETE never show up in a plan.
+ *
+ * <p>Needs PostgreSQL 16 or later for {@code EXPLAIN (GENERIC_PLAN)}. The database is
+ * migrated by Flyway and its tables are TRUNCATED and reseeded, so point it at a throwaway
+ * database:
+ * <pre>
+ * mvn test -Dtest=RepositoryQueryPlanTest -Dplan-check.url=jdbc:postgresql://localhost:5433/plancheck
+ * </pre>
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnabledIfSystemProperty(named = "plan-check.url", matches = ".+")
+@Import(RepositoryQueryPlanTest.CaptureConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // seeding has to commit before ANALYZE
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RepositoryQueryPlanTest {
+
+    private static final int CUSTOMERS = 20_000;
+    private static final int PRODUCTS = 5_000;
+    private static final int ORDERS = 200_000;
+    private static final int ITEMS_PER_ORDER = 3;
+
+    private static final long MAX_SEQ_SCAN_ROWS = Long.getLong("plan-check.max-seq-scan-rows", 1_000);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CapturingInspector inspector;
+
+    @DynamicPropertySource
+    static void planCheckDatabase(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getProperty("plan-check.url"));
+        registry.add("spring.datasource.username", () -> System.getProperty("plan-check.username", "root"));
+        registry.add("spring.datasource.password", () -> System.getProperty("plan-check.password", "root"));
+    }
+
+    @BeforeAll
+    void seed() {
+        Integer version = jdbcTemplate.queryForObject("SELECT current_setting('server_version_num')::int", Integer.class);
+        assertThat(version).as("EXPLAIN (GENERIC_PLAN) needs PostgreSQL 16 or later").isGreaterThanOrEqualTo(160_000);
+
+        jdbcTemplate.execute("TRUNCATE order_item, orders, customer_order_stats, customer, product RESTART IDENTITY CASCADE");
+        jdbcTemplate.update("""
+                INSERT INTO customer (name, email, phone)
+                SELECT 'customer ' || g, 'customer' || g || '@example.com', 'p-' || g
+                  FROM generate_series(1, ?) g""", CUSTOMERS);
+        jdbcTemplate.update("""
+                INSERT INTO product (name, price, stock)
+                SELECT 'product ' || g, 0.99 + g % 100, 1000
+                  FROM generate_series(1, ?) g""", PRODUCTS);
+        jdbcTemplate.update("""
+                INSERT INTO orders (id, customer_id, order_date, inventory_applied, total_amount, item_count)
+                SELECT g, 1 + g % ?, TIMESTAMP '2024-01-01' + g * INTERVAL '1 minute', TRUE, ? * 9.99, ?
+                  FROM generate_series(1, ?) g""", CUSTOMERS, ITEMS_PER_ORDER, ITEMS_PER_ORDER, ORDERS);
+        jdbcTemplate.update("""
+                INSERT INTO order_item (id, order_id, product_id, quantity, unit_price, order_date)
+                SELECT g, o.id, 1 + g % ?, 1, 9.99, o.order_date
+                  FROM generate_series(1, ?) g
+                  JOIN orders o ON o.id = 1 + (g - 1) / ?""", PRODUCTS, ORDERS * ITEMS_PER_ORDER, ITEMS_PER_ORDER);
+        jdbcTemplate.execute("""
+                INSERT INTO customer_order_stats (customer_id, order_count)
+                SELECT customer_id, COUNT(*) FROM orders GROUP BY customer_id""");
+        jdbcTemplate.execute("SELECT setval('orders_seq', " + (ORDERS + 50) + ")");
+        jdbcTemplate.execute("SELECT setval('order_item_seq', " + (ORDERS * ITEMS_PER_ORDER + 50) + ")");
+        jdbcTemplate.execute("ANALYZE customer, product, orders, order_item, customer_order_stats");
+    }
+
+    @Test
+    void everyRepositoryQueryIsChecked() {
+        Map<String, RepositoryQuery> queries = queries();
+        List<String> declared = new ArrayList<>();
+        for (Class<?> repository : List.of(OrderRepository.class, CustomerRepository.class, ProductRepository.class)) {
+            for (Method method : repository.getDeclaredMethods()) {
+                if (!method.isSynthetic() && !method.isDefault()) {
+                    declared.add(repository.getSimpleName() + "." + method.getName());
+                }
+            }
+        }
+        assertThat(queries.keySet()).as("repository queries without a plan check").containsAll(declared);
+    }
+
+    @Test
+    void queriesDoNotScanLargeTables() throws Exception {
+        SoftAssertions softly = new SoftAssertions();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        for (Map.Entry<String, RepositoryQuery> query : queries().entrySet()) {
+            inspector.clear();
+            transaction.executeWithoutResult(status -> query.getValue().call().run());
+            List<String> statements = inspector.statements();
+            assertThat(statements).as("SQL sent by %s", query.getKey()).isNotEmpty();
+            if (query.getValue().fullScan()) {
+                continue;
+            }
+            for (String sql : statements) {
+                for (String relation : largeSeqScans(sql)) {
+                    softly.fail("%s scans all of %s:%n%s", query.getKey(), relation, sql);
+                }
+            }
+        }
+        softly.assertAll();
+    }
+
+    @Test
+    void foreignKeysAreIndexed() {
+        List<String> unindexed = jdbcTemplate.queryForList("""
+                SELECT c.conrelid::regclass || ' (' || c.conname || ')'
+                  FROM pg_constraint c
+                 WHERE c.contype = 'f'
+                   AND NOT EXISTS (SELECT 1
+                                     FROM pg_index i
+                                    WHERE i.indrelid = c.conrelid
+                                      AND i.indisvalid
+                                      AND (i.indkey::int2[])[0:cardinality(c.conkey) - 1] @> c.conkey
+                                      AND (i.indkey::int2[])[0:cardinality(c.conkey) - 1] <@ c.conkey)
+                 ORDER BY 1""", String.class);
+        assertThat(unindexed).as("foreign keys without a leading index").isEmpty();
+    }
+
+    private Map<String, RepositoryQuery> queries() {
+        long customerId = 42;
+        List<Long> ids = LongStream.rangeClosed(100, 119).boxed().toList();
+        Map<String, RepositoryQuery> queries = new LinkedHashMap<>();
+        queries.put("OrderRepository.findLinesByCustomerId",
+                    indexed(() -> orderRepository.findLinesByCustomerId(customerId)));
+        queries.put("OrderRepository.findSummariesByCustomerId",
+                    indexed(() -> orderRepository.findSummariesByCustomerId(customerId)));
+        queries.put("OrderRepository.findPageKeys",
+                    indexed(() -> orderRepository.findPageKeys(customerId, Limit.of(20))));
+        queries.put("OrderRepository.findPageKeysAfter",
+                    indexed(() -> orderRepository.findPageKeysAfter(customerId, Instant.parse("2024-02-01T00:00:00Z"),
+                                                                    1_000L, Limit.of(20))));
+        queries.put("OrderRepository.findLinesByIdIn",
+                    indexed(() -> orderRepository.findLinesByIdIn(ids, Instant.parse("2024-01-01T00:00:00Z"),
+                                                                  Instant.parse("2024-01-02T00:00:00Z"))));
+        queries.put("OrderRepository.countOrdersPerCustomer",
+                    fullScan(orderRepository::countOrdersPerCustomer));
+        queries.put("OrderRepository.findById", indexed(() -> orderRepository.findById(1L)));
+        queries.put("CustomerRepository.findByEmail",
+                    indexed(() -> customerRepository.findByEmail("customer42@example.com")));
+        queries.put("CustomerRepository.findByPhone", indexed(() -> customerRepository.findByPhone("p-42")));
+        queries.put("CustomerRepository.streamAllAsDto",
+                    fullScan(() -> customerRepository.streamAllAsDto().limit(10).close()));
+        queries.put("CustomerRepository.findById", indexed(() -> customerRepository.findById(customerId)));
+        queries.put("CustomerRepository.existsById", indexed(() -> customerRepository.existsById(customerId)));
+        queries.put("CustomerRepository.findAllById", indexed(() -> customerRepository.findAllById(ids)));
+        queries.put("ProductRepository.findAllByIdForUpdate",
+                    indexed(() -> productRepository.findAllByIdForUpdate(ids)));
+        queries.put("ProductRepository.streamAllAsDto",
+                    fullScan(() -> productRepository.streamAllAsDto().limit(10).close()));
+        queries.put("ProductRepository.findById", indexed(() -> productRepository.findById(1L)));
+        queries.put("ProductRepository.findAllById", indexed(() -> productRepository.findAllById(ids)));
+        return queries;
+    }
+
+    /**
+     * Relations with more than the threshold's rows that the generic plan for {@code sql}
+     * reads with a sequential scan.
+     */
+    private List<String> largeSeqScans(String sql) throws Exception {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN (GENERIC_PLAN, FORMAT JSON) " + numbered(sql), String.class);
+        TreeSet<String> scanned = new TreeSet<>();
+        collectSeqScans(objectMapper.readTree(plan).get(0).get("Plan"), scanned);
+        List<String> large = new ArrayList<>();
+        for (String relation : scanned) {
+            Long rows = jdbcTemplate.queryForObject(
+                    "SELECT reltuples::bigint FROM pg_class WHERE oid = to_regclass(?)", Long.class, relation);
+            if (rows != null && rows > MAX_SEQ_SCAN_ROWS) {
+                large.add(relation + " (" + rows + " rows)");
+            }
+        }
+        return large;
+    }
+
+    private static void collectSeqScans(JsonNode node, TreeSet<String> scanned) {
+        if ("Seq Scan".equals(node.path("Node Type").asText())) {
+            scanned.add(node.path("Relation Name").asText());
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectSeqScans(child, scanned);
+        }
+    }
+
+    /**
+     * Turns JDBC placeholders into the numbered parameters EXPLAIN (GENERIC_PLAN) accepts.
+     */
+    private static String numbered(String sql) {
+        StringBuilder out = new StringBuilder(sql.length() + 16);
+        int parameter = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '?') {
+                out.append('$').append(++parameter);
+            } else {
+                out.append(c);
+            }
+        }
+        return out.toString();
+    }
+
+    private static RepositoryQuery indexed(Runnable call) {
+        return new RepositoryQuery(call, false);
+    }
+
+    private static RepositoryQuery fullScan(Runnable call) {
+        return new RepositoryQuery(call, true);
+    }
+
+    private record RepositoryQuery(Runnable call, boolean fullScan) {
+    }
+
+    static final class CapturingInspector implements StatementInspector {
+
+        private final List<String> statements = new ArrayList<>();
+
+        @Override
+        public synchronized String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+
+        synchronized List<String> statements() {
+            return List.copyOf(statements);
+        }
+
+        synchronized void clear() {
+            statements.clear();
+        }
+    }
+
+    @TestConfiguration(proxyBeanMethods = false)
+    static class CaptureConfig {
+
+        @Bean
+        CapturingInspector capturingInspector() {
+            return new CapturingInspector();
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer statementCapture(CapturingInspector inspector) {
+            return properties -> properties.put("hibernate.session_factory.statement_inspector", inspector);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.order.management.service.impl;
+
+import com.order.management.cache.ResponseCache;
+import com.order.management.config.ReportStatsProperties;
+import com.order.management.config.ResponseCacheProperties;
+import com.order.management.dto.CustomerOrderCountDTO;
+import com.order.management.model.Customer;
+import com.order.management.model.CustomerOrderStats;
+import com.order.management.model.Order;
+import com.order.management.repository.CustomerOrderStatsRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnableConfigurationProperties({ReportStatsProperties.class, ResponseCacheProperties.class})
+@Import({CustomerOrderStatsVerifier.class, ResponseCache.class})
+class CustomerOrderStatsVerifierTest {
+
+    @Autowired
+    private CustomerOrderStatsVerifier verifier;
+
+    @Autowired
+    private CustomerOrderStatsRepository statsRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void reportsReadMaintainedCountsAndDriftIsRepaired() {
+        Customer ann = customer("Ann", 3, 3);
+        Customer bob = customer("Bob", 5, 2);   // stats row lagging behind
+        Customer cid = customer("Cid", 0, 0);
+        entityManager.flush();
+
+        assertThat(statsRepository.findTopCustomers(Limit.of(1)))
+                .containsExactly(new CustomerOrderCountDTO(ann.getId(), "Ann", 3L));
+
+        assertThat(verifier.verify()).containsExactlyEntriesOf(Map.of(bob.getId(), 3L));
+        entityManager.clear();
+
+        assertThat(statsRepository.findOrderCountPerCustomer()).containsExactly(
+                new CustomerOrderCountDTO(ann.getId(), "Ann", 3L),
+                new CustomerOrderCountDTO(bob.getId(), "Bob", 5L));
+        assertThat(statsRepository.findById(cid.getId())).hasValueSatisfying(
+                stats -> assertThat(stats.getOrderCount()).isZero());
+        assertThat(verifier.verify()).isEmpty();
+    }
+
+    private Customer customer(String name, int orders, long recorded) {
+        Customer customer = Customer.builder()
+                .name(name).email(name + "@example.com").phone("555-" + name).build();
+        entityManager.persist(customer);
+        for (int i = 0; i < orders; i++) {
+            entityManager.persist(Order.builder().customer(customer).build());
+        }
+        entityManager.persist(new CustomerOrderStats(customer.getId(), recorded));
+        return customer;
+    }
+}
@@ -0,0 +1,82 @@
+package com.order.management.service.impl;
+
+import com.order.management.dto.CustomerDTO;
+import com.order.management.dto.ProductDTO;
+import com.order.management.model.Customer;
+import com.order.management.model.Product;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.BeanUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Cost of the entity-to-DTO copies behind the full product and customer listings. The
+ * {@code reflective*} methods keep the former {@code BeanUtils.copyProperties} and stream
+ * mapping as a baseline; run with {@code -prof gc} for allocation per listing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoCopyBenchmark {
+
+    @Param({"100", "10000"})
+    public int rows;
+
+    private ProductServiceImpl productService;
+    private CustomerServiceImpl customerService;
+    private List<Product> products;
+    private List<Customer> customers;
+
+    @Setup
+    public void setUp() {
+        productService = new ProductServiceImpl(null, demand -> Map.of(), null, null, null, null);
+        customerService = new CustomerServiceImpl(null, null, null, null);
+        products = new ArrayList<>(rows);
+        customers = new ArrayList<>(rows);
+        for (long i = 0; i < rows; i++) {
+            products.add(Product.builder().id(i).name("product-" + i).price(new BigDecimal("2.50")).stock(10).build());
+            customers.add(Customer.builder().id(i).name("customer-" + i).email(i + "@example.com").phone("555-0100")
+                                  .build());
+        }
+    }
+
+    @Benchmark
+    public List<ProductDTO> products() {
+        return productService.toDTOs(products);
+    }
+
+    @Benchmark
+    public List<ProductDTO> reflectiveProducts() {
+        return products.stream()
+                .map(product -> {
+                    ProductDTO dto = new ProductDTO();
+                    BeanUtils.copyProperties(product, dto);
+                    return dto;
+                })
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<CustomerDTO> customers() {
+        return customerService.toDTOs(customers);
+    }
+
+    @Benchmark
+    public List<CustomerDTO> reflectiveCustomers() {
+        return customers.stream()
+                .map(customer -> {
+                    CustomerDTO dto = new CustomerDTO();
+                    BeanUtils.copyProperties(customer, dto);
+                    return dto;
+                })
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,108 @@
+package com.order.management.service.impl;
+
+import com.order.management.exception.InsufficientStockException;
+import com.order.management.exception.ResourceNotFoundException;
+import com.order.management.model.Product;
+import com.order.management.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(JdbcStockReservationService.class)
+class JdbcStockReservationServiceTest {
+
+    @Autowired
+    private JdbcStockReservationService reservationService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void reserveDecrementsEveryRequestedProduct() {
+        Product pen = save("pen", 10);
+        Product ink = save("ink", 5);
+
+        Map<Long, Product> reserved = reservationService.reserve(demand(pen.getId(), 4, ink.getId(), 5));
+
+        assertThat(reserved).containsOnlyKeys(pen.getId(), ink.getId());
+        assertThat(stockInDb(pen.getId())).isEqualTo(6);
+        assertThat(stockInDb(ink.getId())).isZero();
+        assertThat(reserved.get(pen.getId()).getStock()).isEqualTo(6);
+    }
+
+    @Test
+    void reserveIsAllOrNothingWhenOneProductIsShort() {
+        Product pen = save("pen", 10);
+        Product ink = save("ink", 1);
+
+        assertThatThrownBy(() -> reservationService.reserve(demand(pen.getId(), 4, ink.getId(), 2)))
+                .isInstanceOf(InsufficientStockException.class)
+                .hasMessageContaining("productId=" + ink.getId());
+        assertThat(stockInDb(pen.getId())).isEqualTo(10);
+    }
+
+    @Test
+    void reserveRejectsUnknownProduct() {
+        Product pen = save("pen", 10);
+
+        assertThatThrownBy(() -> reservationService.reserve(demand(pen.getId(), 1, 9_999L, 1)))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("Product not found with id 9999");
+    }
+
+    @Test
+    void reservedEntitiesAreExcludedFromDirtyChecking() {
+        Product pen = save("pen", 10);
+
+        Product reserved = reservationService.reserve(demand(pen.getId(), 3, null, null)).get(pen.getId());
+        entityManager.flush();
+
+        assertThat(entityManager.unwrap(Session.class).isReadOnly(reserved)).isTrue();
+        assertThat(stockInDb(pen.getId())).isEqualTo(7);
+    }
+
+    private Product save(String name, int stock) {
+        Product product = productRepository.saveAndFlush(Product.builder()
+                .name(name)
+                .price(new BigDecimal("2.50"))
+                .stock(stock)
+                .build());
+        entityManager.clear();
+        return product;
+    }
+
+    private Integer stockInDb(Long id) {
+        return jdbcTemplate.queryForObject("SELECT stock FROM product WHERE id = ?", Integer.class, id);
+    }
+
+    private static Map<Long, Integer> demand(Long firstId, Integer firstQty, Long secondId, Integer secondQty) {
+        Map<Long, Integer> demand = new TreeMap<>();
+        demand.put(firstId, firstQty);
+        if (secondId != null) {
+            demand.put(secondId, secondQty);
+        }
+        return demand;
+    }
+}
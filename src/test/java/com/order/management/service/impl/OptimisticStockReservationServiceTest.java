@@ -0,0 +1,166 @@
+package com.order.management.service.impl;
+
+import com.order.management.config.InventoryProperties;
+import com.order.management.exception.InsufficientStockException;
+import com.order.management.model.Product;
+import com.order.management.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = "inventory.mode=optimistic")
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(OptimisticStockReservationService.class)
+class OptimisticStockReservationServiceTest {
+
+    @Autowired
+    private OptimisticStockReservationService reservationService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void reserveDecrementsAndBumpsTheVersion() {
+        Product pen = save("pen", 10);
+
+        Product reserved = reservationService.reserve(Map.of(pen.getId(), 4)).get(pen.getId());
+
+        assertThat(stockInDb(pen.getId())).isEqualTo(6);
+        assertThat(versionInDb(pen.getId())).isEqualTo(pen.getVersion() + 1);
+        assertThat(reserved.getVersion()).isEqualTo(pen.getVersion() + 1);
+    }
+
+    @Test
+    void rowChangedSinceItWasReadIsAConflict() {
+        Product pen = save("pen", 10);
+        productRepository.findById(pen.getId());
+        // another transaction reserves after this one has read the row
+        jdbcTemplate.update("UPDATE product SET stock = stock - 1, version = version + 1 WHERE id = ?", pen.getId());
+
+        assertThatThrownBy(() -> reservationService.reserve(Map.of(pen.getId(), 4)))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        assertThat(stockInDb(pen.getId())).isEqualTo(9);
+    }
+
+    @Test
+    void shortStockIsRejectedWithoutAConflict() {
+        Product pen = save("pen", 2);
+
+        assertThatThrownBy(() -> reservationService.reserve(Map.of(pen.getId(), 3)))
+                .isInstanceOf(InsufficientStockException.class);
+        assertThat(versionInDb(pen.getId())).isEqualTo(pen.getVersion());
+    }
+
+    @Test
+    void stockAdjustmentIsRelativeAndNeverGoesNegative() {
+        Product pen = save("pen", 5);
+        // an adjustment does not care which version it lands on
+        jdbcTemplate.update("UPDATE product SET version = version + 1 WHERE id = ?", pen.getId());
+
+        assertThat(productRepository.adjustStock(pen.getId(), 7)).isEqualTo(1);
+        assertThat(productRepository.adjustStock(pen.getId(), -13)).isZero();
+        assertThat(productRepository.adjustStock(pen.getId(), -12)).isEqualTo(1);
+        assertThat(stockInDb(pen.getId())).isZero();
+        assertThat(versionInDb(pen.getId())).isEqualTo(pen.getVersion() + 3);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void conflictsAreRetriedUntilAnAttemptSucceeds() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = retry(registry, 5).run("placeOrder", () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new ObjectOptimisticLockingFailureException(Product.class, 1L);
+            }
+            return "placed";
+        });
+
+        assertThat(result).isEqualTo("placed");
+        assertThat(registry.get("inventory.optimistic.conflicts").tag("operation", "placeOrder").counter().count())
+                .isEqualTo(2);
+        assertThat(registry.get("inventory.optimistic.retries").counter().count()).isEqualTo(2);
+        assertThat(registry.find("inventory.optimistic.exhausted").counter()).isNull();
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void retriesStopAtMaxAttempts() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> retry(registry, 3).run("placeOrder", () -> {
+            attempts.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException(Product.class, 1L);
+        })).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+
+        assertThat(attempts).hasValue(3);
+        assertThat(registry.get("inventory.optimistic.exhausted").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void noRetryInsideTheCallersTransaction() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> retry(new SimpleMeterRegistry(), 5).run("placeOrder", () -> {
+            attempts.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException(Product.class, 1L);
+        })).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+
+        assertThat(attempts).hasValue(1);
+    }
+
+    private static OptimisticLockRetry retry(MeterRegistry registry, int maxAttempts) {
+        InventoryProperties properties = new InventoryProperties();
+        properties.getOptimistic().setMaxAttempts(maxAttempts);
+        properties.getOptimistic().setInitialBackoff(Duration.ofMillis(1));
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("meterRegistry", registry);
+        return new OptimisticLockRetry(properties, beanFactory.getBeanProvider(MeterRegistry.class));
+    }
+
+    private Product save(String name, int stock) {
+        Product product = productRepository.saveAndFlush(Product.builder()
+                .name(name)
+                .price(new BigDecimal("2.50"))
+                .stock(stock)
+                .build());
+        entityManager.clear();
+        return product;
+    }
+
+    private Integer stockInDb(Long id) {
+        return jdbcTemplate.queryForObject("SELECT stock FROM product WHERE id = ?", Integer.class, id);
+    }
+
+    private Long versionInDb(Long id) {
+        return jdbcTemplate.queryForObject("SELECT version FROM product WHERE id = ?", Long.class, id);
+    }
+}
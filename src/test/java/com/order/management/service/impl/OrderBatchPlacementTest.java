@@ -0,0 +1,143 @@
+package com.order.management.service.impl;
+
+import com.order.management.cache.ProductMetadataCache;
+import com.order.management.cache.ResponseCache;
+import com.order.management.config.InventoryProperties;
+import com.order.management.config.ProductCacheProperties;
+import com.order.management.config.ResponseCacheProperties;
+import com.order.management.dto.BatchOrderResponseDTO;
+import com.order.management.dto.BatchOrderResultDTO;
+import com.order.management.dto.OrderItemRequestDTO;
+import com.order.management.dto.OrderRequestDTO;
+import com.order.management.model.Customer;
+import com.order.management.model.CustomerOrderStats;
+import com.order.management.model.Product;
+import com.order.management.outbox.ChangeEventRecorder;
+import com.order.management.repository.OrderHistoryStreamRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnableConfigurationProperties({ProductCacheProperties.class, ResponseCacheProperties.class,
+                               InventoryProperties.class})
+@Import({OrderServiceImpl.class, OptimisticLockRetry.class, JdbcStockReservationService.class, OrderHistoryStreamRepository.class,
+         ProductMetadataCache.class, ResponseCache.class, ChangeEventRecorder.class})
+class OrderBatchPlacementTest {
+
+    @Autowired
+    private OrderServiceImpl orderService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void rejectionsAreIsolatedToTheOrdersThatCausedThem() {
+        Customer ann = customer("ann");
+        Customer bob = customer("bob");
+        entityManager.persist(new CustomerOrderStats(ann.getId(), 0));
+        Product pen = product("pen", 5);
+        Product ink = product("ink", 100);
+        entityManager.flush();
+
+        BatchOrderResponseDTO response = orderService.placeOrders(List.of(
+                order(ann, pen, 3),
+                order(bob, pen, 3),
+                new OrderRequestDTO(ann.getId(), List.of(item(ink, 1), item(pen, 2))),
+                new OrderRequestDTO(9_999L, List.of(item(ink, 1))),
+                new OrderRequestDTO(ann.getId(), List.of(new OrderItemRequestDTO(9_998L, 1)))));
+
+        assertThat(response.getPlaced()).isEqualTo(2);
+        assertThat(response.getRejected()).isEqualTo(3);
+        List<BatchOrderResultDTO> results = response.getResults();
+        assertThat(results).extracting(BatchOrderResultDTO::getIndex).containsExactly(0, 1, 2, 3, 4);
+        assertThat(results).extracting(BatchOrderResultDTO::getStatus).containsExactly(
+                BatchOrderResultDTO.Status.PLACED, BatchOrderResultDTO.Status.REJECTED,
+                BatchOrderResultDTO.Status.PLACED, BatchOrderResultDTO.Status.REJECTED,
+                BatchOrderResultDTO.Status.REJECTED);
+        assertThat(results).extracting(BatchOrderResultDTO::getErrorCode).containsExactly(
+                null, "INSUFFICIENT_STOCK", null, "NOT_FOUND", "NOT_FOUND");
+        assertThat(results.get(1).getMessage()).contains("productId=" + pen.getId(), "available=2");
+        assertThat(results.get(2).getOrder().getItems()).extracting(item -> item.getProductName())
+                .containsExactly("ink", "pen");
+
+        entityManager.flush();
+        assertThat(stockInDb(pen)).isZero();
+        assertThat(stockInDb(ink)).isEqualTo(99);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders", Long.class)).isEqualTo(2);
+        assertThat(orderCount(ann)).isEqualTo(2);
+        assertThat(orderCount(bob)).isNull();
+    }
+
+    @Test
+    void statementCountDoesNotGrowWithTheBatch() {
+        Customer ann = customer("ann");
+        entityManager.persist(new CustomerOrderStats(ann.getId(), 0));
+        List<OrderRequestDTO> orders = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            orders.add(order(ann, product("p" + i, 10), 1));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        BatchOrderResponseDTO response = orderService.placeOrders(orders);
+        entityManager.flush();
+
+        assertThat(response.getPlaced()).isEqualTo(40);
+        // customers, product metadata (cold here), locked products, sequence values, and one
+        // batched insert per table
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(9);
+        assertThat(orderCount(ann)).isEqualTo(40);
+    }
+
+    private Customer customer(String name) {
+        Customer customer = Customer.builder()
+                .name(name).email(name + "@example.com").phone("555-" + name).build();
+        entityManager.persist(customer);
+        return customer;
+    }
+
+    private Product product(String name, int stock) {
+        Product product = Product.builder().name(name).price(new BigDecimal("2.50")).stock(stock).build();
+        entityManager.persist(product);
+        return product;
+    }
+
+    private static OrderRequestDTO order(Customer customer, Product product, int quantity) {
+        return new OrderRequestDTO(customer.getId(), List.of(item(product, quantity)));
+    }
+
+    private static OrderItemRequestDTO item(Product product, int quantity) {
+        return new OrderItemRequestDTO(product.getId(), quantity);
+    }
+
+    private int stockInDb(Product product) {
+        return jdbcTemplate.queryForObject("SELECT stock FROM product WHERE id = ?", Integer.class, product.getId());
+    }
+
+    private Long orderCount(Customer customer) {
+        return jdbcTemplate.query("SELECT order_count FROM customer_order_stats WHERE customer_id = ?",
+                rs -> rs.next() ? rs.getLong(1) : null, customer.getId());
+    }
+}
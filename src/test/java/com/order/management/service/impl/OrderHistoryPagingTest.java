@@ -0,0 +1,118 @@
+package com.order.management.service.impl;
+
+import com.order.management.cache.ProductMetadataCache;
+import com.order.management.cache.ResponseCache;
+import com.order.management.config.InventoryProperties;
+import com.order.management.config.ProductCacheProperties;
+import com.order.management.config.ResponseCacheProperties;
+import com.order.management.dto.OrderPageDTO;
+import com.order.management.dto.OrderResponseDTO;
+import com.order.management.dto.OrderSummaryDTO;
+import com.order.management.exception.BadRequestException;
+import com.order.management.model.Customer;
+import com.order.management.model.Order;
+import com.order.management.model.OrderItem;
+import com.order.management.model.Product;
+import com.order.management.outbox.ChangeEventRecorder;
+import com.order.management.repository.OrderHistoryStreamRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnableConfigurationProperties({ProductCacheProperties.class, ResponseCacheProperties.class,
+                               InventoryProperties.class})
+@Import({OrderServiceImpl.class, OptimisticLockRetry.class, JdbcStockReservationService.class, OrderHistoryStreamRepository.class,
+         ProductMetadataCache.class, ResponseCache.class, ChangeEventRecorder.class})
+class OrderHistoryPagingTest {
+
+    @Autowired
+    private OrderServiceImpl orderService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Customer customer;
+    private final List<Long> orderIds = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        customer = Customer.builder().name("Ann").email("ann@example.com").phone("555-0100").build();
+        Product product = Product.builder().name("pen").price(new BigDecimal("2.50")).stock(100).build();
+        entityManager.persist(customer);
+        entityManager.persist(product);
+        // two orders share a timestamp so the id tie-breaker is exercised
+        Instant base = Instant.parse("2024-01-01T00:00:00Z");
+        Instant[] dates = {base, base.plus(1, ChronoUnit.HOURS), base.plus(1, ChronoUnit.HOURS),
+                           base.plus(2, ChronoUnit.HOURS), base.plus(3, ChronoUnit.HOURS)};
+        for (Instant date : dates) {
+            Order order = Order.builder().customer(customer).orderDate(date).build();
+            order.addItem(OrderItem.builder().product(product).quantity(2).unitPrice(product.getPrice()).build());
+            entityManager.persist(order);
+            entityManager.flush();
+            orderIds.add(order.getId());
+        }
+        entityManager.clear();
+    }
+
+    @Test
+    void cursorWalksTheWholeHistoryWithoutGapsOrRepeats() {
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            OrderPageDTO page = orderService.getOrdersByCustomerId(customer.getId(), cursor, 2);
+            page.getOrders().forEach(o -> seen.add(o.getId()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(seen).containsExactlyElementsOf(orderIds);
+    }
+
+    @Test
+    void streamEmitsEveryOrderWithTotals() {
+        List<OrderResponseDTO> streamed = new ArrayList<>();
+
+        long count = orderService.streamOrdersByCustomerId(customer.getId(), streamed::add);
+
+        assertThat(count).isEqualTo(orderIds.size());
+        assertThat(streamed).extracting(OrderResponseDTO::getId).containsExactlyElementsOf(orderIds);
+        assertThat(streamed).allSatisfy(o -> assertThat(o.getTotalAmount()).isEqualByComparingTo("5.00"));
+    }
+
+    @Test
+    void summariesCarryTheStoredTotals() {
+        List<OrderSummaryDTO> summaries = orderService.getOrderSummariesByCustomerId(customer.getId());
+
+        assertThat(summaries).extracting(OrderSummaryDTO::getId).containsExactlyElementsOf(orderIds);
+        assertThat(summaries).allSatisfy(o -> {
+            assertThat(o.getItemCount()).isEqualTo(1);
+            assertThat(o.getTotalAmount()).isEqualByComparingTo("5.00");
+        });
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        assertThatThrownBy(() -> orderService.getOrdersByCustomerId(customer.getId(), "not-a-cursor", 2))
+                .isInstanceOf(BadRequestException.class);
+    }
+}
@@ -0,0 +1,102 @@
+package com.order.management.service.impl;
+
+import com.order.management.cache.ProductMetadata;
+import com.order.management.dto.OrderItemResponseDTO;
+import com.order.management.dto.OrderResponseDTO;
+import com.order.management.model.Customer;
+import com.order.management.model.Order;
+import com.order.management.model.OrderItem;
+import com.order.management.model.Product;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Cost of turning an order history into response DTOs: per-item mapping plus BigDecimal
+ * totals. {@code streamsAndBuilders} keeps the former two-stream, builder-based mapping as a
+ * baseline; run with {@code -prof gc} for allocation per history.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderMappingBenchmark {
+
+    @Param({"1", "200"})
+    public int orders;
+
+    @Param({"5", "50"})
+    public int items;
+
+    private List<Order> history;
+    private Map<Long, ProductMetadata> products;
+
+    @Setup
+    public void setUp() {
+        Customer customer = Customer.builder().id(1L).name("Ann").email("ann@example.com").phone("555").build();
+        products = new HashMap<>();
+        List<Product> catalogue = new ArrayList<>(items);
+        for (long i = 0; i < items; i++) {
+            Product product = Product.builder()
+                    .id(i).name("product-" + i).price(new BigDecimal("19.99")).stock(100).build();
+            products.put(i, ProductMetadata.of(product));
+            catalogue.add(product);
+        }
+        history = new ArrayList<>(orders);
+        for (long o = 0; o < orders; o++) {
+            Order order = Order.builder().id(o).customer(customer).orderDate(Instant.now()).build();
+            for (Product product : catalogue) {
+                order.addItem(OrderItem.builder().product(product)
+                                      .quantity((int) (product.getId() % 5) + 1).unitPrice(product.getPrice()).build());
+            }
+            history.add(order);
+        }
+    }
+
+    @Benchmark
+    public List<OrderResponseDTO> singlePass() {
+        List<OrderResponseDTO> responses = new ArrayList<>(history.size());
+        for (Order order : history) {
+            responses.add(OrderServiceImpl.toResponseDTO(order, order.getItems(), products));
+        }
+        return responses;
+    }
+
+    @Benchmark
+    public List<OrderResponseDTO> streamsAndBuilders() {
+        return history.stream()
+                .map(order -> {
+                    List<OrderItemResponseDTO> itemDTOs = order.getItems().stream()
+                            .map(item -> {
+                                ProductMetadata product = products.get(item.getProduct().getId());
+                                return OrderItemResponseDTO.builder()
+                                        .productId(item.getProduct().getId())
+                                        .productName(product != null ? product.name() : null)
+                                        .quantity(item.getQuantity())
+                                        .unitPrice(item.getUnitPrice())
+                                        .build();
+                            })
+                            .collect(Collectors.toList());
+                    BigDecimal totalAmount = itemDTOs.stream()
+                            .map(i -> i.getUnitPrice().multiply(BigDecimal.valueOf(i.getQuantity())))
+                            .reduce(BigDecimal.ZERO, BigDecimal::add);
+                    return OrderResponseDTO.builder()
+                            .id(order.getId())
+                            .customerId(order.getCustomer().getId())
+                            .orderDate(order.getOrderDate())
+                            .items(itemDTOs)
+                            .totalAmount(totalAmount)
+                            .build();
+                })
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,110 @@
+package com.order.management.service.impl;
+
+import com.order.management.cache.ProductMetadataCache;
+import com.order.management.cache.ResponseCache;
+import com.order.management.config.InventoryProperties;
+import com.order.management.config.ProductCacheProperties;
+import com.order.management.config.ResponseCacheProperties;
+import com.order.management.dto.OrderResponseDTO;
+import com.order.management.exception.ResourceNotFoundException;
+import com.order.management.model.Customer;
+import com.order.management.model.Order;
+import com.order.management.model.OrderItem;
+import com.order.management.model.Product;
+import com.order.management.outbox.ChangeEventRecorder;
+import com.order.management.repository.OrderHistoryStreamRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Guards the order-history read path against N+1 queries.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnableConfigurationProperties({ProductCacheProperties.class, ResponseCacheProperties.class,
+                               InventoryProperties.class})
+@Import({OrderServiceImpl.class, OptimisticLockRetry.class, JdbcStockReservationService.class, OrderHistoryStreamRepository.class,
+         ProductMetadataCache.class, ResponseCache.class, ChangeEventRecorder.class})
+class OrderServiceImplQueryCountTest {
+
+    private static final int ORDERS = 20;
+    private static final int ITEMS_PER_ORDER = 3;
+
+    @Autowired
+    private OrderServiceImpl orderService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void orderHistoryIsLoadedWithBoundedQueries() {
+        Customer customer = seedCustomerWithOrders();
+        entityManager.clear();
+        statistics.clear();
+
+        List<OrderResponseDTO> orders = orderService.getOrdersByCustomerId(customer.getId());
+
+        assertThat(orders).hasSize(ORDERS);
+        assertThat(orders).allSatisfy(order -> {
+            assertThat(order.getCustomerId()).isEqualTo(customer.getId());
+            assertThat(order.getItems()).hasSize(ITEMS_PER_ORDER)
+                    .allSatisfy(item -> assertThat(item.getProductName()).startsWith("product-"));
+        });
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void unknownCustomerIsStillReported() {
+        statistics.clear();
+
+        assertThatThrownBy(() -> orderService.getOrdersByCustomerId(9_999L))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    private Customer seedCustomerWithOrders() {
+        Customer customer = Customer.builder().name("Ann").email("ann@example.com").phone("555-0100").build();
+        entityManager.persist(customer);
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < ITEMS_PER_ORDER * 2; i++) {
+            Product product = Product.builder()
+                    .name("product-" + i).price(new BigDecimal("1.25")).stock(100).build();
+            entityManager.persist(product);
+            products.add(product);
+        }
+        for (int o = 0; o < ORDERS; o++) {
+            Order order = Order.builder().customer(customer).build();
+            for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+                Product product = products.get((o + i) % products.size());
+                order.addItem(OrderItem.builder().product(product).quantity(2).unitPrice(product.getPrice()).build());
+            }
+            entityManager.persist(order);
+        }
+        entityManager.flush();
+        return customer;
+    }
+}